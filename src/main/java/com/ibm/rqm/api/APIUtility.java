@@ -16,6 +16,8 @@ import java.net.HttpURLConnection;
 import java.net.URL;
 import java.net.URLDecoder;
 import java.net.URLEncoder;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -30,6 +32,7 @@ import com.ibm.rqm.api.internal.client.APIHttpClientFactory;
 import com.ibm.rqm.api.internal.client.qm.APIHttpClient;
 import com.ibm.rqm.api.internal.util.APIUtils;
 import com.ibm.rqm.api.internal.util.DateTimeUtils;
+import com.ibm.rqm.api.internal.util.FeedReader;
 import com.ibm.rqm.api.internal.util.IAPIConstants;
 import com.ibm.rqm.api.internal.util.LogUtils;
 
@@ -74,7 +77,21 @@ public class APIUtility implements IAPIConstants {
 		COUNT("-ct", "-count"), //$NON-NLS-1$ //$NON-NLS-2$
 		SECTION_ID("-si", "-sectionId"),//$NON-NLS-1$ //$NON-NLS-2$
 		SECTION_NAME("-sn", "-sectionName"), //$NON-NLS-1$ //$NON-NLS-2$
-		CONFIG_CONTEXT("-cfg", "-configContext"); //$NON-NLS-1$ //$NON-NLS-2$
+		CONFIG_CONTEXT("-cfg", "-configContext"), //$NON-NLS-1$ //$NON-NLS-2$
+		MAX_CONNECTIONS("-mc", "-maxConnections"), //$NON-NLS-1$ //$NON-NLS-2$
+		THREADS("-th", "-threads"), //$NON-NLS-1$ //$NON-NLS-2$
+		PAGE_CONCURRENCY("-pc", "-pageConcurrency"), //$NON-NLS-1$ //$NON-NLS-2$
+		INLINE_CONTENT("-ic", "-inlineContent", false), //$NON-NLS-1$ //$NON-NLS-2$
+		COMPRESS_REQUESTS("-cr", "-compressRequests", false), //$NON-NLS-1$ //$NON-NLS-2$
+		RETRY_BUDGET("-rb", "-retryBudget"), //$NON-NLS-1$ //$NON-NLS-2$
+		ADAPTIVE_CONCURRENCY("-ac", "-adaptiveConcurrency", false), //$NON-NLS-1$ //$NON-NLS-2$
+		READ_RATE("-rr", "-readRate"), //$NON-NLS-1$ //$NON-NLS-2$
+		WRITE_RATE("-wr", "-writeRate"), //$NON-NLS-1$ //$NON-NLS-2$
+		RATE_PROFILES("-rp", "-rateProfiles"), //$NON-NLS-1$ //$NON-NLS-2$
+		SESSION_REFRESH_INTERVAL("-sri", "-sessionRefreshInterval"), //$NON-NLS-1$ //$NON-NLS-2$
+		SESSION_FILE("-sf", "-sessionFile"), //$NON-NLS-1$ //$NON-NLS-2$
+		CACHE_DIRECTORY("-cdir", "-cacheDirectory"), //$NON-NLS-1$ //$NON-NLS-2$
+		OUTPUT_DIRECTORY("-od", "-outputDirectory"); //$NON-NLS-1$ //$NON-NLS-2$
 
 		private String shortName;
 		private String longName;
@@ -227,7 +244,13 @@ public class APIUtility implements IAPIConstants {
 			System.out.println("Connecting to the IBM Engineering Test Management server."); //$NON-NLS-1$
 
 			//Connect to the server:
-			apiHttpClient = APIHttpClientFactory.getClient(serverUrl, username, password); 
+			Path sessionFile = null;
+
+			if (cmdArgs.contains(CmdLineArg.SESSION_FILE)) {
+				sessionFile = Paths.get(CmdLineArg.SESSION_FILE.getValue());
+			}
+
+			apiHttpClient = APIHttpClientFactory.getClient(serverUrl, username, password, sessionFile); 
 			
 			// Tool updated for 6.0.x and above: By adding the config context parameter, all requests will be performed on
 			// the configuration specified. So let's be careful to match projects with its respective configurations.
@@ -237,8 +260,110 @@ public class APIUtility implements IAPIConstants {
 				apiHttpClient.setConfigContext(configContext);
 			}
 
+			if (cmdArgs.contains(CmdLineArg.MAX_CONNECTIONS)) {
+
+				int maxConnections = Integer.parseInt(CmdLineArg.MAX_CONNECTIONS.getValue());
+
+				if(maxConnections < 1){
+					throw new IllegalArgumentException(CmdLineArg.MAX_CONNECTIONS.toString() + " requires a positive number of connections"); //$NON-NLS-1$
+				}
+
+				apiHttpClient.setMaxConnections(maxConnections);
+			}
+
+			apiHttpClient.setCompressRequests(cmdArgs.contains(CmdLineArg.COMPRESS_REQUESTS));
+
+			if (cmdArgs.contains(CmdLineArg.RETRY_BUDGET)) {
+
+				int retryBudget = Integer.parseInt(CmdLineArg.RETRY_BUDGET.getValue());
+
+				if(retryBudget < 0){
+					throw new IllegalArgumentException(CmdLineArg.RETRY_BUDGET.toString() + " requires a non-negative number of retries"); //$NON-NLS-1$
+				}
+
+				apiHttpClient.setRetryBudget(retryBudget);
+			}
+
+			int threads = 1;
+
+			if (cmdArgs.contains(CmdLineArg.THREADS)) {
+
+				threads = Integer.parseInt(CmdLineArg.THREADS.getValue());
+
+				if(threads < 1){
+					throw new IllegalArgumentException(CmdLineArg.THREADS.toString() + " requires a positive number of threads"); //$NON-NLS-1$
+				}
+			}
+
+			int pageConcurrency = 1;
+
+			if (cmdArgs.contains(CmdLineArg.PAGE_CONCURRENCY)) {
+
+				pageConcurrency = Integer.parseInt(CmdLineArg.PAGE_CONCURRENCY.getValue());
+
+				if(pageConcurrency < 1){
+					throw new IllegalArgumentException(CmdLineArg.PAGE_CONCURRENCY.toString() + " requires a positive number of pages"); //$NON-NLS-1$
+				}
+
+				FeedReader.setPageConcurrency(pageConcurrency);
+			}
+
+			//Note: Each concurrent request requires a connection, including the feed pages read in the background while the threads read resources.
+			int concurrentRequests = (threads + pageConcurrency);
+			
+			if(concurrentRequests > apiHttpClient.getMaxConnections()){
+				apiHttpClient.setMaxConnections(concurrentRequests);
+			}
+
+			apiHttpClient.setAdaptiveConcurrency(cmdArgs.contains(CmdLineArg.ADAPTIVE_CONCURRENCY));
+
+			double readRate = 0;
+
+			if (cmdArgs.contains(CmdLineArg.READ_RATE)) {
+
+				readRate = Double.parseDouble(CmdLineArg.READ_RATE.getValue());
+
+				if(readRate < 0){
+					throw new IllegalArgumentException(CmdLineArg.READ_RATE.toString() + " requires a non-negative number of requests per second"); //$NON-NLS-1$
+				}
+			}
+
+			double writeRate = 0;
+
+			if (cmdArgs.contains(CmdLineArg.WRITE_RATE)) {
+
+				writeRate = Double.parseDouble(CmdLineArg.WRITE_RATE.getValue());
+
+				if(writeRate < 0){
+					throw new IllegalArgumentException(CmdLineArg.WRITE_RATE.toString() + " requires a non-negative number of requests per second"); //$NON-NLS-1$
+				}
+			}
+
+			try {
+				apiHttpClient.setRateLimits(readRate, writeRate, CmdLineArg.RATE_PROFILES.getValue());
+			} 
+			catch (IllegalArgumentException i) {
+				throw new IllegalArgumentException(CmdLineArg.RATE_PROFILES.toString() + " requires valid rate profiles (" + i.getMessage() + ")", i); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+
+			if (cmdArgs.contains(CmdLineArg.SESSION_REFRESH_INTERVAL)) {
+
+				long sessionRefreshInterval = Long.parseLong(CmdLineArg.SESSION_REFRESH_INTERVAL.getValue());
+
+				if(sessionRefreshInterval < 0){
+					throw new IllegalArgumentException(CmdLineArg.SESSION_REFRESH_INTERVAL.toString() + " requires a non-negative number of minutes"); //$NON-NLS-1$
+				}
+
+				apiHttpClient.setSessionRefreshInterval(sessionRefreshInterval * 60000);
+			}
+
+			if (cmdArgs.contains(CmdLineArg.CACHE_DIRECTORY)) {
+				apiHttpClient.setCacheDirectory(Paths.get(CmdLineArg.CACHE_DIRECTORY.getValue()));
+			}
+
 			List<String> projectAreaAliases = null;
 
+			//Note: The project areas of the server are only resolved when no project areas are specified.
 			if (cmdArgs.contains(CmdLineArg.PROJECT_AREA)) {
 
 				String[] projectAreaNames = CmdLineArg.PROJECT_AREA.getValue().split(","); //$NON-NLS-1$
@@ -445,6 +570,14 @@ public class APIUtility implements IAPIConstants {
 			
 			boolean ignoreReadErrors = cmdArgs.contains(CmdLineArg.IGNORE_READ_ERRORS);
 
+			boolean inlineContent = cmdArgs.contains(CmdLineArg.INLINE_CONTENT);
+
+			Path outputDirectory = null;
+
+			if (cmdArgs.contains(CmdLineArg.OUTPUT_DIRECTORY)) {
+				outputDirectory = Paths.get(CmdLineArg.OUTPUT_DIRECTORY.getValue());
+			}
+
 			int count = 1;
 			
 			if(cmdArgs.contains(CmdLineArg.COUNT)){
@@ -454,7 +587,7 @@ public class APIUtility implements IAPIConstants {
 			System.out.println("Starting the ETM API Utility."); //$NON-NLS-1$
 
 			//Run the API utilities for each project area:			
-			APIUtilities apiUtilities = new APIUtilities(apiHttpClient, projectAreaAliases, resourcesPrintStream, queryString, resourceWebIds, remoteScriptTypeNames, adapterId, output, test, ignoreReadErrors, longCreationDate, executionStates, executionProgress, resultStates, resourceTypes, sectionId, sectionName, count);
+			APIUtilities apiUtilities = new APIUtilities(apiHttpClient, projectAreaAliases, resourcesPrintStream, queryString, resourceWebIds, remoteScriptTypeNames, adapterId, output, test, ignoreReadErrors, longCreationDate, executionStates, executionProgress, resultStates, resourceTypes, sectionId, sectionName, count, threads, inlineContent, outputDirectory);
 			apiUtilities.run(command);
 
 			System.out.println("ETM API Utility has completed " + (test ? "test " : "") + "command '" + command + "' in project area" + (projectAreaAliases.size() > 1 ? "s" : "") + " '" + apiUtilities.getProjectAreaAliasNames() + "' on '" + serverUrl.toString() + "'."); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$ //$NON-NLS-9$ //$NON-NLS-10$
@@ -484,6 +617,12 @@ public class APIUtility implements IAPIConstants {
     	if (client == null)
     		return;
     	
+    	// Keep the persisted session for later runs
+    	if (client.isSessionPersisted()) {
+    		client.shutdown();
+    		return;
+    	}
+    	
     	System.out.println("Disconnecting from the IBM Engineering Test Management server."); //$NON-NLS-1$
     	
     	final int sourceReturnCode = client.logout();
@@ -492,6 +631,8 @@ public class APIUtility implements IAPIConstants {
 			(sourceReturnCode != HttpURLConnection.HTTP_MOVED_TEMP)) {
 			System.out.println("ETM API Utility failed to disconnect from the server!"); //$NON-NLS-1$
 		}
+		
+		client.shutdown();
     }
 
 	private static List<CmdLineArg> processArgs(String[] args) throws IllegalArgumentException {
@@ -8,24 +8,47 @@
  ******************************************************************************/
 package com.ibm.rqm.api.internal;
 
-import java.io.ByteArrayInputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
 import java.io.PrintStream;
 import java.io.PrintWriter;
+import java.io.PushbackReader;
+import java.io.Reader;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.io.Writer;
 import java.net.HttpURLConnection;
 import java.net.URLEncoder;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
-import java.nio.file.Paths;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Scanner;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -41,7 +64,6 @@ import javax.xml.xpath.XPath;
 import javax.xml.xpath.XPathConstants;
 import javax.xml.xpath.XPathFactory;
 
-import org.apache.commons.codec.binary.Base64;
 import org.apache.commons.httpclient.NameValuePair;
 import org.apache.commons.httpclient.methods.PostMethod;
 import org.jdom.Document;
@@ -52,17 +74,25 @@ import org.jdom.output.Format;
 import org.jdom.output.XMLOutputter;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
+import org.xml.sax.InputSource;
 
 import com.ibm.rqm.api.APIUtility;
 import com.ibm.rqm.api.APIUtility.CmdLineArg;
 import com.ibm.rqm.api.internal.client.HttpClientException;
 import com.ibm.rqm.api.internal.client.JazzHttpClient;
 import com.ibm.rqm.api.internal.util.APIUtils;
+import com.ibm.rqm.api.internal.util.ContentStore;
 import com.ibm.rqm.api.internal.util.DateTimeUtils;
+import com.ibm.rqm.api.internal.util.FeedEntry;
+import com.ibm.rqm.api.internal.util.FeedIterator;
 import com.ibm.rqm.api.internal.util.FeedReader;
 import com.ibm.rqm.api.internal.util.FeedReader.Include;
 import com.ibm.rqm.api.internal.util.IAPIConstants;
+import com.ibm.rqm.api.internal.util.InlineImageScanner;
 import com.ibm.rqm.api.internal.util.LogUtils;
+import com.ibm.rqm.api.internal.util.OrderedTaskRunner;
+import com.ibm.rqm.api.internal.util.XMLContentHash;
+import com.ibm.rqm.api.internal.util.XMLStreamFormatter;
 
 
 /**
@@ -96,6 +126,36 @@ public final class APIUtilities implements IAPIConstants {
 	private final int count;
 	private final String sectionId;
 	private final String sectionName;
+	private final int threads;
+	private final boolean inlineContent;
+	private final Path outputDirectory;
+	private ExecutorService executorService = null;
+	
+	/**
+	 * <p>Execution result states keyed by execution result URI, shared by all project areas.</p>
+	 */
+	private final Map<String, String> executionResultStates = new HashMap<String, String>();
+
+	/**
+	 * <p>The number of in-flight tasks per thread when reading resources concurrently.</p>
+	 * 
+	 * <p>Bounds the number of read but not yet written resources held in memory.</p>
+	 */
+	private static final int FETCH_WINDOW_FACTOR = 4;
+
+	private static final String QUERY_PARAMETER_ABBREVIATE = "abbreviate="; //$NON-NLS-1$
+
+	private static final String RESOURCE_HISTORY_FILE_PREFIX = "resourceHistory"; //$NON-NLS-1$
+	private static final String RESOURCE_HISTORY_FILE_SUFFIX = ".xml"; //$NON-NLS-1$
+	private static final int RESOURCE_HISTORY_BUFFER_SIZE = 8192; //8 KB
+
+	/**
+	 * <p>The manifest of exported attachments in the output directory.</p>
+	 * 
+	 * <p>Manifest format (UTF-8, tab-separated): <code>&lt;attachment URI&gt;	&lt;SHA-256&gt;	&lt;file&gt;	&lt;size&gt;</code></p>
+	 */
+	private static final String ATTACHMENTS_MANIFEST_FILE_NAME = "manifest.tsv"; //$NON-NLS-1$
+	private static final String ATTACHMENTS_MANIFEST_SEPARATOR = "\t"; //$NON-NLS-1$
 
 	private static final Pattern READ_ALL_RESOURCES_COMMAND_PATTERN = Pattern.compile("readAll([a-zA-Z]+)Resources"); //$NON-NLS-1$ //$NON-NLS-2$
 	private static final Pattern READ_ALL_RESOURCES_HISTORY_COMMAND_PATTERN = Pattern.compile("readAll([a-zA-Z]+)ResourcesHistory"); //$NON-NLS-1$ //$NON-NLS-2$
@@ -106,8 +166,6 @@ public final class APIUtilities implements IAPIConstants {
 	
 	private static final Pattern INTEGRATION_SERVICE_URL_PATTERN = Pattern.compile("(.*" + Pattern.quote(INTEGRATION_SERVICE_RESOURCES_URL) + "([^/]*/)?[^/]*)/(.*)"); //$NON-NLS-1$ //$NON-NLS-2$
 
-	private final static Pattern INLINE_IMAGE_PATTERN = Pattern.compile("(<\\s*img[^>]*src\\s*=\\s*[\"'])data:image/([^;]+);([^,]+),([^\"']+)([\"'][^>]*>)", Pattern.CASE_INSENSITIVE); //$NON-NLS-1$
-
 	static{
 	     
 		REMOTE_SCRIPT_TYPE_NAME_IDS.put("RQM-KEY-APPSCAN-APTR-TYPE-NAME", "com.ibm.rqm.appscan.common.scripttype.ase"); //$NON-NLS-1$ //$NON-NLS-2$
@@ -122,7 +180,7 @@ public final class APIUtilities implements IAPIConstants {
 		REMOTE_SCRIPT_TYPE_NAME_IDS.put("RQM-KEY-RPT-SERVICE-APTR-TYPE-NAME", "com.ibm.rqm.executionframework.common.scripttype.rst"); //$NON-NLS-1$ //$NON-NLS-2$
 	}
 	
-	public APIUtilities(JazzHttpClient httpClient, List<String> projectAreaAliases, PrintStream resourcesPrintStream, String queryString, List<String> resourceWebIds, List<String> remoteScriptTypeNames, String adapterId, boolean output, boolean test, boolean ignoreReadErrors, long longCreationDate, List<String> executionStates, int executionProgress, List<String> resultStates, List<String> resourceTypes, String sectionId, String sectionName, int count){
+	public APIUtilities(JazzHttpClient httpClient, List<String> projectAreaAliases, PrintStream resourcesPrintStream, String queryString, List<String> resourceWebIds, List<String> remoteScriptTypeNames, String adapterId, boolean output, boolean test, boolean ignoreReadErrors, long longCreationDate, List<String> executionStates, int executionProgress, List<String> resultStates, List<String> resourceTypes, String sectionId, String sectionName, int count, int threads, boolean inlineContent, Path outputDirectory){
 
 		this.httpClient = httpClient;
 		this.projectAreaAliases = projectAreaAliases;
@@ -142,10 +200,23 @@ public final class APIUtilities implements IAPIConstants {
 		this.count = count;
 		this.sectionId =sectionId;
 		this.sectionName = sectionName;
+		this.threads = threads;
+		this.inlineContent = inlineContent;
+		this.outputDirectory = outputDirectory;
 	}
 
 	public void run(String command) throws Exception{
 
+		try {
+			runCommand(command);
+		}
+		finally {
+			shutdownExecutorService();
+		}
+	}
+
+	private void runCommand(final String command) throws Exception{
+
 		System.out.println("Starting " + (test ? "test " : "") + "command '" + command + "' in project area" + (projectAreaAliases.size() == 1 ? "" : "s") + " '" + getProjectAreaAliasNames() + "'."); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$ //$NON-NLS-9$ //$NON-NLS-10$
 
 		Matcher readAllResourcesCommandMatcher = READ_ALL_RESOURCES_COMMAND_PATTERN.matcher(command);
@@ -153,10 +224,8 @@ public final class APIUtilities implements IAPIConstants {
 		
 		if (readAllResourcesCommandMatcher.matches()) {		
 			
-			String resourceType = readAllResourcesCommandMatcher.group(1); 
+			final String resourceType = readAllResourcesCommandMatcher.group(1); 
 			
-			XMLOutputter xmlOutputter = new XMLOutputter(Format.getPrettyFormat());           
-
 			//Write the XML declaration:
 			resourcesPrintStream.println(MessageFormat.format(XML_DECLARATION_ENCODING, ENCODING_UTF8));
 
@@ -211,98 +280,45 @@ public final class APIUtilities implements IAPIConstants {
 			    
 			int totalResourceCount = 0;
 			
-			for (String projectAreaAlias : projectAreaAliases) {
-
-				int projectAreaResourceCount = 0;
+			for (final String projectAreaAlias : projectAreaAliases) {
 
 				if(output){
 					System.out.println("Running command '" + command + "' in project area '" + projectAreaAlias + "'."); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
 				}
 
-				String resourceFeedUri = MessageFormat.format(URI_TEMPLATE_INTEGRATION_SERVICE_RESOURCES_FEED, new Object[]{httpClient.getServerUrl(), projectAreaAlias, resourceType + "?" + queryString});
+				//Note: Inline content requires unabbreviated feed entries.
+				String resourceFeedUri = MessageFormat.format(URI_TEMPLATE_INTEGRATION_SERVICE_RESOURCES_FEED, new Object[]{httpClient.getServerUrl(), projectAreaAlias, resourceType + "?" + (inlineContent ? getInlineQueryString(queryString) : queryString)});
 
-				List<String> resourceIds = FeedReader.getIds(httpClient, resourceFeedUri, resourceType, ignoreReadErrors);	
+				//Note: The resource content in the feed entries is only retained when reading inline content.
+				FeedIterator<FeedEntry> resourceEntries = FeedReader.getEntryIterator(httpClient, resourceFeedUri, resourceType, ignoreReadErrors, null, inlineContent);	
 				
-				for (String resourceId : resourceIds) {
+				//Read and format the resources concurrently and write the entries in the feed order:
+				EntryWriter entryWriter = new EntryWriter(resourcesPrintStream);
+				OrderedTaskRunner<String> entryRunner = new OrderedTaskRunner<String>(getExecutorService(), getFetchWindowSize(), entryWriter);
+				
+				try {
+					
+					while (resourceEntries.hasNext()) {
 
-					String resourceUri = MessageFormat.format(URI_TEMPLATE_INTEGRATION_SERVICE_RESOURCE, new Object[]{httpClient.getServerUrl(), projectAreaAlias, resourceType, resourceId});
-					try {
-						String resourceXml = APIUtils.toString(httpClient.get(resourceUri, queryString));
+						final FeedEntry resourceEntry = resourceEntries.next();
 						
-						if((resourceXml != null) && (resourceXml.length() > 0)){
-						
-							SAXBuilder saxBuilder = new SAXBuilder();
-							
-							Document document = saxBuilder.build(new ByteArrayInputStream(resourceXml.trim().getBytes()));
-	
-							//Format the XML:
-							String formattedResourceXml = xmlOutputter.outputString(document).trim();
-
-							//Remove the XML declaration:
-							//Note: Formatting includes the XML declaration.
-							int xmlDeclarationEndIndex = formattedResourceXml.indexOf("?>"); //$NON-NLS-1$
-	
-							if(xmlDeclarationEndIndex != -1){
-								formattedResourceXml = formattedResourceXml.substring(xmlDeclarationEndIndex + 2).trim(); 
-							}
+						entryRunner.submit(new Callable<String>() {
 
-							resourcesPrintStream.println("<entry xmlns=\"http://www.w3.org/2005/Atom\">"); //$NON-NLS-1$
-							resourcesPrintStream.print("<id>"); //$NON-NLS-1$
-							
-							Element identifierElement = document.getRootElement().getChild(PROPERTY_IDENTIFIER, Namespace.getNamespace(NAMESPACE_URI_DC_ELEMENTS));
-							
-							if(identifierElement != null){
-								resourcesPrintStream.print(identifierElement.getValue());
-							}
-	
-							resourcesPrintStream.println("</id>"); //$NON-NLS-1$
-							resourcesPrintStream.print("<title type=\"text\">"); //$NON-NLS-1$
-	
-							Element titleElement = document.getRootElement().getChild(PROPERTY_TITLE, Namespace.getNamespace(NAMESPACE_URI_DC_ELEMENTS));
-	
-							if(titleElement != null){
-								resourcesPrintStream.print(titleElement.getValue());
-							}
-	
-							resourcesPrintStream.println("</title>"); //$NON-NLS-1$
-							resourcesPrintStream.println("<summary type=\"text\"></summary>"); //$NON-NLS-1$
-							resourcesPrintStream.print("<updated>"); //$NON-NLS-1$
-	
-							Element updatedElement = document.getRootElement().getChild(PROPERTY_UPDATED, Namespace.getNamespace(ALM_NAMESPACE));
-	
-							if(updatedElement != null){
-								resourcesPrintStream.print(updatedElement.getValue());
-							}
-	
-							resourcesPrintStream.println("</updated>"); //$NON-NLS-1$
-							resourcesPrintStream.print("<link href=\""); //$NON-NLS-1$
-							resourcesPrintStream.print(MessageFormat.format(URI_TEMPLATE_INTEGRATION_SERVICE_RESOURCE, new Object[]{httpClient.getServerUrl(), projectAreaAliases.get(0), resourceType, resourceId}));
-							resourcesPrintStream.println("\" rel=\"alternate\" type=\"application/xml\"></link>"); //$NON-NLS-1$
-							resourcesPrintStream.println("<content type=\"application/xml\">"); //$NON-NLS-1$
-							resourcesPrintStream.println(formattedResourceXml.trim());
-							resourcesPrintStream.println("</content>"); //$NON-NLS-1$
-							resourcesPrintStream.println("</entry>"); //$NON-NLS-1$
-	
-							projectAreaResourceCount++;
-						}
-						else{
-							System.out.println("Could not read resource '" + resourceUri + "'."); //$NON-NLS-1$ //$NON-NLS-2$ 			
-						}
-					}
-					catch(Exception ex) {
-						if(ignoreReadErrors) {
-							String output_str = "Unable to get resource using: " + resourceUri; //$NON-NLS-1$
-							if(output) {
-								System.out.println(output_str); 
+							@Override
+							public String call() throws Exception {
+								return (readResourceEntry(projectAreaAlias, resourceType, resourceEntry.getResourceId(), resourceEntry.getContent()));
 							}
-							LogUtils.logTrace(output_str);
-							LogUtils.logError(ex.toString(), ex);
-						}
-						else {
-							throw ex;
-						}
+						});
 					}
-				}				
+					
+					entryRunner.finish();
+				}
+				finally {
+					entryRunner.cancel();
+					resourceEntries.close();
+				}
+				
+				int projectAreaResourceCount = entryWriter.getCount();
 
 				if(output){
 					System.out.println("Read " + projectAreaResourceCount + " " + resourceType + " resource" + (projectAreaResourceCount != 1 ? "s" : "") + " in project area '" + projectAreaAlias + "'."); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$
@@ -320,15 +336,14 @@ public final class APIUtilities implements IAPIConstants {
 		}
 		else if(readAllResourcesHistoryCommandMatcher.matches()) {
 			
-			String resourceType = readAllResourcesHistoryCommandMatcher.group(1); 
+			final String resourceType = readAllResourcesHistoryCommandMatcher.group(1); 
 						
-			XMLOutputter xmlOutputter = new XMLOutputter(Format.getPrettyFormat());           
-
+			//Note: The resources print stream is not buffered.
+			Writer resourcesWriter = new BufferedWriter(new OutputStreamWriter(resourcesPrintStream, Charset.defaultCharset()));
+			
 			int totalResourceCount = 0;
 			
-			for (String projectAreaAlias : projectAreaAliases) {
-
-				int projectAreaResourceCount = 0;
+			for (final String projectAreaAlias : projectAreaAliases) {
 
 				if(output){
 					System.out.println("Running command '" + command + "' in project area '" + projectAreaAlias + "'."); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
@@ -336,68 +351,35 @@ public final class APIUtilities implements IAPIConstants {
 
 				String resourceFeedUri = MessageFormat.format(URI_TEMPLATE_INTEGRATION_SERVICE_RESOURCES_FEED, new Object[]{httpClient.getServerUrl(), projectAreaAlias, resourceType + "?" + queryString}); //$NON-NLS-1$
 
-				List<String> resourceIds = FeedReader.getIds(httpClient, resourceFeedUri, resourceType, ignoreReadErrors);	
+				FeedIterator<String> resourceIds = FeedReader.getIdIterator(httpClient, resourceFeedUri, resourceType, ignoreReadErrors);	
 				
-				for (String resourceId : resourceIds) {
-
-					String resourceUri = MessageFormat.format(URI_TEMPLATE_INTEGRATION_SERVICE_RESOURCE, new Object[]{httpClient.getServerUrl(), projectAreaAlias, resourceType, resourceId});
+				//Read the resource histories concurrently and stream the formatted resource histories in the feed order:
+				ResourceHistoryWriter resourceHistoryWriter = new ResourceHistoryWriter(resourcesWriter);
+				OrderedTaskRunner<ResourceHistory> resourceHistoryRunner = new OrderedTaskRunner<ResourceHistory>(getExecutorService(), getFetchWindowSize(), resourceHistoryWriter);
 
-					String resourceHistoryUri = MessageFormat.format(URI_TEMPLATE_INTEGRATION_SERVICE_RESOURCE_HISTORY, new Object[] {httpClient.getServerUrl(), projectAreaAlias, resourceType, resourceId});
-
-					try {
+				try {
+					
+					while (resourceIds.hasNext()) {
 
-						String resourceHistoryXml = APIUtils.toString(httpClient.get(resourceHistoryUri));
+						final String resourceId = resourceIds.next();
 						
-						if((resourceHistoryXml != null) && (resourceHistoryXml.length() > 0)){
-							
-							//Insert a link (resource URI for reference) into the ATOM feed before the first entry:
-							int entryIndex = resourceHistoryXml.indexOf("<entry>");
-							
-							if(entryIndex != -1) {
-								resourceHistoryXml = (resourceHistoryXml.substring(0, entryIndex) + "<link href=\"" + resourceUri + "\"/>" + resourceHistoryXml.substring(entryIndex)); //$NON-NLS-1$ //$NON-NLS-2$
-							}
-
-							//Format the XML:
-							SAXBuilder saxBuilder = new SAXBuilder();
-
-							Document resourceHistoryDocument = saxBuilder.build(new ByteArrayInputStream(resourceHistoryXml.getBytes()));
+						resourceHistoryRunner.submit(new Callable<ResourceHistory>() {
 							
-							String formattedResourceHistoryXml = xmlOutputter.outputString(resourceHistoryDocument).trim();
-
-							//Remove the XML declaration:
-							//Note: Formatting includes the XML declaration.
-							int xmlDeclarationEndIndex = formattedResourceHistoryXml.indexOf("?>"); //$NON-NLS-1$
-	
-							if(xmlDeclarationEndIndex != -1){
-								formattedResourceHistoryXml = formattedResourceHistoryXml.substring(xmlDeclarationEndIndex + 2).trim(); 
+							@Override
+							public ResourceHistory call() throws Exception {
+								return (readResourceHistory(projectAreaAlias, resourceType, resourceId));
 							}
-
-							resourcesPrintStream.println(formattedResourceHistoryXml);
-							
-							projectAreaResourceCount++;
-						}
-						else{
-							System.out.println("Unable to resolve resource history '" + resourceHistoryUri + "'."); //$NON-NLS-1$ //$NON-NLS-2$ 			
-						}
+						});
 					}
-					catch(Exception ex) {
-
-						if(ignoreReadErrors) {
-
-							String output_str = "Unable to resolve resource history '" + resourceHistoryUri + "'."; //$NON-NLS-1$ //$NON-NLS-2$ 
-
-							if(output) {
-								System.out.println(output_str); 
-							}
+					
+					resourceHistoryRunner.finish();
+				}
+				finally {
+					resourceHistoryRunner.cancel();
+					resourceIds.close();
+				}
 
-							LogUtils.logTrace(output_str);
-							LogUtils.logError(ex.toString(), ex);
-						}
-						else {
-							throw ex;
-						}
-					}
-				}				
+				int projectAreaResourceCount = resourceHistoryWriter.getCount();
 
 				if(output){
 					System.out.println("Read " + projectAreaResourceCount + " " + resourceType + " resource" + (projectAreaResourceCount != 1 ? "s" : "") + " history in project area '" + projectAreaAlias + "'."); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$
@@ -473,6 +455,7 @@ public final class APIUtilities implements IAPIConstants {
 			}
 			
 			int projectAreaResourceCount = 0;
+			int unchangedResourceCount = 0;
 			List<String> completeExeTaskMessages = new ArrayList<String>();
 			for (String projectAreaAlias : projectAreaAliases) {
 				
@@ -491,9 +474,31 @@ public final class APIUtilities implements IAPIConstants {
 					
 					String tasksFeedUri = MessageFormat.format(URI_TEMPLATE_INTEGRATION_SERVICE_RESOURCES_FEED, new Object[]{httpClient.getServerUrl(), projectAreaAlias, tasksType});
 
-					executionTaskIds = FeedReader.getIds(httpClient, tasksFeedUri, tasksType, ignoreReadErrors);
+					//Only read the execution tasks matching the creation date, execution task states, and execution progress:
+					String tasksQueryString = getExecutionTasksQueryString();
+					
+					if(tasksQueryString != null){
+						
+						try {
+							executionTaskIds = FeedReader.getIds(httpClient, (tasksFeedUri + "?" + tasksQueryString), tasksType, false); //$NON-NLS-1$
+						}
+						catch (IOException e) {
+							
+							//Fall back to reading all execution tasks:
+							LogUtils.logError("Unable to read the execution tasks using the query string '" + tasksQueryString + "'.  Reading all execution tasks.", e); //$NON-NLS-1$ //$NON-NLS-2$
+							
+							tasksQueryString = null;
+						}
+					}
+					
+					if(tasksQueryString == null){
+						executionTaskIds = FeedReader.getIds(httpClient, tasksFeedUri, tasksType, ignoreReadErrors);
+					}
 				}
 			
+				//Execution result states keyed by execution result identifier, resolved on the first execution task matching the other filters:
+				Map<String, String> projectAreaResultStates = null;
+				
 				for(String resourceId : executionTaskIds){
 					// The FeedReader returns the resource id as "urn:com.ibm.rqm:tasks:21". So split resourceId by ":" and assign last part to it.
 					String[] parts = resourceId.split(":"); //$NON-NLS-1$
@@ -510,7 +515,7 @@ public final class APIUtilities implements IAPIConstants {
 							taskXml = taskXml.trim();
 							
 							SAXBuilder saxBuilder = new SAXBuilder();
-							Document document = saxBuilder.build(new ByteArrayInputStream(taskXml.getBytes()));
+							Document document = saxBuilder.build(new StringReader(taskXml));
 	
 							Element taskcurrState = document.getRootElement().getChild(PROPERTY_STATE, Namespace.getNamespace(ALM_NAMESPACE));						
 							String taskcurrStateString = taskcurrState == null ? "null" : taskcurrState.getText(); //$NON-NLS-1$
@@ -562,22 +567,18 @@ public final class APIUtilities implements IAPIConstants {
 								Element resultElement = document.getRootElement().getChild("resultURL", Namespace.getNamespace(NAMESPACE_URI_ALM_QM_ADAPTER_TASK)); //$NON-NLS-1$
 								if (resultElement != null) {
 									String resultUri = resultElement.getAttributeValue("href"); //$NON-NLS-1$
-									if(output){
-										System.out.println("Using " + resultUri + " to get execution result for request id: " + resourceId);  //$NON-NLS-1$ //$NON-NLS-2$
+									
+									if(projectAreaResultStates == null){
+										projectAreaResultStates = readExecutionResultStates(projectAreaAlias);
 									}
+									
 									try {
-										String resultXml = APIUtils.toString(httpClient.get(resultUri));
-										if((resultXml != null) && (resultXml.length() > 0)) {
-											resultXml = resultXml.trim();
-											Document resultDocument = saxBuilder.build(new ByteArrayInputStream(resultXml.getBytes()));
-											Element resultStateElement = resultDocument.getRootElement().getChild(PROPERTY_STATE, Namespace.getNamespace(ALM_NAMESPACE));
-											if(resultStateElement != null) {
-												String resultState = resultStateElement.getText();
-												for(String state: resultStates) {
-													if(state.equals(resultState)) {
-														foundState = true;
-														break;
-													}
+										String resultState = getExecutionResultState(resultUri, resourceId, projectAreaResultStates);
+										if(resultState != null) {
+											for(String state: resultStates) {
+												if(state.equals(resultState)) {
+													foundState = true;
+													break;
 												}
 											}
 										}
@@ -613,6 +614,16 @@ public final class APIUtilities implements IAPIConstants {
 		
 								LogUtils.logTrace("After " + (test ? "test " : "") + "changing state for task id '" + resourceId + "' from [" + taskcurrStateString + "] to complete " + LINE_SEPARATOR + newTaskXml);  //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$
 		
+								//Skip the update when the execution task is not changed (for example, already complete):
+								if(!XMLContentHash.isChanged(taskXml, newTaskXml)){
+									
+									unchangedResourceCount++;
+									
+									LogUtils.logTrace("Execution task id '" + resourceId + "' " + (test ? "test " : "") + "unchanged, skipping."); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+									
+									continue;
+								}
+								
 								if(!test){
 									httpClient.put(taskUri, newTaskXml);
 								}
@@ -645,6 +656,8 @@ public final class APIUtilities implements IAPIConstants {
 				System.out.println("Summary:"); //$NON-NLS-1$
 				System.out.println("    " + (test ? "Test r" : "R") + "ead " + projectAreaResourceCount + " task resource" + (projectAreaResourceCount != 1 ? "s" : "") + " in project area" + (projectAreaAliases.size() == 1 ? "" : "s") + " '" + getProjectAreaAliasNames() + "'.");  //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$ //$NON-NLS-9$ //$NON-NLS-10$ //$NON-NLS-11$ //$NON-NLS-12$
 
+				System.out.println("    Skipped " + unchangedResourceCount + " unchanged task resource" + (unchangedResourceCount != 1 ? "s" : "") + "."); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+
 				for(String outputMsg : completeExeTaskMessages){
 					System.out.println("    " + outputMsg); //$NON-NLS-1$
 				}
@@ -662,7 +675,7 @@ public final class APIUtilities implements IAPIConstants {
 			}
 			
 			//Support both remote script type name and ID:
-			List<String> remoteScriptTypes = new ArrayList<String>();
+			final List<String> remoteScriptTypes = new ArrayList<String>();
 			
 			for(String remoteScriptTypeName : remoteScriptTypeNames){
 				
@@ -689,86 +702,87 @@ public final class APIUtilities implements IAPIConstants {
 				
 				String remoteScriptFeedUri = MessageFormat.format(URI_TEMPLATE_INTEGRATION_SERVICE_RESOURCES_FEED, new Object[]{httpClient.getServerUrl(), projectAreaAlias, resourceType});
 
-				List<String> remoteScriptIds = FeedReader.getIds(httpClient, remoteScriptFeedUri, resourceType, ignoreReadErrors);	
+				//Note: The feed entries (including the inline content, if any) are read as the remote scripts are processed.
+				FeedIterator<FeedEntry> remoteScriptEntries = getResourceEntryIterator(remoteScriptFeedUri, resourceType, queryString);
 				
-				for (String remoteScriptId : remoteScriptIds) {
+				try {
 
-					String remoteScriptUri = MessageFormat.format(URI_TEMPLATE_INTEGRATION_SERVICE_RESOURCE, new Object[]{httpClient.getServerUrl(), projectAreaAlias, resourceType, remoteScriptId});
-					try {
-						String remoteScriptXml = APIUtils.toString(httpClient.get(remoteScriptUri, queryString));
+					while (remoteScriptEntries.hasNext()) {
+
+						FeedEntry remoteScriptEntry = remoteScriptEntries.next();
+						String remoteScriptId = remoteScriptEntry.getResourceId();
+
+						if(remoteScriptId == null){
+							continue;
+						}
+
+						String remoteScriptUri = MessageFormat.format(URI_TEMPLATE_INTEGRATION_SERVICE_RESOURCE, new Object[]{httpClient.getServerUrl(), projectAreaAlias, resourceType, remoteScriptId});
+						try {
+							String remoteScriptXml = readResource(remoteScriptUri, queryString, remoteScriptEntry.getContent());
 						
-						if((remoteScriptXml != null) && (remoteScriptXml.length() > 0)){
+							if((remoteScriptXml != null) && (remoteScriptXml.length() > 0)){
 	
-							remoteScriptXml = remoteScriptXml.trim();
+								remoteScriptXml = remoteScriptXml.trim();
 							
-							SAXBuilder saxBuilder = new SAXBuilder();
+								SAXBuilder saxBuilder = new SAXBuilder();
 							
-							Document document = saxBuilder.build(new ByteArrayInputStream(remoteScriptXml.trim().getBytes()));
+								Document document = saxBuilder.build(new StringReader(remoteScriptXml.trim()));
 	
-							Element remoteScriptWebId = document.getRootElement().getChild(PROPERTY_WEB_ID, Namespace.getNamespace(NAMESPACE_URI_ALM_QM));
+								Element remoteScriptWebId = document.getRootElement().getChild(PROPERTY_WEB_ID, Namespace.getNamespace(NAMESPACE_URI_ALM_QM));
 	
-							if((resourceWebIds == null) || (resourceWebIds.isEmpty()) || ((remoteScriptWebId != null) && (resourceWebIds.contains(remoteScriptWebId.getValue())))){
+								if((resourceWebIds == null) || (resourceWebIds.isEmpty()) || ((remoteScriptWebId != null) && (resourceWebIds.contains(remoteScriptWebId.getValue())))){
 							
-								Element remoteScriptType = document.getRootElement().getChild(PROPERTY_TYPE, Namespace.getNamespace(NAMESPACE_URI_ALM_QM));
+									String newRemoteScriptXml = addMissingAdapterId(document, remoteScriptTypes);
 								
-								if((remoteScriptType != null) && (remoteScriptTypes.contains(remoteScriptType.getValue()))){
-									
-									Element remoteScriptManagedAdapter = document.getRootElement().getChild(PROPERTY_MANAGED_ADAPTER, Namespace.getNamespace(NAMESPACE_URI_ALM_QM));
-									
-									if((remoteScriptManagedAdapter != null) && (Boolean.parseBoolean(remoteScriptManagedAdapter.getValue()))){
-	
-										Element remoteScriptAdapterId = document.getRootElement().getChild(PROPERTY_ADAPTER_ID, Namespace.getNamespace(NAMESPACE_URI_ALM_QM));
-										
-										if((remoteScriptAdapterId == null) || (!APIUtils.isSet(remoteScriptAdapterId.getValue()))){
+									if(newRemoteScriptXml != null){
 	
-											//Back-up the old remote script:
-											LogUtils.logTrace("Before " + (test ? "test " : "") + "adding missing adapter ID '" + adapterId + "' to " + resourceType + " resource '" + remoteScriptUri + "':" + LINE_SEPARATOR + remoteScriptXml);  //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$
+										//Back-up the old remote script:
+										LogUtils.logTrace("Before " + (test ? "test " : "") + "adding missing adapter ID '" + adapterId + "' to " + resourceType + " resource '" + remoteScriptUri + "':" + LINE_SEPARATOR + remoteScriptXml);  //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$
 	
-											document.getRootElement().removeChild(PROPERTY_ADAPTER_ID, Namespace.getNamespace(NAMESPACE_URI_ALM_QM));
-											
-											remoteScriptAdapterId = new Element(PROPERTY_ADAPTER_ID, Namespace.getNamespace(NAMESPACE_URI_ALM_QM));
-											remoteScriptAdapterId.setText(adapterId);
-											
-											document.getRootElement().addContent(remoteScriptAdapterId);
-											
-											XMLOutputter xmlOutputter = new XMLOutputter(Format.getPrettyFormat());           
-											
-											String newRemoteScriptXml = xmlOutputter.outputString(document).trim();
+										//Back-up the new remote script:
+										LogUtils.logTrace("After " + (test ? "test " : "") + "adding missing adapter ID '" + adapterId + "' to " + resourceType + " resource '" + remoteScriptUri + "':" + LINE_SEPARATOR + newRemoteScriptXml);  //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$
 	
-											//Back-up the new remote script:
-											LogUtils.logTrace("After " + (test ? "test " : "") + "adding missing adapter ID '" + adapterId + "' to " + resourceType + " resource '" + remoteScriptUri + "':" + LINE_SEPARATOR + newRemoteScriptXml);  //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$
+										if(!test){
 	
-											if(!test){
-												httpClient.put(remoteScriptUri, newRemoteScriptXml);
-											}
+											//Re-apply the edit when the remote script was modified since read:
+											httpClient.put(remoteScriptUri, newRemoteScriptXml, null, new JazzHttpClient.ResourceEditor() {
 											
-											//Capture the output message:
-											addedMissingAdapterIdMessages.add((test ? "Test a" : "A") + "dded missing adapter ID '" + adapterId + "' to " + resourceType + " resource '" + remoteScriptUri + "'.");  //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$
+												@Override
+												public String edit(String content) throws Exception {
+													return (addMissingAdapterId(new SAXBuilder().build(new StringReader(content.trim())), remoteScriptTypes));
+												}
+											});
 										}
+									
+										//Capture the output message:
+										addedMissingAdapterIdMessages.add((test ? "Test a" : "A") + "dded missing adapter ID '" + adapterId + "' to " + resourceType + " resource '" + remoteScriptUri + "'.");  //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$
 									}
 								}
-							}
 				
-							projectAreaResourceCount++;
-						}
-						else{
-							System.out.println("Could not " + (test ? "test " : "") + "read resource '" + remoteScriptUri + "'."); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ 			
-						}
-					}
-					catch(Exception ex) {
-						if(ignoreReadErrors) {
-							String output_str = "Unable to get remote script content using: " + remoteScriptUri + ". Skipping."; //$NON-NLS-1$ //$NON-NLS-2$
-							if(output) {
-								System.out.println(output_str); 
+								projectAreaResourceCount++;
+							}
+							else{
+								System.out.println("Could not " + (test ? "test " : "") + "read resource '" + remoteScriptUri + "'."); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ 			
 							}
-							LogUtils.logTrace(output_str);
-							LogUtils.logError(ex.toString(), ex);
 						}
-						else {
-							throw ex;
+						catch(Exception ex) {
+							if(ignoreReadErrors) {
+								String output_str = "Unable to get remote script content using: " + remoteScriptUri + ". Skipping."; //$NON-NLS-1$ //$NON-NLS-2$
+								if(output) {
+									System.out.println(output_str); 
+								}
+								LogUtils.logTrace(output_str);
+								LogUtils.logError(ex.toString(), ex);
+							}
+							else {
+								throw ex;
+							}
 						}
 					}
-				}			
+				}
+				finally {
+					remoteScriptEntries.close();
+				}
 				
 				if(output){
 					System.out.println((test ? "Test r" : "R") + "ead " + projectAreaResourceCount + " " + resourceType + " resource" + (projectAreaResourceCount != 1 ? "s" : "") + " in project area '" + projectAreaAlias + "'."); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$ //$NON-NLS-9$
@@ -830,7 +844,7 @@ public final class APIUtilities implements IAPIConstants {
 					
 					try {
 						suiteXml = APIUtils.toString(httpClient.get(suiteUri));
-						suiteDocument = saxBuilder.build(new ByteArrayInputStream(suiteXml.trim().getBytes()));
+						suiteDocument = saxBuilder.build(new StringReader(suiteXml.trim()));
 					}
 					catch(Exception ex) {
 						if(ignoreReadErrors) {
@@ -849,6 +863,9 @@ public final class APIUtilities implements IAPIConstants {
 					
 					boolean updated = false;
 					
+					//Default scripts assigned to the suite elements keyed by test case URI:
+					final Map<String, Element> defaultScripts = new HashMap<String, Element>();
+					
 					Element suiteElementsElement = suiteDocument.getRootElement().getChild("suiteelements", NS_ALM_QM); // $NON-NLS-1$ //$NON-NLS-1$
 					@SuppressWarnings("unchecked")
 					List<Element> suiteElements = suiteElementsElement.getChildren();
@@ -865,7 +882,7 @@ public final class APIUtilities implements IAPIConstants {
 									
 									try {
 										testCaseXml = APIUtils.toString(httpClient.get(testCaseUri));
-										testCaseDocument = saxBuilder.build(new ByteArrayInputStream(testCaseXml.trim().getBytes()));
+										testCaseDocument = saxBuilder.build(new StringReader(testCaseXml.trim()));
 									}
 									catch(Exception ex) {
 										if(ignoreReadErrors) {
@@ -975,7 +992,7 @@ public final class APIUtilities implements IAPIConstants {
 											//Resolve the remote script web ID:
 											try {
 												String remoteScriptXml = APIUtils.toString(httpClient.get(remoteScriptElement.getAttributeValue("href"))); //$NON-NLS-1$
-												Document remoteScriptDocument = saxBuilder.build(new ByteArrayInputStream(remoteScriptXml.trim().getBytes()));
+												Document remoteScriptDocument = saxBuilder.build(new StringReader(remoteScriptXml.trim()));
 												remoteScriptWebId = Integer.parseInt(remoteScriptDocument.getRootElement().getChild("webId", Namespace.getNamespace(NAMESPACE_URI_ALM_QM)).getValue().trim()); //$NON-NLS-1$
 											}
 											catch(Exception ex) {
@@ -996,7 +1013,7 @@ public final class APIUtilities implements IAPIConstants {
 											//Resolve the test script web ID:
 											try {
 												String testScriptXml = APIUtils.toString(httpClient.get(testScriptElement.getAttributeValue("href"))); //$NON-NLS-1$
-												Document testScriptDocument = saxBuilder.build(new ByteArrayInputStream(testScriptXml.trim().getBytes()));
+												Document testScriptDocument = saxBuilder.build(new StringReader(testScriptXml.trim()));
 												testScriptWebId = Integer.parseInt(testScriptDocument.getRootElement().getChild("webId", Namespace.getNamespace(NAMESPACE_URI_ALM_QM)).getValue().trim()); //$NON-NLS-1$
 											}
 											catch(Exception ex) {
@@ -1033,6 +1050,7 @@ public final class APIUtilities implements IAPIConstants {
 										defaultRemoteScriptElement.setAttribute("href", remoteScriptElement.getAttributeValue("href")); //$NON-NLS-1$ //$NON-NLS-2$
 
 										suiteElement.addContent(defaultRemoteScriptElement);
+										defaultScripts.put(testCaseElement.getAttributeValue("href"), defaultRemoteScriptElement); //$NON-NLS-1$
 
 										updated = true;
 									}
@@ -1044,6 +1062,7 @@ public final class APIUtilities implements IAPIConstants {
 										defaultTestScriptElement.setAttribute("href", testScriptElement.getAttributeValue("href")); //$NON-NLS-1$ //$NON-NLS-2$
 
 										suiteElement.addContent(defaultTestScriptElement);
+										defaultScripts.put(testCaseElement.getAttributeValue("href"), defaultTestScriptElement); //$NON-NLS-1$
 
 										updated = true;
 									}						
@@ -1061,7 +1080,18 @@ public final class APIUtilities implements IAPIConstants {
 						
 						try {
 							if (!test) {
-								httpClient.put(suiteUri, suiteXml);
+
+								//Re-assign the default scripts when the test suite was modified since read:
+								httpClient.put(suiteUri, suiteXml, null, new JazzHttpClient.ResourceEditor() {
+									
+									@Override
+									public String edit(String content) throws Exception {
+
+										Document currentSuiteDocument = new SAXBuilder().build(new StringReader(content.trim()));
+										
+										return (assignDefaultScripts(currentSuiteDocument, defaultScripts) ? new XMLOutputter(Format.getPrettyFormat()).outputString(currentSuiteDocument).trim() : null);
+									}
+								});
 							}
 						}
 						catch(Exception ex) {
@@ -1118,13 +1148,22 @@ public final class APIUtilities implements IAPIConstants {
 							System.out.println(output_str);									
 						}
 						LogUtils.logTrace(output_str + "      Response : "+postMethod.getResponseBodyAsString()); //$NON-NLS-1$
+						
+						//Note: Return the connection to the pool.
+						postMethod.releaseConnection();
 					}
 				}
 			}
 			catch(Exception ex) {
 				output_str = "Unable to repair Manual TestScripts for ProjectArea " + projectAreaAlias; //$NON-NLS-1$
-				if(postMethod != null)
-					output_str += "      Response : "+postMethod.getResponseBodyAsString(); //$NON-NLS-1$
+				if(postMethod != null) {
+					try {
+						output_str += "      Response : "+postMethod.getResponseBodyAsString(); //$NON-NLS-1$
+					}
+					finally {
+						postMethod.releaseConnection();
+					}
+				}
 				if(output) {
 					System.out.println(output_str); 
 				}
@@ -1173,7 +1212,7 @@ public final class APIUtilities implements IAPIConstants {
 					try {
 						phaseXml = APIUtils.toString(httpClient.get(phaseUri));
 						SAXBuilder saxBuilder = new SAXBuilder();
-						phaseDocument = saxBuilder.build(new ByteArrayInputStream(phaseXml.trim().getBytes()));												
+						phaseDocument = saxBuilder.build(new StringReader(phaseXml.trim()));												
 					}
 					catch(Exception ex) {
 						if(ignoreReadErrors) {
@@ -1238,7 +1277,7 @@ public final class APIUtilities implements IAPIConstants {
 					
 					try {
 						planXml = APIUtils.toString(httpClient.get(planUri));
-						planDocument = saxBuilder.build(new ByteArrayInputStream(planXml.trim().getBytes()));												
+						planDocument = saxBuilder.build(new StringReader(planXml.trim()));												
 					}
 					catch(Exception ex) {
 						if(ignoreReadErrors) {
@@ -1257,7 +1296,7 @@ public final class APIUtilities implements IAPIConstants {
 					Element parentIterationElement = planDocument.getRootElement().getChild("parentIteration", NS_ALM_QM); // $NON-NLS-1$ //$NON-NLS-1$
 					if(parentIterationElement!= null){														
 						String parentIterationResource = parentIterationElement.getAttributeValue("resource", NS_RDF); //$NON-NLS-1$
-						ArrayList<String> iterations = orderedIterations.get(planResource); 
+						final ArrayList<String> iterations = orderedIterations.get(planResource); 
 						if(iterations== null || !iterations.contains(parentIterationResource)){
 							String output_str = "Orphan root iteration with no associated test phase found in Test Plan:"+ planId; //$NON-NLS-1$
 							if(output) {
@@ -1273,7 +1312,32 @@ public final class APIUtilities implements IAPIConstants {
 							LogUtils.logTrace("Test Plan XML After removing parentIteration " + (test ? "test " : "")  + finalPlanXml); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
 							try {
 								if (!test) {
-									httpClient.put(planUri, finalPlanXml);
+
+									//Re-remove the orphan root iteration when the test plan was modified since read:
+									httpClient.put(planUri, finalPlanXml, null, new JazzHttpClient.ResourceEditor() {
+										
+										@Override
+										public String edit(String content) throws Exception {
+
+											Document currentPlanDocument = new SAXBuilder().build(new StringReader(content.trim()));
+											Element currentParentIterationElement = currentPlanDocument.getRootElement().getChild("parentIteration", NS_ALM_QM); //$NON-NLS-1$
+
+											if(currentParentIterationElement == null){
+												return null;
+											}
+
+											String currentParentIterationResource = currentParentIterationElement.getAttributeValue("resource", NS_RDF); //$NON-NLS-1$
+
+											//The parent iteration was removed or is associated with a test phase:
+											if((currentParentIterationResource == null) || ((iterations != null) && (iterations.contains(currentParentIterationResource)))){
+												return null;
+											}
+
+											currentParentIterationElement.removeAttribute("resource", NS_RDF); //$NON-NLS-1$
+
+											return (new XMLOutputter(Format.getPrettyFormat()).outputString(currentPlanDocument).trim());
+										}
+									});
 								}
 							}catch(Exception ex) {
 								output_str = "Unable to update the test plan: " + planUri + ". Skipping."; //$NON-NLS-1$ //$NON-NLS-2$
@@ -1301,216 +1365,95 @@ public final class APIUtilities implements IAPIConstants {
 			List<String> convertInlineImagesMessages = new ArrayList<String>();
 
 			//Iterate the project areas:
-			for (String projectAreaAlias : projectAreaAliases) {
+			for (final String projectAreaAlias : projectAreaAliases) {
 
 				int projectAreaResourceCount = 0;
 				int projectAreaResourceProcessedCount = 0;
 
+				//Note: Attachments are created once per inline image content in the project area and reused by all resources.
+				final ConcurrentMap<String, FutureTask<InlineImageAttachment>> inlineImageAttachments = new ConcurrentHashMap<String, FutureTask<InlineImageAttachment>>();
+
 				if(output){
 					System.out.println("Running " + (test ? "test " : "") + "command '" + command + "' in project area '" + projectAreaAlias + "'."); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$
 				}
 
 				//Iterate the resource types in the project area:
-				for (String resourceType : resourceTypes) {
+				for (final String resourceType : resourceTypes) {
 
 					String resourceFeedUri = MessageFormat.format(URI_TEMPLATE_INTEGRATION_SERVICE_RESOURCES_FEED, new Object[]{httpClient.getServerUrl(), projectAreaAlias, resourceType});
 
-					List<String> resourceIds = FeedReader.getIds(httpClient, resourceFeedUri, resourceType, ignoreReadErrors);	
-
-					//Iterate the resources of the resource type in the project area:
-					for (String resourceId : resourceIds) {
-
-						String resourceUri = MessageFormat.format(URI_TEMPLATE_INTEGRATION_SERVICE_RESOURCE, new Object[]{httpClient.getServerUrl(), projectAreaAlias, resourceType, resourceId});
-
-						try {
-
-							//Resolve the resource XML of the resource type in the project area:
-							String resourceXml = APIUtils.toString(httpClient.get(resourceUri, queryString));
-
-							Matcher inlineImageMatcher = INLINE_IMAGE_PATTERN.matcher(resourceXml);
-
-							//Only process resources that contain inline images:
-							if(inlineImageMatcher.find()){
-
-								//Note: The matcher MUST be reset.
-								inlineImageMatcher = inlineImageMatcher.reset();
-
-								StringBuffer updatedResourceXml = new StringBuffer();
-
-								//Iterate the inline images in the resource XML:
-								while(inlineImageMatcher.find()){
-
-									String inlineImageEncoding = inlineImageMatcher.group(3);
-
-									if(ENCODING_BASE_64.equalsIgnoreCase(inlineImageEncoding)){
-
-										String attachmentId = null;
-										String attachmentUri = null;
-										String attachmentUuid = null;
-										String attachmentFileName = ("inline_image." + inlineImageMatcher.group(2)); //$NON-NLS-1$
+					//Note: The feed entries (including the inline content, if any) are read as the resources are converted.
+					FeedIterator<FeedEntry> resourceEntries = getResourceEntryIterator(resourceFeedUri, resourceType, queryString);
 
-										SAXBuilder saxBuilder = new SAXBuilder();
+					//Convert the inline images of the resources concurrently and count the converted resources in the feed order:
+					InlineImageConversionCounter conversionCounter = new InlineImageConversionCounter(resourceType, convertInlineImagesMessages);
+					OrderedTaskRunner<InlineImageConversion> conversionRunner = new OrderedTaskRunner<InlineImageConversion>(getExecutorService(), getFetchWindowSize(), conversionCounter);
 
-										Element imgElement = saxBuilder.build(new ByteArrayInputStream(inlineImageMatcher.group(0).getBytes())).getRootElement();
-
-										if(!test){
-
-											//Create an attachment from the inline image content:
-											String attachmentPostUri = MessageFormat.format(URI_TEMPLATE_INTEGRATION_SERVICE_RESOURCES_FEED, new Object[]{httpClient.getServerUrl(), projectAreaAlias, "attachment"}); //$NON-NLS-1$
-
-											//Decode the (base64) inline image content:
-											byte[] imageBytes = Base64.decodeBase64(inlineImageMatcher.group(4).getBytes(ENCODING_UTF8));
-
-											attachmentId = httpClient.postAttachment(attachmentPostUri, imageBytes, attachmentFileName);
+					try {
 
-											attachmentUri = MessageFormat.format(URI_TEMPLATE_INTEGRATION_SERVICE_RESOURCE, new Object[]{httpClient.getServerUrl(), projectAreaAlias, "attachment", attachmentId}); //$NON-NLS-1$
+						//Iterate the resources of the resource type in the project area:
+						while (resourceEntries.hasNext()) {
 
-											try{
+							final FeedEntry resourceEntry = resourceEntries.next();
 
-												//Resolve the attachment UUID:	
-												//Note: Convert the InputStream to a String by calling APIUtils.toString() scrub the XML content. 
-												String attachmentWebId = saxBuilder.build(new StringReader(APIUtils.toString(httpClient.get(attachmentUri, queryString)))).getRootElement().getChild("webId", Namespace.getNamespace(NAMESPACE_URI_ALM_QM)).getValue(); //$NON-NLS-1$
+							if(resourceEntry.getResourceId() == null){
+								continue;
+							}
 
-												if ((APIUtils.isSet(attachmentWebId)) && (Integer.parseInt(attachmentWebId) > 0)) {
+							conversionRunner.submit(new Callable<InlineImageConversion>() {
 
-													//Note: Convert the InputStream to a String by calling APIUtils.toString() scrub the XML content. 
-													Document attachmentFeedDocument = saxBuilder.build(new StringReader(APIUtils.toString(httpClient.get(attachmentPostUri, "fields=feed/entry/content/attachment[webId='" + attachmentWebId + "']/*&metadata=UUID")))); //$NON-NLS-1$ //$NON-NLS-2$
+								@Override
+								public InlineImageConversion call() throws Exception {
+									return (convertInlineImages(projectAreaAlias, resourceType, resourceEntry.getResourceId(), resourceEntry.getContent(), inlineImageAttachments));
+								}
+							});
+						}
 
-													List<?> entries = attachmentFeedDocument.getRootElement().getChildren("entry", Namespace.getNamespace(NAMESPACE_URI_ATOM)); //$NON-NLS-1$
+						conversionRunner.finish();
+					}
+					finally {
+						conversionRunner.cancel();
+						resourceEntries.close();
+					}
 
-													if(entries.size() == 1){
+					projectAreaResourceCount += conversionCounter.getCount();
+					projectAreaResourceProcessedCount += conversionCounter.getConvertedCount();
 
-														String entryId = ((Element)(entries.get(0))).getChild("id", Namespace.getNamespace(NAMESPACE_URI_ATOM)).getValue(); //$NON-NLS-1$
+					if(output){
 
-														if(APIUtils.isSet(entryId)){
-															attachmentUuid = entryId;
-														}
-													}
-												}
-											}
-											catch(Exception e){
-												//Ignore since the attachment UUID cannot be resolved and log a warning message (see below).
-											}
+						System.out.println((test ? "Test r" : "R") + "ead " + projectAreaResourceCount + " resource" + (projectAreaResourceCount != 1 ? "s" : "") + " of resource type '" + resourceType + "' in project area '" + projectAreaAlias + "'."); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$ //$NON-NLS-9$
+						System.out.println((test ? "Test p" : "P") + "rocessed " + projectAreaResourceProcessedCount + " resource" + (projectAreaResourceProcessedCount != 1 ? "s" : "") + " with inline images of resource type '" + resourceType + "' in project area '" + projectAreaAlias + "'."); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$ //$NON-NLS-9$
+					}
+				}
 
-											if(attachmentUuid != null){
+				if((output) && (resourceTypes.size() > 1)){
 
-												attachmentId = attachmentUuid;
+					System.out.println((test ? "Test r" : "R") + "ead " + projectAreaResourceCount + " resource" + (projectAreaResourceCount != 1 ? "s" : "") + " of resource type" + (resourceTypes.size() != 1 ? "s" : "") + " '" + APIUtils.toString(resourceTypes) + "' in project area '" + projectAreaAlias + "'."); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$ //$NON-NLS-9$ //$NON-NLS-10$ //$NON-NLS-11$ //$NON-NLS-12$
+					System.out.println((test ? "Test p" : "P") + "rocessed " + projectAreaResourceProcessedCount + " resource" + (projectAreaResourceProcessedCount != 1 ? "s" : "") + " with inline images of resource type" + (resourceTypes.size() != 1 ? "s" : "") + " '" + APIUtils.toString(resourceTypes) + "' in project area '" + projectAreaAlias + "'."); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$ //$NON-NLS-9$ //$NON-NLS-10$ //$NON-NLS-11$ //$NON-NLS-12$
+				}
 
-												attachmentUri = MessageFormat.format(URI_TEMPLATE_ATTACHMENT_SERVICE_RESOURCE, new Object[]{httpClient.getServerUrl(), attachmentId});
-											}
-											else{
+				totalResourceCount += projectAreaResourceCount;
+				totalResourceProcessedCount += projectAreaResourceProcessedCount;
+			}
 
-												String message = "Could not resolve the UUID of attachment '" + attachmentUri + "' in " + resourceType + " resource '" + resourceUri + "'. By default, using a ETM Reportable REST API attachment ID and URL."; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+			if(output){
 
-												if(output) {
-													System.err.println(message); 
-												}
+				System.out.println("Summary:"); //$NON-NLS-1$
+				System.out.println("    " + (test ? "Test r" : "R") + "ead " + totalResourceCount + " resource" + (totalResourceCount != 1 ? "s" : "") + " of resource type" + (resourceTypes.size() != 1 ? "s" : "") + " '" + APIUtils.toString(resourceTypes) + "' in project area" + (projectAreaAliases.size() == 1 ? "" : "s") + " '" + getProjectAreaAliasNames() + "'.");  //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$ //$NON-NLS-9$ //$NON-NLS-10$ //$NON-NLS-11$ //$NON-NLS-12$ //$NON-NLS-13$ //$NON-NLS-14$ //$NON-NLS-15$ //$NON-NLS-16$
+				System.out.println("    " + (test ? "Test p" : "P") + "rocessed " + totalResourceProcessedCount + " resource" + (totalResourceProcessedCount != 1 ? "s" : "") + " with inline images of resource type" + (resourceTypes.size() != 1 ? "s" : "") + " '" + APIUtils.toString(resourceTypes) + "' in project area" + (projectAreaAliases.size() == 1 ? "" : "s") + " '" + getProjectAreaAliasNames() + "'.");  //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$ //$NON-NLS-9$ //$NON-NLS-10$ //$NON-NLS-11$ //$NON-NLS-12$ //$NON-NLS-13$ //$NON-NLS-14$ //$NON-NLS-15$ //$NON-NLS-16$
 
-												LogUtils.logWarning(message);
-											}
-										}
-										else{
-
-											//Set a dummy attachment UUID for test mode:
-											attachmentId = "_0000000000000000000000"; //$NON-NLS-1$
-											attachmentUri = MessageFormat.format(URI_TEMPLATE_ATTACHMENT_SERVICE_RESOURCE, new Object[]{httpClient.getServerUrl(), attachmentId});
-										}
-
-										imgElement.setAttribute("src", attachmentUri); //$NON-NLS-1$
-
-										if(!APIUtils.isAttributeSet(imgElement, "id")){ //$NON-NLS-1$
-											imgElement.setAttribute("id", attachmentId);																		 //$NON-NLS-1$
-										}
-
-										if(!APIUtils.isAttributeSet(imgElement, "border")){ //$NON-NLS-1$
-											imgElement.setAttribute("border", "0");																		 //$NON-NLS-1$ //$NON-NLS-2$
-										}
-
-										if(!APIUtils.isAttributeSet(imgElement, "alt")){ //$NON-NLS-1$
-											imgElement.setAttribute("alt", attachmentFileName);																		 //$NON-NLS-1$
-										}
-
-										XMLOutputter xmlOutputter = new XMLOutputter(Format.getPrettyFormat());
-
-										inlineImageMatcher.appendReplacement(updatedResourceXml, xmlOutputter.outputString(imgElement).trim());
-									}
-									else{		
-
-										String message = "Unsupported inline image content encoding '" + inlineImageEncoding + "' in " + resourceType + " resource '" + resourceUri + "'. Note, only the '" + ENCODING_BASE_64 + "' inline image content encoding is supported. Skipping inline image."; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
-
-										if(output) {
-											System.err.println(message); 
-										}
-
-										LogUtils.logWarning(message);
-									}
-								}
-
-								inlineImageMatcher.appendTail(updatedResourceXml);
-
-								//Back-up the old resource XML:
-								LogUtils.logTrace("Before " + (test ? "test " : "") + "converting inline images in " + resourceType + " resource '" + resourceUri + "':" + LINE_SEPARATOR + resourceXml);  //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$
-
-								if(!test){
-									httpClient.put(resourceUri, updatedResourceXml.toString());
-								}
-
-								//Back-up the new resource XML:
-								LogUtils.logTrace("After " + (test ? "test " : "") + "converting inline images in " + resourceType + " resource '" + resourceUri + "':" + LINE_SEPARATOR + updatedResourceXml.toString());  //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$
-
-								//Capture the output message:
-								convertInlineImagesMessages.add((test ? "Test c" : "C") + "onverted inline images in " + resourceType + " resource '" + resourceUri + "'.");  //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
-
-								projectAreaResourceProcessedCount++;
-							}
-
-							projectAreaResourceCount++;
-						}
-						catch(Exception e) {
-
-							String message = "Unable to " + (test ? "test " : "") + "convert inline images in " + resourceType + " resource '" + resourceUri + "'. Skipping resource."; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$
-
-							if(output) {
-								System.err.println(message); 
-							}
-
-							LogUtils.logError(message);
-							LogUtils.logError(e.toString(), e);
-						}
-					}			
-
-					if(output){
-
-						System.out.println((test ? "Test r" : "R") + "ead " + projectAreaResourceCount + " resource" + (projectAreaResourceCount != 1 ? "s" : "") + " of resource type '" + resourceType + "' in project area '" + projectAreaAlias + "'."); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$ //$NON-NLS-9$
-						System.out.println((test ? "Test p" : "P") + "rocessed " + projectAreaResourceProcessedCount + " resource" + (projectAreaResourceProcessedCount != 1 ? "s" : "") + " with inline images of resource type '" + resourceType + "' in project area '" + projectAreaAlias + "'."); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$ //$NON-NLS-9$
-					}
-				}
-
-				if((output) && (resourceTypes.size() > 1)){
-
-					System.out.println((test ? "Test r" : "R") + "ead " + projectAreaResourceCount + " resource" + (projectAreaResourceCount != 1 ? "s" : "") + " of resource type" + (resourceTypes.size() != 1 ? "s" : "") + " '" + APIUtils.toString(resourceTypes) + "' in project area '" + projectAreaAlias + "'."); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$ //$NON-NLS-9$ //$NON-NLS-10$ //$NON-NLS-11$ //$NON-NLS-12$
-					System.out.println((test ? "Test p" : "P") + "rocessed " + projectAreaResourceProcessedCount + " resource" + (projectAreaResourceProcessedCount != 1 ? "s" : "") + " with inline images of resource type" + (resourceTypes.size() != 1 ? "s" : "") + " '" + APIUtils.toString(resourceTypes) + "' in project area '" + projectAreaAlias + "'."); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$ //$NON-NLS-9$ //$NON-NLS-10$ //$NON-NLS-11$ //$NON-NLS-12$
-				}
-
-				totalResourceCount += projectAreaResourceCount;
-				totalResourceProcessedCount += projectAreaResourceProcessedCount;
-			}
-
-			if(output){
-
-				System.out.println("Summary:"); //$NON-NLS-1$
-				System.out.println("    " + (test ? "Test r" : "R") + "ead " + totalResourceCount + " resource" + (totalResourceCount != 1 ? "s" : "") + " of resource type" + (resourceTypes.size() != 1 ? "s" : "") + " '" + APIUtils.toString(resourceTypes) + "' in project area" + (projectAreaAliases.size() == 1 ? "" : "s") + " '" + getProjectAreaAliasNames() + "'.");  //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$ //$NON-NLS-9$ //$NON-NLS-10$ //$NON-NLS-11$ //$NON-NLS-12$ //$NON-NLS-13$ //$NON-NLS-14$ //$NON-NLS-15$ //$NON-NLS-16$
-				System.out.println("    " + (test ? "Test p" : "P") + "rocessed " + totalResourceProcessedCount + " resource" + (totalResourceProcessedCount != 1 ? "s" : "") + " with inline images of resource type" + (resourceTypes.size() != 1 ? "s" : "") + " '" + APIUtils.toString(resourceTypes) + "' in project area" + (projectAreaAliases.size() == 1 ? "" : "s") + " '" + getProjectAreaAliasNames() + "'.");  //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$ //$NON-NLS-9$ //$NON-NLS-10$ //$NON-NLS-11$ //$NON-NLS-12$ //$NON-NLS-13$ //$NON-NLS-14$ //$NON-NLS-15$ //$NON-NLS-16$
-
-				for(String addedMissingBackLinksOutputMessage : convertInlineImagesMessages){
-					System.out.println("    " + addedMissingBackLinksOutputMessage); //$NON-NLS-1$
-				}
-			}
-		} 
-		else if ("removehtmltagsfromscriptsteps".equals(command.toLowerCase())) { //$NON-NLS-1$
-			
-			final String serverUrl = httpClient.getServerUrl();
-			String output_str = ""; //$NON-NLS-1$
+				for(String addedMissingBackLinksOutputMessage : convertInlineImagesMessages){
+					System.out.println("    " + addedMissingBackLinksOutputMessage); //$NON-NLS-1$
+				}
+			}
+		} 
+		else if ("removehtmltagsfromscriptsteps".equals(command.toLowerCase())) { //$NON-NLS-1$
+			
+			final String serverUrl = httpClient.getServerUrl();
+			String output_str = ""; //$NON-NLS-1$
+			int totalResourceCount = 0;
+			int updatedResourceCount = 0;
+			int unchangedResourceCount = 0;
 
 			for (String projectAreaAlias : projectAreaAliases) {
 				if (output) {
@@ -1521,14 +1464,17 @@ public final class APIUtilities implements IAPIConstants {
 				String testScriptType = "testscript"; // $NON-NLS-1$ //$NON-NLS-1$
 				String testScriptFeedUri = MessageFormat.format(URI_TEMPLATE_INTEGRATION_SERVICE_RESOURCES_FEED, new Object[] { serverUrl, projectAreaAlias, testScriptType });
 				
-				List<String> scriptIds = null;
+				Iterator<String> scriptIds = null;
+				FeedIterator<FeedEntry> scriptEntries = null;
 				
 				if(resourceWebIds != null && !resourceWebIds.isEmpty()) {
-					scriptIds = resourceWebIds;
+					scriptIds = resourceWebIds.iterator();
 				}
 				else {
 					try {					
-						scriptIds = FeedReader.getIds(httpClient, testScriptFeedUri, testScriptType, ignoreReadErrors);					
+						
+						//Note: The feed entries (including the inline content, if any) are read as the test scripts are processed.
+						scriptEntries = getResourceEntryIterator(testScriptFeedUri, testScriptType, null);
 					}
 					catch(Exception ex) {
 						if(ignoreReadErrors) {
@@ -1545,53 +1491,99 @@ public final class APIUtilities implements IAPIConstants {
 						}
 					}
 				}
-				for(String scriptId:scriptIds){
-					String encodedId = encodeSegmentedResourceId(scriptId);
-					String scriptUri = MessageFormat.format(URI_TEMPLATE_INTEGRATION_SERVICE_RESOURCE, new Object[] { serverUrl, projectAreaAlias, testScriptType, encodedId });
-					String scriptXml = null;
+				try {
+
+					while((scriptEntries != null) ? scriptEntries.hasNext() : scriptIds.hasNext()){
+
+						String scriptId = null;
+						String inlineScriptXml = null;
+
+						if(scriptEntries != null){
+
+							FeedEntry scriptEntry = scriptEntries.next();
+
+							scriptId = scriptEntry.getResourceId();
+							inlineScriptXml = scriptEntry.getContent();
+
+							if(scriptId == null){
+								continue;
+							}
+						}
+						else{
+							scriptId = scriptIds.next();
+						}
+
+						String encodedId = encodeSegmentedResourceId(scriptId);
+						String scriptUri = MessageFormat.format(URI_TEMPLATE_INTEGRATION_SERVICE_RESOURCE, new Object[] { serverUrl, projectAreaAlias, testScriptType, encodedId });
+						String scriptXml = null;
 					
-					try {
-						scriptXml = APIUtils.toString(httpClient.get(scriptUri));
+						try {
+							scriptXml = readResource(scriptUri, null, inlineScriptXml);
 						
-						// Here the correcting code take place. For the specific customer, their data was showing either correct <br/> tags encoded,
-						// or mal-formed tags of the form "&lt;br/gt;". This simple code corrects those errors coming from TM Migration.
-						// Any other corrections can be added here.
+							// Here the correcting code take place. For the specific customer, their data was showing either correct <br/> tags encoded,
+							// or mal-formed tags of the form "&lt;br/gt;". This simple code corrects those errors coming from TM Migration.
+							// Any other corrections can be added here.
 						
-						String finalTestScriptXml = scriptXml.replaceAll("&lt;br/&gt;", "<br/>").replaceAll("&lt;br/gt;", "<br/>"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+							String finalTestScriptXml = scriptXml.replaceAll("&lt;br/&gt;", "<br/>").replaceAll("&lt;br/gt;", "<br/>"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
 						
-						LogUtils.logTrace("Test Script XML Before removing HTML tags " + (test ? "test " : "")  + scriptXml); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
-						LogUtils.logTrace("Test Script XML After removing HTML tags " + (test ? "test " : "")  + finalTestScriptXml); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
-						try {
-							if (!test) {
-								// Saves the changes in the form of a PUT request
-								httpClient.put(scriptUri, finalTestScriptXml);
-								if (output) {
-									System.out.println("Script with Id " + scriptId + "Saved."); //$NON-NLS-1$ //$NON-NLS-2$
+							totalResourceCount++;
+						
+							//Skip the update when the test script is not changed:
+							if (!XMLContentHash.isChanged(scriptXml, finalTestScriptXml)) {
+								unchangedResourceCount++;
+								LogUtils.logTrace("Script with Id " + scriptId + " " + (test ? "test " : "") + "unchanged, skipping."); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+								continue;
+							}
+						
+							LogUtils.logTrace("Test Script XML Before removing HTML tags " + (test ? "test " : "")  + scriptXml); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+							LogUtils.logTrace("Test Script XML After removing HTML tags " + (test ? "test " : "")  + finalTestScriptXml); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+							try {
+								if (!test) {
+									// Saves the changes in the form of a PUT request
+									httpClient.put(scriptUri, finalTestScriptXml);
+									if (output) {
+										System.out.println("Script with Id " + scriptId + "Saved."); //$NON-NLS-1$ //$NON-NLS-2$
+									}
+									LogUtils.logTrace("Script with Id " + scriptId + "Saved."); //$NON-NLS-1$ //$NON-NLS-2$
 								}
-								LogUtils.logTrace("Script with Id " + scriptId + "Saved."); //$NON-NLS-1$ //$NON-NLS-2$
+								updatedResourceCount++;
+							}catch(Exception ex) {
+								output_str = "Unable to update the test script: " + scriptUri + ". Skipping."; //$NON-NLS-1$ //$NON-NLS-2$
+								if(output) {
+									System.out.println(output_str); 
+								}							
 							}
-						}catch(Exception ex) {
-							output_str = "Unable to update the test script: " + scriptUri + ". Skipping."; //$NON-NLS-1$ //$NON-NLS-2$
-							if(output) {
-								System.out.println(output_str); 
-							}							
 						}
-					}
-					catch(Exception ex) {
-						if(ignoreReadErrors) {
-							output_str = "Unable to get test script " + scriptId + " content using: " + scriptXml + ". Skipping."; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
-							if(output) {
-								System.out.println(output_str); 
+						catch(Exception ex) {
+							if(ignoreReadErrors) {
+								output_str = "Unable to get test script " + scriptId + " content using: " + scriptXml + ". Skipping."; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+								if(output) {
+									System.out.println(output_str); 
+								}
+								LogUtils.logTrace(output_str);
+								LogUtils.logError(ex.toString(), ex);
+								continue;
 							}
-							LogUtils.logTrace(output_str);
-							LogUtils.logError(ex.toString(), ex);
-							continue;
+							else {
+								throw ex;
+							}						
 						}
-						else {
-							throw ex;
-						}						
 					}
 				}
+				finally {
+
+					if(scriptEntries != null){
+						scriptEntries.close();
+					}
+				}
+			}
+			
+			if(output){
+
+				System.out.println("Summary:"); //$NON-NLS-1$
+				System.out.println("    " + (test ? "Test r" : "R") + "ead " + totalResourceCount + " test script" + (totalResourceCount != 1 ? "s" : "") + " in project area" + (projectAreaAliases.size() == 1 ? "" : "s") + " '" + getProjectAreaAliasNames() + "'.");  //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$ //$NON-NLS-9$ //$NON-NLS-10$ //$NON-NLS-11$ //$NON-NLS-12$
+				System.out.println("    " + (test ? "Test u" : "U") + "pdated " + updatedResourceCount + " test script" + (updatedResourceCount != 1 ? "s" : "") + "."); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$
+				System.out.println("    Skipped " + unchangedResourceCount + " unchanged test script" + (unchangedResourceCount != 1 ? "s" : "") + "."); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
 			}
 		} 
 		else if(COMMAND_UNIFY_CUSTOM_SECTIONS.toLowerCase().equals(command.toLowerCase())){
@@ -1619,7 +1611,7 @@ public final class APIUtilities implements IAPIConstants {
 				
 				String queryString ="abbreviate=false";
 				String templatesXmlFeed = APIUtils.toString(httpClient.get(templateFeedUri, queryString));
-				doc = builder.parse(new ByteArrayInputStream(templatesXmlFeed.getBytes()));
+				doc = builder.parse(new InputSource(new StringReader(templatesXmlFeed)));
 				
 				String expression = "//entry/content/template/sections/section[@name='"+ sectionNameToUnify +"']";
 				NodeList sections = (NodeList) xPath.compile(expression).evaluate(doc, XPathConstants.NODESET);
@@ -1675,7 +1667,7 @@ public final class APIUtilities implements IAPIConstants {
 						queryString ="";
 						String resourceXml = APIUtils.toString(httpClient.get(resourceUri, queryString));
 						resourceXml = resourceXml.trim();
-						doc = builder.parse(new ByteArrayInputStream(resourceXml.getBytes()));
+						doc = builder.parse(new InputSource(new StringReader(resourceXml)));
 						//check the test case's template
 						expression = "//testcase/template";
 						Node nBasedOnTemplate = (Node) xPath.compile(expression).evaluate(doc, XPathConstants.NODE);
@@ -1804,7 +1796,7 @@ public final class APIUtilities implements IAPIConstants {
 								
 				String queryString ="abbreviate=false";
 				String templatesXmlFeed = APIUtils.toString(httpClient.get(templateFeedUri, queryString));
-				doc = builder.parse(new ByteArrayInputStream(templatesXmlFeed.getBytes()));
+				doc = builder.parse(new InputSource(new StringReader(templatesXmlFeed)));
 				
 				String expression = "//entry/content/template/sections/section[@name='"+ sectionNameToUnify +"']";
 				NodeList sections = (NodeList) xPath.compile(expression).evaluate(doc, XPathConstants.NODESET);
@@ -1859,7 +1851,7 @@ public final class APIUtilities implements IAPIConstants {
 					System.out.println(output_str);
 				LogUtils.logTrace(output_str);
 				String templateXmlFeed = APIUtils.toString(httpClient.get(tempToModify, ""));
-				doc = builder.parse(new ByteArrayInputStream(templateXmlFeed.getBytes()));
+				doc = builder.parse(new InputSource(new StringReader(templateXmlFeed)));
 				String expression = "//template/sections/section[@name='"+ sectionNameToUnify +"']";
 				org.w3c.dom.Element sectionToModify = (org.w3c.dom.Element) xPath.compile(expression).evaluate(doc, XPathConstants.NODE);
 				//should have it, but check for null just in case
@@ -2048,7 +2040,7 @@ public final class APIUtilities implements IAPIConstants {
 					for (int counter = 0; counter < count; counter++) {
 
 						//Step 1: Create the attachment.					
-						String attachmentGenerateId = httpClient.postAttachment(attachmentsFeedUri, Files.readAllBytes(Paths.get(temporaryAttachmentFile.getAbsolutePath())), (attachmentType + "_" + attachmentCount + "_" + (counter + 1) + ".txt")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+						String attachmentGenerateId = httpClient.postAttachment(attachmentsFeedUri, temporaryAttachmentFile.toPath(), (attachmentType + "_" + attachmentCount + "_" + (counter + 1) + ".txt")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
 
 						//Step 2: Create the test case with the attachment.
 						String testCaseUri = MessageFormat.format(URI_TEMPLATE_INTEGRATION_SERVICE_RESOURCE, new Object[]{httpClient.getServerUrl(), projectAreaAlias, testCaseType, (testCaseType + "_" + testCaseCount + "_" + (counter + 1))}); //$NON-NLS-1$ //$NON-NLS-2$
@@ -2082,7 +2074,7 @@ public final class APIUtilities implements IAPIConstants {
 			
 			SAXBuilder saxBuilder = new SAXBuilder();
 			
-			Document categoryTypeFeedDocument = saxBuilder.build(new ByteArrayInputStream(categoryTypeFeedXml.trim().getBytes()));
+			Document categoryTypeFeedDocument = saxBuilder.build(new StringReader(categoryTypeFeedXml.trim()));
 
 			List<?> categoryTypeFeedEntries = categoryTypeFeedDocument.getRootElement().getChildren("entry", Namespace.getNamespace(NAMESPACE_URI_ATOM)); //$NON-NLS-1$
 			
@@ -2207,7 +2199,7 @@ public final class APIUtilities implements IAPIConstants {
 
 			SAXBuilder saxBuilder = new SAXBuilder();
 
-			Document sampleCategoryTypeFeedDocument = saxBuilder.build(new ByteArrayInputStream(sampleCategoryTypeFeedXml.trim().getBytes()));
+			Document sampleCategoryTypeFeedDocument = saxBuilder.build(new StringReader(sampleCategoryTypeFeedXml.trim()));
 
 			List<?> sampleCategoryTypeFeedEntries = sampleCategoryTypeFeedDocument.getRootElement().getChildren("entry", Namespace.getNamespace(NAMESPACE_URI_ATOM)); //$NON-NLS-1$
 
@@ -2681,6 +2673,123 @@ public final class APIUtilities implements IAPIConstants {
 				httpClient.post(componentUri, componentXml.toString(), MEDIA_TYPE_APPLICATION_XML, null);
 			}	
 		}
+		else if ("exportattachments".equals(command.toLowerCase())) { //$NON-NLS-1$
+
+			if(outputDirectory == null){
+				throw new IllegalArgumentException((test ? "Test c" : "C") + "ommand '" + command + "' requires the " + CmdLineArg.OUTPUT_DIRECTORY.toString() + " argument"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+			}
+
+			//Note: The attachments are stored by the hash of their content, so the same content is stored once for all project areas.
+			//Note: When testing, the output directory is not created (there is no manifest to resume when the output directory does not exist).
+			final ContentStore contentStore = (((!test) || (Files.isDirectory(outputDirectory))) ? new ContentStore(outputDirectory) : null);
+			Path manifestFile = outputDirectory.resolve(ATTACHMENTS_MANIFEST_FILE_NAME);
+
+			//Note: Attachments in the manifest were exported by an earlier run and are not exported again.
+			Set<String> exportedAttachmentUris = ((contentStore != null) ? readAttachmentsManifest(manifestFile, contentStore) : new HashSet<String>());
+			
+			if((output) && (!exportedAttachmentUris.isEmpty())){
+				System.out.println((test ? "Test r" : "R") + "esuming the export of attachments, skipping " + exportedAttachmentUris.size() + " attachment" + (exportedAttachmentUris.size() != 1 ? "s" : "") + " in manifest '" + manifestFile + "'."); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$
+			}
+
+			Writer manifestWriter = null;
+			
+			if(!test){
+				
+				//Note: An incomplete last line (for example, of an interrupted export) is terminated so the appended lines are complete.
+				boolean terminated = isManifestTerminated(manifestFile);
+				
+				manifestWriter = Files.newBufferedWriter(manifestFile, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+				
+				if(!terminated){
+					manifestWriter.write(LINE_SEPARATOR);
+				}
+			}
+			
+			AttachmentManifestWriter attachmentManifestWriter = new AttachmentManifestWriter(manifestWriter);
+			int testAttachmentCount = 0;
+			
+			try {
+				
+				String attachmentType = "attachment"; //$NON-NLS-1$
+
+				for (final String projectAreaAlias : projectAreaAliases) {
+
+					if(output){
+						System.out.println("Running command '" + command + "' in project area '" + projectAreaAlias + "'."); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+					}
+
+					int previousAttachmentCount = (test ? testAttachmentCount : attachmentManifestWriter.getCount());
+					
+					String attachmentsFeedUri = MessageFormat.format(URI_TEMPLATE_INTEGRATION_SERVICE_RESOURCES_FEED, new Object[]{httpClient.getServerUrl(), projectAreaAlias, attachmentType});
+
+					FeedIterator<String> attachmentIds = FeedReader.getIdIterator(httpClient, attachmentsFeedUri, attachmentType, ignoreReadErrors);	
+
+					//Download the attachments concurrently and write the manifest in the feed order:
+					OrderedTaskRunner<ExportedAttachment> attachmentRunner = new OrderedTaskRunner<ExportedAttachment>(getExecutorService(), getFetchWindowSize(), attachmentManifestWriter);
+
+					try {
+
+						while (attachmentIds.hasNext()) {
+
+							final String attachmentUri = MessageFormat.format(URI_TEMPLATE_INTEGRATION_SERVICE_RESOURCE, new Object[]{httpClient.getServerUrl(), projectAreaAlias, attachmentType, attachmentIds.next()});
+
+							if(!exportedAttachmentUris.contains(attachmentUri)){
+
+								if(test){
+									
+									if(output){
+										System.out.println("Test export attachment '" + attachmentUri + "'."); //$NON-NLS-1$ //$NON-NLS-2$
+									}
+									
+									testAttachmentCount++;
+								}
+								else{
+									
+									attachmentRunner.submit(new Callable<ExportedAttachment>() {
+	
+										@Override
+										public ExportedAttachment call() throws Exception {
+											return (exportAttachment(contentStore, attachmentUri));
+										}
+									});
+								}
+							}
+						}
+
+						attachmentRunner.finish();
+					}
+					finally {
+						attachmentRunner.cancel();
+						attachmentIds.close();
+					}
+
+					int projectAreaAttachmentCount = ((test ? testAttachmentCount : attachmentManifestWriter.getCount()) - previousAttachmentCount);
+
+					if(output){
+						System.out.println((test ? "Test e" : "E") + "xported " + projectAreaAttachmentCount + " attachment" + (projectAreaAttachmentCount != 1 ? "s" : "") + " in project area '" + projectAreaAlias + "'."); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$
+					}
+				}
+			}
+			finally {
+				
+				if(manifestWriter != null){
+					manifestWriter.close();
+				}
+			}
+
+			if(output){
+
+				System.out.println("Summary:"); //$NON-NLS-1$
+				
+				if(test){
+					System.out.println("    Test exported " + testAttachmentCount + " attachment" + (testAttachmentCount != 1 ? "s" : "") + " to '" + outputDirectory + "'."); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$
+				}
+				else{
+					System.out.println("    Exported " + attachmentManifestWriter.getCount() + " attachment" + (attachmentManifestWriter.getCount() != 1 ? "s" : "") + " to '" + outputDirectory + "'."); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$
+					System.out.println("    Stored " + attachmentManifestWriter.getStoredCount() + " file" + (attachmentManifestWriter.getStoredCount() != 1 ? "s" : "") + " (" + attachmentManifestWriter.getStoredSize() + " bytes), " + (attachmentManifestWriter.getCount() - attachmentManifestWriter.getStoredCount()) + " attachment" + ((attachmentManifestWriter.getCount() - attachmentManifestWriter.getStoredCount()) != 1 ? "s" : "") + " with content already stored."); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$ //$NON-NLS-9$ //$NON-NLS-10$
+				}
+			}
+		}
 		else{
 			System.out.println("Unknown " + (test ? "test " : "") + "command '" + command + "'."); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ 			
 		}
@@ -2688,6 +2797,1165 @@ public final class APIUtilities implements IAPIConstants {
 		System.out.println("Completed " + (test ? "test " : "") + "command '" + command + "' in project area" + (projectAreaAliases.size() == 1 ? "" : "s") + " '" + getProjectAreaAliasNames() + "'."); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$ //$NON-NLS-9$ //$NON-NLS-10$
 	}
 	
+	/**
+	 * <p>Downloads the content of an attachment to a content store.</p>
+	 * 
+	 * <p>Note: This method may be called concurrently.</p>
+	 * 
+	 * @param contentStore The content store.
+	 * @param attachmentUri The URI of the attachment.
+	 * @return The exported attachment, otherwise <code>null</code> if the attachment could not be read.
+	 */
+	private ExportedAttachment exportAttachment(ContentStore contentStore, final String attachmentUri) throws Exception {
+
+		try {
+
+			ContentStore.StoredContent storedContent = contentStore.store(new ContentStore.ContentWriter() {
+
+				@Override
+				public void write(WritableByteChannel channel) throws IOException {
+					httpClient.getContent(attachmentUri, null, MEDIA_TYPE_WILDCARD, channel);
+				}
+			});
+
+			return (new ExportedAttachment(attachmentUri, storedContent));
+		}
+		catch(Exception ex) {
+			if(ignoreReadErrors) {
+				String output_str = "Unable to get attachment using: " + attachmentUri; //$NON-NLS-1$
+				if(output) {
+					System.out.println(output_str); 
+				}
+				LogUtils.logTrace(output_str);
+				LogUtils.logError(ex.toString(), ex);
+			}
+			else {
+				throw ex;
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * <p>Reads the URIs of the attachments in an attachments manifest (see {@link #ATTACHMENTS_MANIFEST_FILE_NAME}).</p>
+	 * 
+	 * <p>Note: Invalid lines (for example, the incomplete last line of an interrupted export) and lines whose content 
+	 * is not stored in the content store (for example, deleted or incomplete files) are ignored, so those attachments 
+	 * are exported again.</p>
+	 * 
+	 * @param contentStore The content store of the exported attachments.
+	 * @return The attachment URIs, otherwise an empty set if the manifest does not exist.
+	 */
+	private static Set<String> readAttachmentsManifest(Path manifestFile, ContentStore contentStore) throws IOException {
+
+		Set<String> attachmentUris = new HashSet<String>();
+
+		if(Files.exists(manifestFile)){
+
+			BufferedReader reader = Files.newBufferedReader(manifestFile, StandardCharsets.UTF_8);
+
+			try {
+
+				String line = null;
+
+				while((line = reader.readLine()) != null){
+
+					String[] values = line.split(ATTACHMENTS_MANIFEST_SEPARATOR, -1);
+
+					if((values.length == 4) && (values[0].length() > 0) && (isStoredAttachment(contentStore, values[1], values[2], values[3]))){
+						attachmentUris.add(values[0]);
+					}
+				}
+			}
+			finally {
+				reader.close();
+			}
+		}
+
+		return attachmentUris;
+	}
+
+	/**
+	 * <p>Determines if the content of an attachment in an attachments manifest is stored in the content store, that is, 
+	 * the path is the path of the hash and the content file exists with the size.</p>
+	 */
+	private static boolean isStoredAttachment(ContentStore contentStore, String hash, String path, String size) throws IOException {
+
+		long contentSize = -1;
+
+		try {
+			contentSize = Long.parseLong(size);
+		}
+		catch (NumberFormatException n) {
+			return false;
+		}
+
+		if((contentSize < 0) || (hash.length() < 2) || (!ContentStore.getPath(hash).toString().replace(File.separatorChar, '/').equals(path))){
+			return false;
+		}
+
+		return (contentStore.isStored(hash, contentSize));
+	}
+
+	/**
+	 * <p>Determines if an attachments manifest is empty, does not exist, or ends with a line break.</p>
+	 */
+	private static boolean isManifestTerminated(Path manifestFile) throws IOException {
+
+		if((!Files.exists(manifestFile)) || (Files.size(manifestFile) == 0)){
+			return true;
+		}
+
+		SeekableByteChannel channel = Files.newByteChannel(manifestFile, StandardOpenOption.READ);
+
+		try {
+
+			ByteBuffer lastByte = ByteBuffer.allocate(1);
+
+			channel.position(channel.size() - 1);
+			channel.read(lastByte);
+
+			return (lastByte.get(0) == '\n');
+		}
+		finally {
+			channel.close();
+		}
+	}
+
+	/**
+	 * <p>Converts the inline (base64) images in a resource to attachments and updates the resource.</p>
+	 * 
+	 * <p>The attachment of each inline image content is created once per project area (see {@link #getInlineImageAttachment(String, String, String, InlineImageScanner, String, ConcurrentMap)}).</p>
+	 * 
+	 * <p>Note: This method may be called concurrently.</p>
+	 * 
+	 * @param inlineResourceXml The (inline) resource XML in the feed entry of the resource (see {@link #getResourceEntryIterator(String, String, String)}), otherwise <code>null</code> to read the resource.
+	 * @param inlineImageAttachments The attachments of the inline image content in the project area, shared by all resources in the project area.
+	 * @return The conversion, otherwise <code>null</code> if the resource could not be read or converted.
+	 */
+	private InlineImageConversion convertInlineImages(String projectAreaAlias, String resourceType, String resourceId, String inlineResourceXml, ConcurrentMap<String, FutureTask<InlineImageAttachment>> inlineImageAttachments) {
+
+		String resourceUri = MessageFormat.format(URI_TEMPLATE_INTEGRATION_SERVICE_RESOURCE, new Object[]{httpClient.getServerUrl(), projectAreaAlias, resourceType, resourceId});
+
+		try {
+
+			//Resolve the resource XML of the resource type in the project area:
+			String resourceXml = readResource(resourceUri, queryString, inlineResourceXml);
+
+			//Note: The resource XML is scanned once (linear time) and the image data is not copied.
+			InlineImageScanner inlineImageScanner = new InlineImageScanner(resourceXml);
+
+			//Only process resources that contain inline images:
+			if(!inlineImageScanner.find()){
+				return (new InlineImageConversion(resourceUri, false));
+			}
+
+			StringBuilder updatedResourceXml = new StringBuilder(resourceXml.length());
+			int copiedIndex = 0;
+
+			//Iterate the inline images in the resource XML:
+			do {
+
+				String inlineImageEncoding = inlineImageScanner.getEncoding();
+
+				if(ENCODING_BASE_64.equalsIgnoreCase(inlineImageEncoding)){
+
+					String attachmentFileName = ("inline_image." + inlineImageScanner.getImageType()); //$NON-NLS-1$
+
+					//Note: The img element is parsed without the image data in the src attribute (replaced below).
+					StringBuilder imgXml = new StringBuilder();
+					imgXml.append(resourceXml, inlineImageScanner.getStart(), inlineImageScanner.getSourceStart());
+					imgXml.append(resourceXml, inlineImageScanner.getSourceEnd(), inlineImageScanner.getEnd());
+
+					Element imgElement = new SAXBuilder().build(new StringReader(imgXml.toString())).getRootElement();
+
+					InlineImageAttachment attachment = null;
+
+					if(!test){
+						attachment = getInlineImageAttachment(projectAreaAlias, resourceType, resourceUri, inlineImageScanner, attachmentFileName, inlineImageAttachments);
+					}
+					else{
+
+						//Set a dummy attachment UUID for test mode:
+						String attachmentId = "_0000000000000000000000"; //$NON-NLS-1$
+
+						attachment = new InlineImageAttachment(attachmentId, MessageFormat.format(URI_TEMPLATE_ATTACHMENT_SERVICE_RESOURCE, new Object[]{httpClient.getServerUrl(), attachmentId}));
+					}
+
+					imgElement.setAttribute("src", attachment.attachmentUri); //$NON-NLS-1$
+
+					if(!APIUtils.isAttributeSet(imgElement, "id")){ //$NON-NLS-1$
+						imgElement.setAttribute("id", attachment.attachmentId);																		 //$NON-NLS-1$
+					}
+
+					if(!APIUtils.isAttributeSet(imgElement, "border")){ //$NON-NLS-1$
+						imgElement.setAttribute("border", "0");																		 //$NON-NLS-1$ //$NON-NLS-2$
+					}
+
+					if(!APIUtils.isAttributeSet(imgElement, "alt")){ //$NON-NLS-1$
+						imgElement.setAttribute("alt", attachmentFileName);																		 //$NON-NLS-1$
+					}
+
+					XMLOutputter xmlOutputter = new XMLOutputter(Format.getPrettyFormat());
+
+					updatedResourceXml.append(resourceXml, copiedIndex, inlineImageScanner.getStart());
+					updatedResourceXml.append(xmlOutputter.outputString(imgElement).trim());
+
+					copiedIndex = inlineImageScanner.getEnd();
+				}
+				else{		
+
+					String message = "Unsupported inline image content encoding '" + inlineImageEncoding + "' in " + resourceType + " resource '" + resourceUri + "'. Note, only the '" + ENCODING_BASE_64 + "' inline image content encoding is supported. Skipping inline image."; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+
+					if(output) {
+						System.err.println(message); 
+					}
+
+					LogUtils.logWarning(message);
+				}
+			}
+			while(inlineImageScanner.find());
+
+			updatedResourceXml.append(resourceXml, copiedIndex, resourceXml.length());
+
+			//Back-up the old resource XML:
+			LogUtils.logTrace("Before " + (test ? "test " : "") + "converting inline images in " + resourceType + " resource '" + resourceUri + "':" + LINE_SEPARATOR + resourceXml);  //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$
+
+			if(!test){
+				httpClient.put(resourceUri, updatedResourceXml.toString());
+			}
+
+			//Back-up the new resource XML:
+			LogUtils.logTrace("After " + (test ? "test " : "") + "converting inline images in " + resourceType + " resource '" + resourceUri + "':" + LINE_SEPARATOR + updatedResourceXml.toString());  //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$
+
+			return (new InlineImageConversion(resourceUri, true));
+		}
+		catch(Exception e) {
+
+			String message = "Unable to " + (test ? "test " : "") + "convert inline images in " + resourceType + " resource '" + resourceUri + "'. Skipping resource."; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$
+
+			if(output) {
+				System.err.println(message); 
+			}
+
+			LogUtils.logError(message);
+			LogUtils.logError(e.toString(), e);
+
+			return null;
+		}
+	}
+
+	/**
+	 * <p>Resolves the attachment of the inline image located by a scanner, creating the attachment when the 
+	 * inline image content (same type and SHA-256 hash of the image data) has no attachment in the project area.</p>
+	 * 
+	 * <p>Concurrent resolutions of the same inline image content share one attachment.  Attachments that
+	 * could not be created are not shared, so later resolutions create the attachment again.</p>
+	 * 
+	 * <p>Note: This method may be called concurrently.</p>
+	 */
+	private InlineImageAttachment getInlineImageAttachment(final String projectAreaAlias, final String resourceType, final String resourceUri, InlineImageScanner inlineImageScanner, final String attachmentFileName, ConcurrentMap<String, FutureTask<InlineImageAttachment>> inlineImageAttachments) throws Exception {
+
+		final CharSequence content = inlineImageScanner.getContent();
+		final int dataStart = inlineImageScanner.getDataStart();
+		final int dataEnd = inlineImageScanner.getDataEnd();
+
+		String key = (attachmentFileName + ' ' + inlineImageScanner.getDataHash());
+
+		FutureTask<InlineImageAttachment> attachmentTask = new FutureTask<InlineImageAttachment>(new Callable<InlineImageAttachment>() {
+
+			@Override
+			public InlineImageAttachment call() throws Exception {
+				return (createInlineImageAttachment(projectAreaAlias, resourceType, resourceUri, content, dataStart, dataEnd, attachmentFileName));
+			}
+		});
+
+		FutureTask<InlineImageAttachment> sharedAttachmentTask = inlineImageAttachments.putIfAbsent(key, attachmentTask);
+
+		if(sharedAttachmentTask == null){
+
+			sharedAttachmentTask = attachmentTask;
+
+			sharedAttachmentTask.run();
+		}
+
+		try {
+			return (sharedAttachmentTask.get());
+		}
+		catch (ExecutionException e) {
+
+			inlineImageAttachments.remove(key, sharedAttachmentTask);
+
+			Throwable cause = e.getCause();
+
+			if(cause instanceof Exception){
+				throw ((Exception)(cause));
+			}
+
+			throw e;
+		}
+	}
+
+	/**
+	 * <p>Creates an attachment from inline (base64) image content and resolves the attachment UUID.</p>
+	 * 
+	 * @param content The content containing the inline image.
+	 * @param dataStart The index of the start of the (base64) image data.
+	 * @param dataEnd The index of the end of the (base64) image data.
+	 * @return The attachment.
+	 */
+	private InlineImageAttachment createInlineImageAttachment(String projectAreaAlias, String resourceType, String resourceUri, CharSequence content, int dataStart, int dataEnd, String attachmentFileName) throws Exception {
+
+		SAXBuilder saxBuilder = new SAXBuilder();
+
+		//Create an attachment from the inline image content:
+		String attachmentPostUri = MessageFormat.format(URI_TEMPLATE_INTEGRATION_SERVICE_RESOURCES_FEED, new Object[]{httpClient.getServerUrl(), projectAreaAlias, "attachment"}); //$NON-NLS-1$
+
+		//Note: The (base64) inline image content is decoded as it is sent.
+		String attachmentId = httpClient.postBase64Attachment(attachmentPostUri, content, dataStart, dataEnd, attachmentFileName);
+
+		String attachmentUri = MessageFormat.format(URI_TEMPLATE_INTEGRATION_SERVICE_RESOURCE, new Object[]{httpClient.getServerUrl(), projectAreaAlias, "attachment", attachmentId}); //$NON-NLS-1$
+		String attachmentUuid = null;
+
+		try{
+
+			//Resolve the attachment UUID:	
+			//Note: Convert the InputStream to a String by calling APIUtils.toString() scrub the XML content. 
+			String attachmentWebId = saxBuilder.build(new StringReader(APIUtils.toString(httpClient.get(attachmentUri, queryString)))).getRootElement().getChild("webId", Namespace.getNamespace(NAMESPACE_URI_ALM_QM)).getValue(); //$NON-NLS-1$
+
+			if ((APIUtils.isSet(attachmentWebId)) && (Integer.parseInt(attachmentWebId) > 0)) {
+
+				//Note: Convert the InputStream to a String by calling APIUtils.toString() scrub the XML content. 
+				Document attachmentFeedDocument = saxBuilder.build(new StringReader(APIUtils.toString(httpClient.get(attachmentPostUri, "fields=feed/entry/content/attachment[webId='" + attachmentWebId + "']/*&metadata=UUID")))); //$NON-NLS-1$ //$NON-NLS-2$
+
+				List<?> entries = attachmentFeedDocument.getRootElement().getChildren("entry", Namespace.getNamespace(NAMESPACE_URI_ATOM)); //$NON-NLS-1$
+
+				if(entries.size() == 1){
+
+					String entryId = ((Element)(entries.get(0))).getChild("id", Namespace.getNamespace(NAMESPACE_URI_ATOM)).getValue(); //$NON-NLS-1$
+
+					if(APIUtils.isSet(entryId)){
+						attachmentUuid = entryId;
+					}
+				}
+			}
+		}
+		catch(Exception e){
+			//Ignore since the attachment UUID cannot be resolved and log a warning message (see below).
+		}
+
+		if(attachmentUuid != null){
+			return (new InlineImageAttachment(attachmentUuid, MessageFormat.format(URI_TEMPLATE_ATTACHMENT_SERVICE_RESOURCE, new Object[]{httpClient.getServerUrl(), attachmentUuid})));
+		}
+
+		String message = "Could not resolve the UUID of attachment '" + attachmentUri + "' in " + resourceType + " resource '" + resourceUri + "'. By default, using a ETM Reportable REST API attachment ID and URL."; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+
+		if(output) {
+			System.err.println(message); 
+		}
+
+		LogUtils.logWarning(message);
+
+		return (new InlineImageAttachment(attachmentId, attachmentUri));
+	}
+
+	/**
+	 * <p>Reads a resource and formats it as an ATOM feed entry.</p>
+	 * 
+	 * <p>Note: This method may be called concurrently.</p>
+	 * 
+	 * @param projectAreaAlias The alias of the project area containing the resource.
+	 * @param resourceType The type of the resource.
+	 * @param resourceId The identifier of the resource.
+	 * @param resourceXml The (inline) resource XML, otherwise <code>null</code> to read the resource.
+	 * @return The ATOM feed entry for the resource, otherwise <code>null</code> if the resource could not be read.
+	 */
+	private String readResourceEntry(String projectAreaAlias, String resourceType, String resourceId, String resourceXml) throws Exception {
+
+		String resourceUri = MessageFormat.format(URI_TEMPLATE_INTEGRATION_SERVICE_RESOURCE, new Object[]{httpClient.getServerUrl(), projectAreaAlias, resourceType, resourceId});
+
+		try {
+			
+			if(resourceXml == null){
+				resourceXml = APIUtils.toString(httpClient.get(resourceUri, queryString));
+			}
+			
+			if((resourceXml != null) && (resourceXml.length() > 0)){
+			
+				SAXBuilder saxBuilder = new SAXBuilder();
+				
+				Document document = saxBuilder.build(new StringReader(resourceXml.trim()));
+	
+				//Format the XML:
+				//Note: The XML outputter is not thread safe.
+				String formattedResourceXml = new XMLOutputter(Format.getPrettyFormat()).outputString(document).trim();
+
+				//Remove the XML declaration:
+				//Note: Formatting includes the XML declaration.
+				int xmlDeclarationEndIndex = formattedResourceXml.indexOf("?>"); //$NON-NLS-1$
+	
+				if(xmlDeclarationEndIndex != -1){
+					formattedResourceXml = formattedResourceXml.substring(xmlDeclarationEndIndex + 2).trim(); 
+				}
+
+				StringBuilder entry = new StringBuilder();
+				
+				entry.append("<entry xmlns=\"http://www.w3.org/2005/Atom\">").append(LINE_SEPARATOR); //$NON-NLS-1$
+				entry.append("<id>"); //$NON-NLS-1$
+				
+				Element identifierElement = document.getRootElement().getChild(PROPERTY_IDENTIFIER, Namespace.getNamespace(NAMESPACE_URI_DC_ELEMENTS));
+				
+				if(identifierElement != null){
+					entry.append(identifierElement.getValue());
+				}
+	
+				entry.append("</id>").append(LINE_SEPARATOR); //$NON-NLS-1$
+				entry.append("<title type=\"text\">"); //$NON-NLS-1$
+	
+				Element titleElement = document.getRootElement().getChild(PROPERTY_TITLE, Namespace.getNamespace(NAMESPACE_URI_DC_ELEMENTS));
+	
+				if(titleElement != null){
+					entry.append(titleElement.getValue());
+				}
+	
+				entry.append("</title>").append(LINE_SEPARATOR); //$NON-NLS-1$
+				entry.append("<summary type=\"text\"></summary>").append(LINE_SEPARATOR); //$NON-NLS-1$
+				entry.append("<updated>"); //$NON-NLS-1$
+	
+				Element updatedElement = document.getRootElement().getChild(PROPERTY_UPDATED, Namespace.getNamespace(ALM_NAMESPACE));
+	
+				if(updatedElement != null){
+					entry.append(updatedElement.getValue());
+				}
+	
+				entry.append("</updated>").append(LINE_SEPARATOR); //$NON-NLS-1$
+				entry.append("<link href=\""); //$NON-NLS-1$
+				entry.append(MessageFormat.format(URI_TEMPLATE_INTEGRATION_SERVICE_RESOURCE, new Object[]{httpClient.getServerUrl(), projectAreaAliases.get(0), resourceType, resourceId}));
+				entry.append("\" rel=\"alternate\" type=\"application/xml\"></link>").append(LINE_SEPARATOR); //$NON-NLS-1$
+				entry.append("<content type=\"application/xml\">").append(LINE_SEPARATOR); //$NON-NLS-1$
+				entry.append(formattedResourceXml.trim()).append(LINE_SEPARATOR);
+				entry.append("</content>").append(LINE_SEPARATOR); //$NON-NLS-1$
+				entry.append("</entry>").append(LINE_SEPARATOR); //$NON-NLS-1$
+	
+				return (entry.toString());
+			}
+			else{
+				System.out.println("Could not read resource '" + resourceUri + "'."); //$NON-NLS-1$ //$NON-NLS-2$ 			
+			}
+		}
+		catch(Exception ex) {
+			if(ignoreReadErrors) {
+				String output_str = "Unable to get resource using: " + resourceUri; //$NON-NLS-1$
+				if(output) {
+					System.out.println(output_str); 
+				}
+				LogUtils.logTrace(output_str);
+				LogUtils.logError(ex.toString(), ex);
+			}
+			else {
+				throw ex;
+			}
+		}
+		
+		return null;
+	}
+
+	/**
+	 * <p>Reads and formats the history of a resource, inserting a link (resource URI for reference) into the ATOM feed 
+	 * before the first entry.</p>
+	 * 
+	 * <p>The history is formatted as it is read from the connection and spooled to a temporary file, so the history is 
+	 * not held in memory and a history that cannot be read or parsed is not partially written to the export.</p>
+	 * 
+	 * <p>Note: This method may be called concurrently.</p>
+	 * 
+	 * @param projectAreaAlias The alias of the project area containing the resource.
+	 * @param resourceType The type of the resource.
+	 * @param resourceId The identifier of the resource.
+	 * @return The formatted history of the resource, otherwise <code>null</code> if the history of the resource could not be read.
+	 */
+	private ResourceHistory readResourceHistory(String projectAreaAlias, String resourceType, String resourceId) throws Exception {
+
+		String resourceUri = MessageFormat.format(URI_TEMPLATE_INTEGRATION_SERVICE_RESOURCE, new Object[]{httpClient.getServerUrl(), projectAreaAlias, resourceType, resourceId});
+
+		String resourceHistoryUri = MessageFormat.format(URI_TEMPLATE_INTEGRATION_SERVICE_RESOURCE_HISTORY, new Object[] {httpClient.getServerUrl(), projectAreaAlias, resourceType, resourceId});
+
+		File resourceHistoryFile = null;
+
+		try {
+
+			PushbackReader resourceHistoryReader = new PushbackReader(httpClient.getReader(resourceHistoryUri));
+
+			try {
+
+				int firstCharacter = resourceHistoryReader.read();
+
+				if(firstCharacter == -1){
+
+					System.out.println("Unable to resolve resource history '" + resourceHistoryUri + "'."); //$NON-NLS-1$ //$NON-NLS-2$
+
+					return null;
+				}
+
+				resourceHistoryReader.unread(firstCharacter);
+
+				//Note: The temporary file is also deleted on exit, since the histories of cancelled reads are not written.
+				resourceHistoryFile = File.createTempFile(RESOURCE_HISTORY_FILE_PREFIX, RESOURCE_HISTORY_FILE_SUFFIX);
+				resourceHistoryFile.deleteOnExit();
+
+				Writer resourceHistoryWriter = Files.newBufferedWriter(resourceHistoryFile.toPath(), StandardCharsets.UTF_8);
+
+				try {
+					XMLStreamFormatter.formatFeed(resourceHistoryReader, resourceHistoryWriter, resourceUri);
+				}
+				finally {
+					resourceHistoryWriter.close();
+				}
+			}
+			finally {
+				resourceHistoryReader.close();
+			}
+
+			ResourceHistory resourceHistory = new ResourceHistory(resourceHistoryUri, resourceHistoryFile);
+
+			resourceHistoryFile = null;
+
+			return resourceHistory;
+		}
+		catch(Exception ex) {
+			logResourceHistoryError(resourceHistoryUri, ex);
+		}
+		finally {
+
+			if(resourceHistoryFile != null){
+				resourceHistoryFile.delete();
+			}
+		}
+		
+		return null;
+	}
+
+	private void logResourceHistoryError(String resourceHistoryUri, Exception ex) throws Exception {
+
+		if(ignoreReadErrors) {
+
+			String output_str = "Unable to resolve resource history '" + resourceHistoryUri + "'."; //$NON-NLS-1$ //$NON-NLS-2$ 
+
+			if(output) {
+				System.out.println(output_str); 
+			}
+
+			LogUtils.logTrace(output_str);
+			LogUtils.logError(ex.toString(), ex);
+		}
+		else {
+			throw ex;
+		}
+	}
+
+	/**
+	 * <p>Resolves the query string for reading the execution tasks matching the creation date, execution task states, 
+	 * and execution progress as feed query predicates, so only the matching execution tasks are read.</p>
+	 * 
+	 * <p>Note: The execution tasks are also filtered on the client since the predicates are a pre-filter.</p>
+	 * 
+	 * @return The query string for reading the matching execution tasks, otherwise <code>null</code> if there are no predicates.
+	 */
+	private String getExecutionTasksQueryString() throws IOException {
+		
+		List<String> predicates = new ArrayList<String>();
+		
+		if(longCreationDate != -1){
+			predicates.add(PROPERTY_CREATION_DATE + "<'" + DateTimeUtils.formatRfc3339DateTime(longCreationDate) + "'"); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		
+		if((executionStates != null) && (!executionStates.isEmpty())){
+			predicates.add(getStatePredicate(executionStates));
+		}
+		
+		if(executionProgress != -1){
+			predicates.add(PROPERTY_PROGRESS + "=" + executionProgress); //$NON-NLS-1$
+		}
+		
+		if(predicates.isEmpty()){
+			return null;
+		}
+		
+		StringBuilder fields = new StringBuilder("feed/entry/content/tasks["); //$NON-NLS-1$
+		
+		for (int index = 0; index < predicates.size(); index++) {
+			
+			if(index > 0){
+				fields.append(" and "); //$NON-NLS-1$
+			}
+			
+			fields.append(predicates.get(index));
+		}
+
+		fields.append("]/*"); //$NON-NLS-1$
+		
+		return ("fields=" + URLEncoder.encode(fields.toString(), "UTF-8")); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+	
+	private static String getStatePredicate(List<String> states) {
+		
+		StringBuilder predicate = new StringBuilder("("); //$NON-NLS-1$
+		
+		for (int index = 0; index < states.size(); index++) {
+			
+			if(index > 0){
+				predicate.append(" or "); //$NON-NLS-1$
+			}
+			
+			predicate.append(PROPERTY_STATE);
+			predicate.append("='"); //$NON-NLS-1$
+			predicate.append(states.get(index).replace("'", "")); //$NON-NLS-1$ //$NON-NLS-2$
+			predicate.append('\'');
+		}
+		
+		return (predicate.append(')').toString());
+	}
+
+	/**
+	 * <p>Reads the states of the execution results in a project area matching the execution result states in one (paged) feed read, 
+	 * instead of reading the execution result of each execution task.</p>
+	 * 
+	 * <p>Execution results missing from the returned map do not match the execution result states.  Execution results with an 
+	 * unresolved (<code>null</code>) state are read individually (see {@link #getExecutionResultState(String, String, Map)}).</p>
+	 * 
+	 * @param projectAreaAlias The alias of the project area.
+	 * @return The execution result states keyed by execution result identifier, otherwise <code>null</code> if the feed could not be read.
+	 */
+	private Map<String, String> readExecutionResultStates(String projectAreaAlias) {
+		
+		String resultType = "executionresult"; //$NON-NLS-1$
+		String resultFeedUri = MessageFormat.format(URI_TEMPLATE_INTEGRATION_SERVICE_RESOURCES_FEED, new Object[]{httpClient.getServerUrl(), projectAreaAlias, resultType});
+		
+		try {
+			
+			String resultQueryString = (QUERY_PARAMETER_ABBREVIATE + "false&fields=" + URLEncoder.encode("feed/entry/content/" + resultType + "[" + getStatePredicate(resultStates) + "]/(" + PROPERTY_STATE + "|webId)", "UTF-8")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$
+			
+			if(output){
+				System.out.println("Using " + resultFeedUri + " to get execution result states."); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+
+			Map<String, String> projectAreaResultStates = new HashMap<String, String>();
+			SAXBuilder saxBuilder = new SAXBuilder();
+			
+			for (FeedEntry resultEntry : FeedReader.getFeedEntries(httpClient, (resultFeedUri + "?" + resultQueryString), resultType, false, null, true)) { //$NON-NLS-1$
+
+				if(resultEntry.getResourceId() != null){
+					
+					String resultState = null;
+					
+					if(resultEntry.getContent() != null){
+						
+						Element resultStateElement = saxBuilder.build(new StringReader(resultEntry.getContent())).getRootElement().getChild(PROPERTY_STATE, Namespace.getNamespace(ALM_NAMESPACE));
+
+						if(resultStateElement != null){
+							resultState = resultStateElement.getText();
+						}
+					}
+					
+					projectAreaResultStates.put(getTrailingId(resultEntry.getResourceId()), resultState);
+				}
+			}
+
+			LogUtils.logTrace("Read " + projectAreaResultStates.size() + " execution result state(s) in project area '" + projectAreaAlias + "'."); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+
+			return projectAreaResultStates;
+		}
+		catch (Exception e) {
+
+			//Fall back to reading the execution result of each execution task:
+			LogUtils.logError("Unable to read the execution result states in project area '" + projectAreaAlias + "'.  Reading the execution result of each execution task.", e); //$NON-NLS-1$ //$NON-NLS-2$
+			
+			return null;
+		}
+	}
+	
+	/**
+	 * <p>Resolves the state of an execution result from the execution result states read in bulk, otherwise the cache of 
+	 * execution results read individually, otherwise reads the execution result.</p>
+	 * 
+	 * @param resultUri The URI of the execution result.
+	 * @param taskId The identifier of the execution task linking to the execution result.
+	 * @param projectAreaResultStates The execution result states keyed by execution result identifier (see {@link #readExecutionResultStates(String)}), otherwise <code>null</code>.
+	 * @return The state of the execution result, otherwise <code>null</code>.
+	 */
+	private String getExecutionResultState(String resultUri, String taskId, Map<String, String> projectAreaResultStates) throws Exception {
+		
+		if(projectAreaResultStates != null){
+			
+			String resultId = getTrailingId(resultUri);
+			
+			if(!projectAreaResultStates.containsKey(resultId)){
+				
+				//Only numeric identifiers can be matched to the identifiers in the feed:
+				if(resultId.matches("\\d+")){ //$NON-NLS-1$
+					return null;
+				}
+			}
+			else if(projectAreaResultStates.get(resultId) != null){
+				return (projectAreaResultStates.get(resultId));
+			}
+		}
+		
+		if(executionResultStates.containsKey(resultUri)){
+			return (executionResultStates.get(resultUri));
+		}
+		
+		if(output){
+			System.out.println("Using " + resultUri + " to get execution result for request id: " + taskId);  //$NON-NLS-1$ //$NON-NLS-2$
+		}
+
+		String resultState = null;
+		String resultXml = APIUtils.toString(httpClient.get(resultUri));
+		
+		if((resultXml != null) && (resultXml.length() > 0)) {
+		
+			Element resultStateElement = new SAXBuilder().build(new StringReader(resultXml.trim())).getRootElement().getChild(PROPERTY_STATE, Namespace.getNamespace(ALM_NAMESPACE));
+			
+			if(resultStateElement != null) {
+				resultState = resultStateElement.getText();
+			}
+		}
+		
+		executionResultStates.put(resultUri, resultState);
+		
+		return resultState;
+	}
+	
+	/**
+	 * <p>Resolves the trailing identifier of a resource identifier (for example, <code>urn:com.ibm.rqm:executionresult:21</code>) 
+	 * or resource URI (for example, <code>.../executionresult/urn:com.ibm.rqm:executionresult:21</code>).</p>
+	 */
+	private static String getTrailingId(String id) {
+		
+		String trailingId = id.substring(id.lastIndexOf('/') + 1);
+		
+		return (trailingId.substring(trailingId.lastIndexOf(':') + 1));
+	}
+
+	/**
+	 * <p>Resolves an iterator over the entries of the resources in a feed, including the resource XML (inline content) 
+	 * in the feed entries when reading inline content (see the <code>-ic/-inlineContent</code> argument).</p>
+	 * 
+	 * <p>The feed pages are read as the entries are iterated (see {@link FeedReader#getEntryIterator(JazzHttpClient, String, String, boolean, Include, boolean)}), 
+	 * so the resource XML of a few feed pages is held in memory.</p>
+	 * 
+	 * <p>Note: The iterator must be closed when not iterated to the end.</p>
+	 * 
+	 * @param resourceFeedUri The URI of the feed (without a query string).
+	 * @param resourceType The type of the resources.
+	 * @param resourceQueryString The query string for reading the inline content, otherwise <code>null</code>.
+	 * @return The iterator over the entries of the resources in the feed.
+	 */
+	private FeedIterator<FeedEntry> getResourceEntryIterator(String resourceFeedUri, String resourceType, String resourceQueryString) throws IOException {
+		
+		if(!inlineContent){
+			return (FeedReader.getEntryIterator(httpClient, resourceFeedUri, resourceType, ignoreReadErrors));
+		}
+		
+		return (FeedReader.getEntryIterator(httpClient, (resourceFeedUri + "?" + getInlineQueryString(resourceQueryString)), resourceType, ignoreReadErrors, null, true)); //$NON-NLS-1$
+	}
+
+	/**
+	 * <p>Resolves the query string for reading inline content, that is, the query string with unabbreviated feed 
+	 * entries (<code>abbreviate=false</code>), replacing the <code>abbreviate</code> parameter (if any).</p>
+	 * 
+	 * @param queryString The query string, otherwise <code>null</code>.
+	 * @return The query string for reading inline content.
+	 */
+	private static String getInlineQueryString(String queryString) {
+		
+		StringBuilder inlineQueryString = new StringBuilder();
+		
+		if(APIUtils.isSet(queryString)){
+			
+			for (String parameter : queryString.split("&")) { //$NON-NLS-1$
+				
+				if((parameter.length() > 0) && (!parameter.startsWith(QUERY_PARAMETER_ABBREVIATE))){
+					inlineQueryString.append(parameter).append('&');
+				}
+			}
+		}
+		
+		return (inlineQueryString.append(QUERY_PARAMETER_ABBREVIATE).append("false").toString()); //$NON-NLS-1$
+	}
+
+	/**
+	 * <p>Assigns default scripts to the suite elements of a test suite without a remote/test script.</p>
+	 * 
+	 * @param suiteDocument The test suite document (modified).
+	 * @param defaultScripts The default (remote/test) script elements keyed by test case URI.
+	 * @return <code>true</code> if a default script was assigned, otherwise <code>false</code>.
+	 */
+	private static boolean assignDefaultScripts(Document suiteDocument, Map<String, Element> defaultScripts) {
+
+		final Namespace NS_ALM_QM = Namespace.getNamespace(NAMESPACE_URI_ALM_QM);
+		boolean updated = false;
+		Element suiteElementsElement = suiteDocument.getRootElement().getChild("suiteelements", NS_ALM_QM); //$NON-NLS-1$
+
+		if (suiteElementsElement != null) {
+
+			@SuppressWarnings("unchecked")
+			List<Element> suiteElements = suiteElementsElement.getChildren();
+
+			for (Element suiteElement : suiteElements) {
+
+				Element testCaseElement = suiteElement.getChild("testcase", NS_ALM_QM); //$NON-NLS-1$
+
+				if ((testCaseElement != null) && (suiteElement.getChild("remotescript", NS_ALM_QM) == null) && (suiteElement.getChild("testscript", NS_ALM_QM) == null)) { //$NON-NLS-1$ //$NON-NLS-2$
+
+					Element defaultScript = defaultScripts.get(testCaseElement.getAttributeValue("href")); //$NON-NLS-1$
+
+					if (defaultScript != null) {
+
+						suiteElement.addContent((Element)(defaultScript.clone()));
+
+						updated = true;
+					}
+				}
+			}
+		}
+
+		return updated;
+	}
+
+	/**
+	 * <p>Adds the missing adapter ID to a remote script with a managed adapter.</p>
+	 * 
+	 * @param remoteScriptDocument The remote script document (modified).
+	 * @param remoteScriptTypes The remote script type names and IDs to update.
+	 * @return The new remote script XML, otherwise <code>null</code> if the remote script does not require an adapter ID.
+	 */
+	private String addMissingAdapterId(Document remoteScriptDocument, List<String> remoteScriptTypes) {
+
+		Element remoteScriptType = remoteScriptDocument.getRootElement().getChild(PROPERTY_TYPE, Namespace.getNamespace(NAMESPACE_URI_ALM_QM));
+		
+		if((remoteScriptType != null) && (remoteScriptTypes.contains(remoteScriptType.getValue()))){
+			
+			Element remoteScriptManagedAdapter = remoteScriptDocument.getRootElement().getChild(PROPERTY_MANAGED_ADAPTER, Namespace.getNamespace(NAMESPACE_URI_ALM_QM));
+			
+			if((remoteScriptManagedAdapter != null) && (Boolean.parseBoolean(remoteScriptManagedAdapter.getValue()))){
+
+				Element remoteScriptAdapterId = remoteScriptDocument.getRootElement().getChild(PROPERTY_ADAPTER_ID, Namespace.getNamespace(NAMESPACE_URI_ALM_QM));
+				
+				if((remoteScriptAdapterId == null) || (!APIUtils.isSet(remoteScriptAdapterId.getValue()))){
+
+					remoteScriptDocument.getRootElement().removeChild(PROPERTY_ADAPTER_ID, Namespace.getNamespace(NAMESPACE_URI_ALM_QM));
+					
+					remoteScriptAdapterId = new Element(PROPERTY_ADAPTER_ID, Namespace.getNamespace(NAMESPACE_URI_ALM_QM));
+					remoteScriptAdapterId.setText(adapterId);
+					
+					remoteScriptDocument.getRootElement().addContent(remoteScriptAdapterId);
+					
+					XMLOutputter xmlOutputter = new XMLOutputter(Format.getPrettyFormat());           
+					
+					return (xmlOutputter.outputString(remoteScriptDocument).trim());
+				}
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * <p>Resolves the (inline) resource XML of a resource, otherwise reads the resource.</p>
+	 * 
+	 * @param resourceUri The URI of the resource.
+	 * @param resourceQueryString The query string for reading the resource, otherwise <code>null</code>.
+	 * @param inlineResourceXml The (inline) resource XML in the feed entry of the resource (see {@link #getResourceEntryIterator(String, String, String)}), otherwise <code>null</code>.
+	 * @return The resource XML.
+	 */
+	private String readResource(String resourceUri, String resourceQueryString, String inlineResourceXml) throws IOException {
+		
+		//Note: Abbreviated feed entries do not contain the resource XML.
+		if(inlineResourceXml != null){
+			return inlineResourceXml;
+		}
+		
+		return (APIUtils.toString(httpClient.get(resourceUri, resourceQueryString)));
+	}
+
+	private ExecutorService getExecutorService() {
+		
+		if(threads <= 1){
+			return null;
+		}
+		
+		synchronized (this) {
+			
+			if(executorService == null){
+				
+				executorService = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+					
+					private final AtomicInteger threadCount = new AtomicInteger();
+					
+					@Override
+					public Thread newThread(Runnable runnable) {
+						
+						Thread thread = new Thread(runnable, "ETM API Utility Worker " + threadCount.incrementAndGet()); //$NON-NLS-1$
+						thread.setDaemon(true);
+						
+						return thread;
+					}
+				});
+			}
+			
+			return executorService;
+		}
+	}
+
+	private int getFetchWindowSize() {
+		return (Math.max(1, threads) * FETCH_WINDOW_FACTOR);
+	}
+
+	private synchronized void shutdownExecutorService() {
+		
+		if(executorService != null){
+			
+			executorService.shutdownNow();
+			
+			executorService = null;
+		}
+	}
+
+	/**
+	 * <p>Formatted history (ATOM feed) of a resource, spooled to a temporary file.</p>
+	 */
+	private static final class ResourceHistory {
+		
+		private final String resourceHistoryUri;
+		private final File resourceHistoryFile;
+		
+		public ResourceHistory(String resourceHistoryUri, File resourceHistoryFile) {
+			
+			this.resourceHistoryUri = resourceHistoryUri;
+			this.resourceHistoryFile = resourceHistoryFile;
+		}
+	}
+
+	/**
+	 * <p>Streams formatted resource histories (see {@link APIUtilities#readResourceHistory(String, String, String)}) to a writer 
+	 * and deletes their temporary files.</p>
+	 */
+	private final class ResourceHistoryWriter implements OrderedTaskRunner.ResultConsumer<ResourceHistory> {
+		
+		private final Writer writer;
+		private final char[] buffer = new char[RESOURCE_HISTORY_BUFFER_SIZE];
+		private int count = 0;
+		
+		public ResourceHistoryWriter(Writer writer) {
+			this.writer = writer;
+		}
+
+		@Override
+		public void consume(ResourceHistory resourceHistory) throws Exception {
+			
+			if(resourceHistory != null){
+				
+				try {
+
+					Reader resourceHistoryReader = Files.newBufferedReader(resourceHistory.resourceHistoryFile.toPath(), StandardCharsets.UTF_8);
+
+					try {
+
+						int length = 0;
+
+						while((length = resourceHistoryReader.read(buffer)) != -1){
+							writer.write(buffer, 0, length);
+						}
+					}
+					finally {
+						resourceHistoryReader.close();
+					}
+
+					//Note: The line separator is only written after a resource history was written.
+					writer.write(LINE_SEPARATOR);
+					writer.flush();
+
+					count++;
+				}
+				catch(Exception ex) {
+					logResourceHistoryError(resourceHistory.resourceHistoryUri, ex);
+				}
+				finally {
+					resourceHistory.resourceHistoryFile.delete();
+				}
+			}
+		}
+		
+		public int getCount() {
+			return count;
+		}
+	}
+
+	private static final class InlineImageAttachment {
+
+		private final String attachmentId;
+		private final String attachmentUri;
+
+		public InlineImageAttachment(String attachmentId, String attachmentUri) {
+
+			this.attachmentId = attachmentId;
+			this.attachmentUri = attachmentUri;
+		}
+	}
+
+	private static final class InlineImageConversion {
+
+		private final String resourceUri;
+		private final boolean converted;
+
+		public InlineImageConversion(String resourceUri, boolean converted) {
+
+			this.resourceUri = resourceUri;
+			this.converted = converted;
+		}
+	}
+
+	/**
+	 * <p>Counts the read and converted resources and captures the output message of each converted resource.</p>
+	 */
+	private final class InlineImageConversionCounter implements OrderedTaskRunner.ResultConsumer<InlineImageConversion> {
+
+		private final String resourceType;
+		private final List<String> messages;
+		private int count = 0;
+		private int convertedCount = 0;
+
+		public InlineImageConversionCounter(String resourceType, List<String> messages) {
+
+			this.resourceType = resourceType;
+			this.messages = messages;
+		}
+
+		@Override
+		public void consume(InlineImageConversion inlineImageConversion) {
+
+			if(inlineImageConversion != null){
+
+				if(inlineImageConversion.converted){
+
+					//Capture the output message:
+					messages.add((test ? "Test c" : "C") + "onverted inline images in " + resourceType + " resource '" + inlineImageConversion.resourceUri + "'.");  //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+
+					convertedCount++;
+				}
+
+				count++;
+			}
+		}
+
+		public int getCount() {
+			return count;
+		}
+
+		public int getConvertedCount() {
+			return convertedCount;
+		}
+	}
+
+	private static final class ExportedAttachment {
+
+		private final String attachmentUri;
+		private final ContentStore.StoredContent storedContent;
+
+		public ExportedAttachment(String attachmentUri, ContentStore.StoredContent storedContent) {
+
+			this.attachmentUri = attachmentUri;
+			this.storedContent = storedContent;
+		}
+	}
+
+	/**
+	 * <p>Writes exported attachments to an attachments manifest (see {@link APIUtilities#ATTACHMENTS_MANIFEST_FILE_NAME}) 
+	 * and counts the exported attachments.</p>
+	 * 
+	 * <p>Note: Each line is flushed so an interrupted export can be resumed.</p>
+	 */
+	private static final class AttachmentManifestWriter implements OrderedTaskRunner.ResultConsumer<ExportedAttachment> {
+
+		private final Writer writer;
+		private int count = 0;
+		private int storedCount = 0;
+		private long storedSize = 0;
+
+		public AttachmentManifestWriter(Writer writer) {
+			this.writer = writer;
+		}
+
+		@Override
+		public void consume(ExportedAttachment exportedAttachment) throws Exception {
+
+			if(exportedAttachment != null){
+
+				ContentStore.StoredContent storedContent = exportedAttachment.storedContent;
+
+				writer.write(exportedAttachment.attachmentUri);
+				writer.write(ATTACHMENTS_MANIFEST_SEPARATOR);
+				writer.write(storedContent.getHash());
+				writer.write(ATTACHMENTS_MANIFEST_SEPARATOR);
+				writer.write(storedContent.getPath().toString().replace(File.separatorChar, '/'));
+				writer.write(ATTACHMENTS_MANIFEST_SEPARATOR);
+				writer.write(String.valueOf(storedContent.getSize()));
+				writer.write(LINE_SEPARATOR);
+				writer.flush();
+
+				count++;
+
+				if(storedContent.isStored()){
+
+					storedCount++;
+					storedSize += storedContent.getSize();
+				}
+			}
+		}
+
+		public int getCount() {
+			return count;
+		}
+
+		public int getStoredCount() {
+			return storedCount;
+		}
+
+		public long getStoredSize() {
+			return storedSize;
+		}
+	}
+
+	/**
+	 * <p>Writes ATOM feed entries to a print stream and counts the written entries.</p>
+	 */
+	private static final class EntryWriter implements OrderedTaskRunner.ResultConsumer<String> {
+		
+		private final PrintStream printStream;
+		private int count = 0;
+		
+		public EntryWriter(PrintStream printStream) {
+			this.printStream = printStream;
+		}
+
+		@Override
+		public void consume(String entry) {
+			
+			if(entry != null){
+				
+				printStream.print(entry);
+				
+				count++;
+			}
+		}
+		
+		public int getCount() {
+			return count;
+		}
+	}
+
 	@SuppressWarnings("unchecked")
 	private long resolveTestScriptLastAddDateTime(List<Element> historyEntries, String testScriptUri) throws Exception {
 
@@ -2698,7 +3966,7 @@ public final class APIUtilities implements IAPIConstants {
 			//Assumption: History feed is English.
 			String testScriptXml = APIUtils.toString(httpClient.get(testScriptUri));
 			
-			Document testScriptDocument = saxBuilder.build(new ByteArrayInputStream(testScriptXml.trim().getBytes()));
+			Document testScriptDocument = saxBuilder.build(new StringReader(testScriptXml.trim()));
 
 			//Resolve the test script title and web ID:
 			Element testScriptWebIdElement = testScriptDocument.getRootElement().getChild("webId", Namespace.getNamespace(NAMESPACE_URI_ALM_QM)); //$NON-NLS-1$
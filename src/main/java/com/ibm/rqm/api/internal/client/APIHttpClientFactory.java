@@ -10,6 +10,7 @@ package com.ibm.rqm.api.internal.client;
 
 import java.io.IOException;
 import java.net.URL;
+import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.Locale;
 
@@ -31,6 +32,16 @@ public class APIHttpClientFactory implements IAPIConstants{
 	private static HashMap<URL, APIHttpClient> clients = new HashMap<URL, APIHttpClient>();
     
     public static APIHttpClient getClient(URL serverUrl, String username, String password) throws IOException{        
+    	return (getClient(serverUrl, username, password, null));
+    }
+
+    /**
+     * <p>Resolves the client of a server, resuming the session persisted in the session file (if any) 
+     * or logging in.</p>
+     * 
+     * @param sessionFile The session file (see {@link JazzHttpClient#setSessionFile(Path)}), otherwise <code>null</code>.
+     */
+    public static APIHttpClient getClient(URL serverUrl, String username, String password, Path sessionFile) throws IOException{        
         
     	APIHttpClient client = null;
         
@@ -47,11 +58,16 @@ public class APIHttpClientFactory implements IAPIConstants{
         		client = new APIHttpClient(serverUrl);
         	}
         	
-        	int returnCode = client.login(username, password);
+        	client.setSessionFile(sessionFile);
+
+        	if(!client.resumeSession(username, password)){
 
-			if ((returnCode != HttpStatus.SC_OK) && (returnCode != HttpStatus.SC_MOVED_TEMPORARILY)) {
-				throw new IOException("Error logging into server '" + serverUrl + "'. Return Code: " + returnCode); //$NON-NLS-1$ //$NON-NLS-2$
-			}
+        		int returnCode = client.login(username, password);
+
+        		if ((returnCode != HttpStatus.SC_OK) && (returnCode != HttpStatus.SC_MOVED_TEMPORARILY)) {
+        			throw new IOException("Error logging into server '" + serverUrl + "'. Return Code: " + returnCode); //$NON-NLS-1$ //$NON-NLS-2$
+        		}
+        	}
 
 			clients.put(serverUrl, client);
         }
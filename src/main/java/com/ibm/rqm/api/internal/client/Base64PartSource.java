@@ -0,0 +1,142 @@
+/*******************************************************************************
+ * Licensed Materials - Property of IBM
+ * © Copyright IBM Corporation 2011, 2020. All Rights Reserved.
+ *
+ * U.S. Government Users Restricted Rights:
+ * Use, duplication or disclosure restricted by GSA ADP Schedule
+ * Contract with IBM Corp.
+ ******************************************************************************/
+package com.ibm.rqm.api.internal.client;
+
+import java.io.InputStream;
+import java.util.Base64;
+
+import org.apache.commons.httpclient.methods.multipart.PartSource;
+
+/**
+ * <p>Multipart part source decoding base64 content in a region of a character sequence (for example, the data
+ * of an inline image in a resource XML) as the content is sent, without holding the decoded content in memory.</p>
+ *
+ * <p>Characters that are not in the base64 alphabet (for example, line breaks) are ignored and the content ends
+ * at the first padding character (<code>=</code>), if any.  The part source is repeatable, so the part source is
+ * reused when the request is retried or replayed.</p>
+ *
+ * <p>Note: The character sequence must not be modified while the part source is used.</p>
+ *
+ *
+ * @version 1.0
+ * @since   1.0
+ */
+final class Base64PartSource implements PartSource {
+
+	private final String fileName;
+	private final CharSequence content;
+	private final int start;
+	private final int end;
+	private final long length;
+
+	/**
+	 * @param start The index of the start of the base64 content.
+	 * @param end The index of the end of the base64 content.
+	 * @throws IllegalArgumentException If the base64 content is invalid.
+	 */
+	Base64PartSource(String fileName, CharSequence content, int start, int end) {
+
+		int alphabetCount = 0;
+		int index = start;
+
+		while((index < end) && (content.charAt(index) != '=')){
+
+			if(isAlphabet(content.charAt(index))){
+				alphabetCount++;
+			}
+
+			index++;
+		}
+
+		//Note: A final unit of one character is not valid base64 content.
+		if((alphabetCount % 4) == 1){
+			throw new IllegalArgumentException("Invalid base64 content length: " + alphabetCount); //$NON-NLS-1$
+		}
+
+		this.fileName = fileName;
+		this.content = content;
+		this.start = start;
+		this.end = index;
+		this.length = (((alphabetCount / 4) * 3) + (((alphabetCount % 4) == 0) ? 0 : ((alphabetCount % 4) - 1)));
+	}
+
+	@Override
+	public long getLength() {
+		return length;
+	}
+
+	@Override
+	public String getFileName() {
+		return fileName;
+	}
+
+	@Override
+	public InputStream createInputStream() {
+
+		//Note: The MIME decoder ignores characters that are not in the base64 alphabet.
+		return (Base64.getMimeDecoder().wrap(new CharSequenceInputStream(content, start, end)));
+	}
+
+	private static boolean isAlphabet(char character) {
+		return (((character >= 'A') && (character <= 'Z')) || ((character >= 'a') && (character <= 'z')) || ((character >= '0') && (character <= '9')) || (character == '+') || (character == '/'));
+	}
+
+	/**
+	 * <p>Stream reading the (ASCII) characters of a region of a character sequence as bytes.</p>
+	 */
+	private static final class CharSequenceInputStream extends InputStream {
+
+		private final CharSequence content;
+		private final int end;
+		private int position;
+
+		private CharSequenceInputStream(CharSequence content, int start, int end) {
+
+			this.content = content;
+			this.position = start;
+			this.end = end;
+		}
+
+		@Override
+		public int read() {
+
+			if(position >= end){
+				return -1;
+			}
+
+			char character = content.charAt(position++);
+
+			//Note: Non-ASCII characters are not in the base64 alphabet and are read as a (ignored) space.
+			return ((character < 0x80) ? character : ' ');
+		}
+
+		@Override
+		public int read(byte[] bytes, int offset, int count) {
+
+			if(count == 0){
+				return 0;
+			}
+
+			if(position >= end){
+				return -1;
+			}
+
+			int read = Math.min(count, (end - position));
+
+			for(int index = 0; index < read; index++){
+
+				char character = content.charAt(position++);
+
+				bytes[offset + index] = (byte)((character < 0x80) ? character : ' ');
+			}
+
+			return read;
+		}
+	}
+}
@@ -0,0 +1,206 @@
+/*******************************************************************************
+ * Licensed Materials - Property of IBM
+ * © Copyright IBM Corporation 2011, 2020. All Rights Reserved.
+ *
+ * U.S. Government Users Restricted Rights:
+ * Use, duplication or disclosure restricted by GSA ADP Schedule
+ * Contract with IBM Corp.
+ ******************************************************************************/
+package com.ibm.rqm.api.internal.client;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import com.ibm.rqm.api.internal.util.LogUtils;
+
+/**
+ * <p>Local directory caching content between runs, keyed by a string (for example, the server URL and user).</p>
+ *
+ * <p>Each entry is stored in a file named by the SHA-256 hash of its key, only readable and writable by
+ * the owner (when supported by the file system), and replaced atomically so concurrent runs never read
+ * a partially written entry.  Entries expire based on the time they were written.</p>
+ *
+ * <p>Note: Instances are thread safe.</p>
+ *
+ *
+ * @version 1.0
+ * @since   1.0
+ */
+final class CacheDirectory {
+
+	private static final String CACHE_FILE_EXTENSION = ".cache"; //$NON-NLS-1$
+	private static final String OWNER_ONLY_PERMISSIONS = "rw-------"; //$NON-NLS-1$
+	private static final String OWNER_ONLY_DIRECTORY_PERMISSIONS = "rwx------"; //$NON-NLS-1$
+	private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray(); //$NON-NLS-1$
+
+	private final Path directory;
+
+	/**
+	 * <p>Creates the cache directory (if it does not exist).</p>
+	 */
+	CacheDirectory(Path directory) throws IOException {
+
+		if((!Files.isDirectory(directory)) && (isPosix())){
+			Files.createDirectories(directory, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString(OWNER_ONLY_DIRECTORY_PERMISSIONS)));
+		}
+		else{
+			Files.createDirectories(directory);
+		}
+
+		this.directory = directory;
+	}
+
+	/**
+	 * <p>Reads the content of an entry.</p>
+	 *
+	 * @param key The key of the entry.
+	 * @param timeToLive The time (milliseconds) the entry is valid after it is written, otherwise <code>-1</code> if the entry does not expire.
+	 * @return The content of the entry, otherwise <code>null</code> if the entry does not exist or expired.
+	 */
+	public String read(String key, long timeToLive) {
+
+		byte[] content = readBytes(key, timeToLive);
+
+		return ((content != null) ? new String(content, StandardCharsets.UTF_8) : null);
+	}
+
+	/**
+	 * <p>Reads the content of an entry as bytes (see {@link #read(String, long)}).</p>
+	 */
+	public byte[] readBytes(String key, long timeToLive) {
+
+		Path cacheFile = getCacheFile(key);
+
+		try {
+
+			if((timeToLive >= 0) && ((System.currentTimeMillis() - Files.getLastModifiedTime(cacheFile).toMillis()) > timeToLive)){
+				return null;
+			}
+
+			return (Files.readAllBytes(cacheFile));
+		}
+		catch (NoSuchFileException n) {
+			return null;
+		}
+		catch (IOException i) {
+
+			LogUtils.logWarning("Error reading the cache file '" + cacheFile + "'", i); //$NON-NLS-1$ //$NON-NLS-2$
+
+			return null;
+		}
+	}
+
+	/**
+	 * <p>Writes the content of an entry, replacing the entry (if any).</p>
+	 */
+	public void write(String key, String content) {
+		write(key, content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	public void write(String key, byte[] content) {
+		writeFile(getCacheFile(key), content);
+	}
+
+	/**
+	 * <p>Deletes an entry (if any).</p>
+	 */
+	public void delete(String key) {
+		deleteFile(getCacheFile(key));
+	}
+
+	private Path getCacheFile(String key) {
+
+		try {
+
+			byte[] hash = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8)); //$NON-NLS-1$
+			StringBuilder fileName = new StringBuilder((hash.length * 2) + CACHE_FILE_EXTENSION.length());
+
+			for(byte hashByte : hash){
+				fileName.append(HEX_DIGITS[(hashByte >> 4) & 0x0F]).append(HEX_DIGITS[hashByte & 0x0F]);
+			}
+
+			return (directory.resolve(fileName.append(CACHE_FILE_EXTENSION).toString()));
+		}
+		catch (NoSuchAlgorithmException n) {
+
+			//Note: Every Java platform supports SHA-256.
+			throw new IllegalStateException(n);
+		}
+	}
+
+	private static boolean isPosix() {
+		return (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")); //$NON-NLS-1$
+	}
+
+	/**
+	 * <p>Writes a file only readable and writable by the owner (when supported by the file system), replacing
+	 * the file (if any) atomically.</p>
+	 *
+	 * <p>Note: Errors are logged since the file is a cache.</p>
+	 */
+	static void writeFile(Path file, String content) {
+		writeFile(file, content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	static void writeFile(Path file, byte[] content) {
+
+		Path temporaryFile = null;
+
+		try {
+
+			Path directory = file.toAbsolutePath().getParent();
+
+			if(isPosix()){
+				temporaryFile = Files.createTempFile(directory, file.getFileName().toString(), null, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString(OWNER_ONLY_PERMISSIONS)));
+			}
+			else{
+
+				temporaryFile = Files.createTempFile(directory, file.getFileName().toString(), null);
+
+				temporaryFile.toFile().setReadable(false, false);
+				temporaryFile.toFile().setReadable(true, true);
+				temporaryFile.toFile().setWritable(false, false);
+				temporaryFile.toFile().setWritable(true, true);
+			}
+
+			Files.write(temporaryFile, content);
+
+			try {
+				Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			}
+			catch (AtomicMoveNotSupportedException a) {
+				Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING);
+			}
+
+			temporaryFile = null;
+		}
+		catch (IOException i) {
+			LogUtils.logWarning("Error writing the file '" + file + "'", i); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		finally {
+
+			if(temporaryFile != null){
+				deleteFile(temporaryFile);
+			}
+		}
+	}
+
+	static void deleteFile(Path file) {
+
+		try {
+			Files.deleteIfExists(file);
+		}
+		catch (IOException i) {
+			LogUtils.logWarning("Error deleting the file '" + file + "'", i); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+	}
+}
@@ -0,0 +1,146 @@
+/*******************************************************************************
+ * Licensed Materials - Property of IBM
+ * © Copyright IBM Corporation 2011, 2020. All Rights Reserved.
+ *
+ * U.S. Government Users Restricted Rights:
+ * Use, duplication or disclosure restricted by GSA ADP Schedule
+ * Contract with IBM Corp.
+ ******************************************************************************/
+package com.ibm.rqm.api.internal.client;
+
+import java.io.InterruptedIOException;
+
+import com.ibm.rqm.api.internal.util.LogUtils;
+
+/**
+ * <p>Adaptive limit of the number of in-flight requests (additive increase/multiplicative decrease).</p>
+ *
+ * <p>The limit grows by one request per window of requests while the window is full and the latency
+ * of the requests stays flat.  The limit is cut when the server is overloaded (503/429 responses or
+ * I/O errors) or the recent latency rises well above the long-term latency.  The limit is never less
+ * than one request or more than the maximum limit (for example, the maximum number of connections).</p>
+ *
+ * <p>Note: Instances are thread safe.</p>
+ *
+ *
+ * @version 1.0
+ * @since   1.0
+ */
+final class ConcurrencyLimiter {
+
+	private static final double INITIAL_LIMIT = 2;
+	private static final double MIN_LIMIT = 1;
+	private static final double OVERLOAD_BACKOFF_RATIO = 0.5;
+	private static final double LATENCY_BACKOFF_RATIO = 0.9;
+	private static final double LATENCY_TOLERANCE = 2.0;
+	private static final double SHORT_LATENCY_WEIGHT = 0.2;
+	private static final double LONG_LATENCY_WEIGHT = 0.02;
+
+	private int maxLimit;
+	private double limit;
+	private int inFlight = 0;
+	private double shortLatency = -1;
+	private double longLatency = -1;
+	private long lastDecreaseTime = 0;
+
+	/**
+	 * @param maxLimit The maximum limit (greater than 0).
+	 */
+	ConcurrencyLimiter(int maxLimit) {
+
+		setMaxLimit(maxLimit);
+
+		this.limit = Math.min(INITIAL_LIMIT, maxLimit);
+	}
+
+	public synchronized void setMaxLimit(int maxLimit) {
+
+		if(maxLimit < 1){
+			throw new IllegalArgumentException("Invalid maximum limit: " + maxLimit); //$NON-NLS-1$
+		}
+
+		this.maxLimit = maxLimit;
+		this.limit = Math.min(limit, maxLimit);
+
+		notifyAll();
+	}
+
+	/**
+	 * @return The current limit of the number of in-flight requests.
+	 */
+	public synchronized int getLimit() {
+		return ((int)(limit));
+	}
+
+	/**
+	 * <p>Waits until the number of in-flight requests is less than the current limit and starts a request.</p>
+	 */
+	public synchronized void acquire() throws InterruptedIOException {
+
+		try {
+
+			while(inFlight >= ((int)(limit))){
+				wait();
+			}
+		}
+		catch (InterruptedException e) {
+
+			Thread.currentThread().interrupt();
+
+			throw new InterruptedIOException("Interrupted while waiting to send the request"); //$NON-NLS-1$
+		}
+
+		inFlight++;
+	}
+
+	/**
+	 * <p>Completes a request started by {@link #acquire()} and adapts the limit.</p>
+	 *
+	 * @param latency The latency of the request in nanoseconds.
+	 * @param overloaded <code>true</code> if the server was overloaded (503/429 response or I/O error), otherwise <code>false</code>.
+	 */
+	public synchronized void release(long latency, boolean overloaded) {
+
+		//Note: The window was full if this request was the last request allowed by the limit.
+		boolean windowFull = (inFlight >= ((int)(limit)));
+		int previousLimit = ((int)(limit));
+		long now = System.nanoTime();
+
+		inFlight--;
+
+		if(overloaded){
+			decrease(OVERLOAD_BACKOFF_RATIO, now);
+		}
+		else{
+
+			shortLatency = ((shortLatency < 0) ? latency : (((1 - SHORT_LATENCY_WEIGHT) * shortLatency) + (SHORT_LATENCY_WEIGHT * latency)));
+			longLatency = ((longLatency < 0) ? latency : (((1 - LONG_LATENCY_WEIGHT) * longLatency) + (LONG_LATENCY_WEIGHT * latency)));
+
+			if(shortLatency > (longLatency * LATENCY_TOLERANCE)){
+				decrease(LATENCY_BACKOFF_RATIO, now);
+			}
+			else if(windowFull){
+				limit = Math.min(maxLimit, (limit + (1 / limit)));
+			}
+		}
+
+		if(((int)(limit)) != previousLimit){
+			LogUtils.logInfo("Concurrency limit changed from " + previousLimit + " to " + ((int)(limit)) + " in-flight requests"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		}
+
+		notifyAll();
+	}
+
+	/**
+	 * <p>Decreases the limit at most once per (recent) round trip, so a burst of failures from one window of requests decreases the limit once.</p>
+	 */
+	private void decrease(double ratio, long now) {
+
+		if((lastDecreaseTime == 0) || ((now - lastDecreaseTime) > Math.max(shortLatency, 0))){
+
+			limit = Math.max(MIN_LIMIT, (limit * ratio));
+
+			lastDecreaseTime = now;
+		}
+	}
+}
@@ -0,0 +1,164 @@
+/*******************************************************************************
+ * Licensed Materials - Property of IBM
+ * © Copyright IBM Corporation 2011, 2020. All Rights Reserved.
+ *
+ * U.S. Government Users Restricted Rights:
+ * Use, duplication or disclosure restricted by GSA ADP Schedule
+ * Contract with IBM Corp.
+ ******************************************************************************/
+package com.ibm.rqm.api.internal.client;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+import org.apache.commons.httpclient.methods.multipart.PartSource;
+
+/**
+ * <p>Multipart part source streaming the content of a file channel, without holding the content in memory.</p>
+ *
+ * <p>The part source is repeatable: each stream reads the content from the start of the file using positional
+ * reads (the position of the channel is not changed), so the part source is reused when the request is retried
+ * or replayed.  Large files are memory-mapped once and shared by all streams.</p>
+ *
+ * <p>Note: The channel must remain open while the part source is used.</p>
+ *
+ *
+ * @version 1.0
+ * @since   1.0
+ */
+final class FileChannelPartSource implements PartSource {
+
+	/**
+	 * <p>Minimum length of the content that is memory-mapped.</p>
+	 */
+	private static final long MIN_MAPPED_LENGTH = 1048576; //1 MB
+
+	private final String fileName;
+	private final FileChannel channel;
+	private final long length;
+	private MappedByteBuffer mappedContent = null;
+
+	FileChannelPartSource(String fileName, FileChannel channel) throws IOException {
+
+		this.fileName = fileName;
+		this.channel = channel;
+		this.length = channel.size();
+	}
+
+	@Override
+	public long getLength() {
+		return length;
+	}
+
+	@Override
+	public String getFileName() {
+		return fileName;
+	}
+
+	@Override
+	public InputStream createInputStream() throws IOException {
+
+		if((length >= MIN_MAPPED_LENGTH) && (length <= Integer.MAX_VALUE)){
+			return (new ByteBufferInputStream(getMappedContent()));
+		}
+
+		return (new ChannelInputStream(channel, length));
+	}
+
+	/**
+	 * @return A new view of the memory-mapped content, positioned at the start of the content.
+	 */
+	private synchronized ByteBuffer getMappedContent() throws IOException {
+
+		if(mappedContent == null){
+			mappedContent = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+		}
+
+		return (mappedContent.duplicate());
+	}
+
+	/**
+	 * <p>Stream reading a byte buffer.</p>
+	 */
+	private static final class ByteBufferInputStream extends InputStream {
+
+		private final ByteBuffer buffer;
+
+		private ByteBufferInputStream(ByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+
+		@Override
+		public int read() {
+			return (buffer.hasRemaining() ? (buffer.get() & 0xFF) : -1);
+		}
+
+		@Override
+		public int read(byte[] bytes, int offset, int count) {
+
+			if(count == 0){
+				return 0;
+			}
+
+			if(!buffer.hasRemaining()){
+				return -1;
+			}
+
+			int read = Math.min(count, buffer.remaining());
+
+			buffer.get(bytes, offset, read);
+
+			return read;
+		}
+
+		@Override
+		public int available() {
+			return (buffer.remaining());
+		}
+	}
+
+	/**
+	 * <p>Stream reading a file channel using positional reads, from the start of the file up to a length.</p>
+	 */
+	private static final class ChannelInputStream extends InputStream {
+
+		private final FileChannel channel;
+		private final long length;
+		private final byte[] singleByte = new byte[1];
+		private long position = 0;
+
+		private ChannelInputStream(FileChannel channel, long length) {
+
+			this.channel = channel;
+			this.length = length;
+		}
+
+		@Override
+		public int read() throws IOException {
+			return ((read(singleByte, 0, 1) == -1) ? -1 : (singleByte[0] & 0xFF));
+		}
+
+		@Override
+		public int read(byte[] bytes, int offset, int count) throws IOException {
+
+			if(count == 0){
+				return 0;
+			}
+
+			if(position >= length){
+				return -1;
+			}
+
+			int read = channel.read(ByteBuffer.wrap(bytes, offset, (int)(Math.min(count, (length - position)))), position);
+
+			if(read > 0){
+				position += read;
+			}
+
+			return read;
+		}
+	}
+}
@@ -0,0 +1,76 @@
+/*******************************************************************************
+ * Licensed Materials - Property of IBM
+ * © Copyright IBM Corporation 2011, 2020. All Rights Reserved.
+ *
+ * U.S. Government Users Restricted Rights:
+ * Use, duplication or disclosure restricted by GSA ADP Schedule
+ * Contract with IBM Corp.
+ ******************************************************************************/
+package com.ibm.rqm.api.internal.client;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.commons.httpclient.methods.RequestEntity;
+
+import com.ibm.rqm.api.internal.util.IAPIConstants;
+
+/**
+ * <p>Request entity with content compressed in the gzip format (see {@link IAPIConstants#ENCODING_GZIP}).</p>
+ *
+ * <p>The content is compressed once when the entity is created, so the entity is repeatable
+ * (for example, when the request is retried) and has a known content length.</p>
+ *
+ *
+ * @version 1.0
+ * @since   1.0
+ */
+final class GzipRequestEntity implements RequestEntity, IAPIConstants {
+
+	private final byte[] compressedContent;
+	private final String contentType;
+
+	/**
+	 * @param content The uncompressed content.
+	 * @param contentType The media type of the content (without a charset).
+	 * @param charset The charset of the content.
+	 */
+	GzipRequestEntity(String content, String contentType, String charset) throws IOException {
+
+		ByteArrayOutputStream compressedContentStream = new ByteArrayOutputStream(Math.max(32, (content.length() / 4)));
+		GZIPOutputStream gzipOutputStream = new GZIPOutputStream(compressedContentStream);
+
+		try {
+			gzipOutputStream.write(content.getBytes(charset));
+		}
+		finally {
+			gzipOutputStream.close();
+		}
+
+		this.compressedContent = compressedContentStream.toByteArray();
+		this.contentType = ((contentType != null) ? (contentType + "; charset=" + charset) : null); //$NON-NLS-1$
+	}
+
+	@Override
+	public boolean isRepeatable() {
+		return true;
+	}
+
+	@Override
+	public void writeRequest(OutputStream out) throws IOException {
+		out.write(compressedContent);
+		out.flush();
+	}
+
+	@Override
+	public long getContentLength() {
+		return compressedContent.length;
+	}
+
+	@Override
+	public String getContentType() {
+		return contentType;
+	}
+}
@@ -8,45 +8,78 @@
  ******************************************************************************/
 package com.ibm.rqm.api.internal.client;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PushbackInputStream;
+import java.io.Reader;
 import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.security.GeneralSecurityException;
-import java.text.MessageFormat;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
 
 import org.apache.commons.httpclient.Header;
 import org.apache.commons.httpclient.HostConfiguration;
 import org.apache.commons.httpclient.HttpClient;
-import org.apache.commons.httpclient.HttpException;
 import org.apache.commons.httpclient.HttpMethod;
 import org.apache.commons.httpclient.HttpMethodBase;
 import org.apache.commons.httpclient.HttpStatus;
+import org.apache.commons.httpclient.MultiThreadedHttpConnectionManager;
 import org.apache.commons.httpclient.NameValuePair;
+import org.apache.commons.httpclient.URIException;
 import org.apache.commons.httpclient.UsernamePasswordCredentials;
 import org.apache.commons.httpclient.auth.AuthScope;
 import org.apache.commons.httpclient.methods.DeleteMethod;
+import org.apache.commons.httpclient.methods.EntityEnclosingMethod;
 import org.apache.commons.httpclient.methods.GetMethod;
 import org.apache.commons.httpclient.methods.HeadMethod;
 import org.apache.commons.httpclient.methods.PostMethod;
 import org.apache.commons.httpclient.methods.PutMethod;
+import org.apache.commons.httpclient.methods.RequestEntity;
 import org.apache.commons.httpclient.methods.StringRequestEntity;
 import org.apache.commons.httpclient.methods.multipart.ByteArrayPartSource;
 import org.apache.commons.httpclient.methods.multipart.FilePart;
 import org.apache.commons.httpclient.methods.multipart.MultipartRequestEntity;
 import org.apache.commons.httpclient.methods.multipart.Part;
+import org.apache.commons.httpclient.methods.multipart.PartSource;
+import org.apache.commons.httpclient.params.HttpConnectionManagerParams;
 import org.apache.commons.httpclient.protocol.Protocol;
+import org.apache.commons.httpclient.util.IdleConnectionTimeoutThread;
+import org.apache.commons.httpclient.util.URIUtil;
 
 import com.ibm.rqm.api.internal.util.APIUtils;
 import com.ibm.rqm.api.internal.util.IAPIConstants;
 import com.ibm.rqm.api.internal.util.LogUtils;
+import com.ibm.rqm.api.internal.util.XMLCharacterScrubbingReader;
+import com.ibm.rqm.api.internal.util.XMLContentHash;
 
 /**
  * <p>Jazz HTTP client.</p>
  * 
+ * <p>Requests are executed over a pool of connections that is shared by all threads using the 
+ * client (see {@link #setMaxConnections(int)}), so that one authenticated session can be used 
+ * by concurrent workers.</p>
+ * 
+ * <p>Compressed (gzip/deflate) responses are negotiated for all requests and decompressed as the 
+ * response body is read.  Request bodies are optionally compressed (see {@link #setCompressRequests(boolean)}).</p>
+ * 
  *  
  * @author  Paul Slauenwhite
  * @version 1.0
@@ -59,10 +92,53 @@ public abstract class JazzHttpClient extends HttpClient implements IAPIConstants
 	private URL serverUrl;
 	private boolean isInitialized = false;
 	// Adding configContext as an optional parameter to handle configurations (starting from 6.0.x version)
-	private String configContext = null;
+	private volatile String configContext = null;
+
+	private final MultiThreadedHttpConnectionManager connectionManager;
+	private volatile boolean compressRequests = false;
+	private final ReentrantReadWriteLock sessionLock = new ReentrantReadWriteLock(true);
+	private volatile long sessionGeneration = 0;
+	private volatile long sessionStartTime = 0;
+	private volatile long sessionRefreshInterval = DEFAULT_SESSION_REFRESH_INTERVAL;
+	private volatile int loginFailures = 0;
+	private volatile long nextLoginTime = 0;
+	private volatile SessionStore sessionStore = null;
+	private volatile CacheDirectory cacheDirectory = null;
+	private volatile ResponseCache responseCache = null;
+	private final ReadCoalescer readCoalescer = new ReadCoalescer(ReadCoalescer.DEFAULT_MAX_MEMO_SIZE);
+
+	/**
+	 * <p>Entity tags of the resources read (see {@link #get(String, String)}) keyed by resource URI, for conditional 
+	 * updates (see {@link #put(String, String, String, ResourceEditor)}).  The least recently used entity tags are 
+	 * discarded.</p>
+	 */
+	@SuppressWarnings("serial")
+	private final Map<String, String> entityTags = Collections.synchronizedMap(new LinkedHashMap<String, String>(16, 0.75f, true) {
 
-	private static final int MAX_RETRIES = 2;
-	private static final int RETRY_DELAY = 3000; //3 seconds
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+			return (size() > MAX_ENTITY_TAGS);
+		}
+	});
+	private volatile ConcurrencyLimiter concurrencyLimiter = null;
+	private volatile RateLimiter rateLimiter = null;
+	private volatile RetryPolicy retryPolicy = new RetryPolicy(RetryPolicy.DEFAULT_MAX_ATTEMPTS, RetryPolicy.DEFAULT_RETRY_BUDGET);
+	private final IdleConnectionTimeoutThread idleConnectionTimeoutThread;
+
+	public static final int DEFAULT_MAX_CONNECTIONS = 8;
+	private static final long CONNECTION_LEASE_TIMEOUT = 120000; //2 minutes
+	private static final long IDLE_CONNECTION_TIMEOUT = 30000; //30 seconds
+	private static final long IDLE_CONNECTION_CHECK_INTERVAL = 5000; //5 seconds
+	private static final int MAX_REPLAYS = 2;
+	private static final int MAX_ENTITY_TAGS = 10000;
+	private static final int MAX_CONFLICT_RETRIES = 5;
+	public static final long DEFAULT_SESSION_REFRESH_INTERVAL = 1500000; //25 minutes
+	private static final long MIN_LOGIN_BACKOFF = 15000; //15 seconds
+	private static final long MAX_LOGIN_BACKOFF = 600000; //10 minutes
+	private static final int MIN_COMPRESSED_REQUEST_LENGTH = 1024; //1 KB
+	private static final int DECOMPRESSION_BUFFER_SIZE = 32768; //32 KB
+	private static final int TRANSFER_BUFFER_SIZE = 65536; //64 KB
+	private static final String ACCEPT_ENCODING = (ENCODING_GZIP + ", " + ENCODING_DEFLATE); //$NON-NLS-1$
 	private final static String JAZZ_LOGOUT_URL = "service/com.ibm.team.repository.service.internal.ILogoutRestService"; //$NON-NLS-1$
 
 	public abstract Map<String, String> getRequestHeaders();
@@ -72,20 +148,281 @@ public abstract class JazzHttpClient extends HttpClient implements IAPIConstants
 	 * @throws MalformedURLException
 	 */
 	protected JazzHttpClient(URL serverUrl){
+		this(serverUrl, new MultiThreadedHttpConnectionManager());
+	}
+
+	private JazzHttpClient(URL serverUrl, MultiThreadedHttpConnectionManager connectionManager){
 
-		super();
+		super(connectionManager);
 
 		this.serverUrl = serverUrl;
+		this.connectionManager = connectionManager;
 
 		getParams().setParameter(HTTP_HEADER_SINGLE_COOKIE_HEADER, true);
+
+		//Fail (instead of blocking indefinitely) when a connection cannot be leased from the pool:
+		getParams().setConnectionManagerTimeout(CONNECTION_LEASE_TIMEOUT);
+
+		setMaxConnections(DEFAULT_MAX_CONNECTIONS);
+
+		//Close pooled connections that have been idle too long (e.g. closed by the server or a proxy):
+		idleConnectionTimeoutThread = new IdleConnectionTimeoutThread();
+		idleConnectionTimeoutThread.setName("JazzHttpClient idle connection monitor"); //$NON-NLS-1$
+		idleConnectionTimeoutThread.setDaemon(true);
+		idleConnectionTimeoutThread.setConnectionTimeout(IDLE_CONNECTION_TIMEOUT);
+		idleConnectionTimeoutThread.setTimeoutInterval(IDLE_CONNECTION_CHECK_INTERVAL);
+		idleConnectionTimeoutThread.addConnectionManager(connectionManager);
+		idleConnectionTimeoutThread.start();
+	}
+
+	/**
+	 * <p>Sets the maximum number of pooled connections to the server.</p>
+	 * 
+	 * <p>The total number of connections (all hosts) is twice the per-host limit to allow 
+	 * authentication redirects to a separate Jazz Team Server.</p>
+	 * 
+	 * @param maxConnections The maximum number of connections per host (greater than 0).
+	 */
+	public void setMaxConnections(int maxConnections){
+
+		if(maxConnections < 1){
+			throw new IllegalArgumentException("Invalid maximum number of connections: " + maxConnections); //$NON-NLS-1$
+		}
+
+		HttpConnectionManagerParams connectionManagerParams = connectionManager.getParams();
+		connectionManagerParams.setDefaultMaxConnectionsPerHost(maxConnections);
+		connectionManagerParams.setMaxTotalConnections(maxConnections * 2);
+
+		ConcurrencyLimiter concurrencyLimiter = this.concurrencyLimiter;
+
+		if(concurrencyLimiter != null){
+			concurrencyLimiter.setMaxLimit(maxConnections);
+		}
+	}
+
+	public int getMaxConnections(){
+		return (connectionManager.getParams().getDefaultMaxConnectionsPerHost());
+	}
+
+	/**
+	 * <p>Sets if request bodies (PUT/POST) are compressed in the gzip format.</p>
+	 * 
+	 * <p>Compression is turned off for the remaining requests when the server rejects a compressed 
+	 * request body (see {@link HttpStatus#SC_UNSUPPORTED_MEDIA_TYPE}), and the request is resent uncompressed.</p>
+	 * 
+	 * @param compressRequests <code>true</code> if request bodies are compressed, otherwise <code>false</code>.
+	 */
+	public void setCompressRequests(boolean compressRequests){
+		this.compressRequests = compressRequests;
+	}
+
+	public boolean isCompressRequests(){
+		return compressRequests;
+	}
+
+	/**
+	 * <p>Sets if the number of in-flight requests is adapted to the server load (see {@link ConcurrencyLimiter}), 
+	 * up to the maximum number of connections (see {@link #setMaxConnections(int)}).</p>
+	 * 
+	 * @param adaptiveConcurrency <code>true</code> if the number of in-flight requests is adapted, otherwise <code>false</code>.
+	 */
+	public void setAdaptiveConcurrency(boolean adaptiveConcurrency){
+		concurrencyLimiter = (adaptiveConcurrency ? new ConcurrencyLimiter(getMaxConnections()) : null);
+	}
+
+	/**
+	 * @return The current limit of the number of in-flight requests.
+	 */
+	public int getConcurrencyLimit(){
+
+		ConcurrencyLimiter concurrencyLimiter = this.concurrencyLimiter;
+
+		return ((concurrencyLimiter != null) ? concurrencyLimiter.getLimit() : getMaxConnections());
+	}
+
+	/**
+	 * <p>Sets the limits of the rate of requests (see {@link RateLimiter}).</p>
+	 * 
+	 * @param readRate The rate of read (GET/HEAD) requests per second, otherwise 0 for unlimited.
+	 * @param writeRate The rate of write (PUT/POST/DELETE) requests per second, otherwise 0 for unlimited.
+	 * @param rateProfiles The time-of-day rate profiles (see {@link RateLimiter#parseRateProfiles(String)}), otherwise <code>null</code>.
+	 * @throws IllegalArgumentException The rates or rate profiles are invalid.
+	 */
+	public void setRateLimits(double readRate, double writeRate, String rateProfiles){
+
+		if((readRate == RateLimiter.UNLIMITED) && (writeRate == RateLimiter.UNLIMITED) && ((rateProfiles == null) || (rateProfiles.trim().isEmpty()))){
+			rateLimiter = null;
+		}
+		else{
+			rateLimiter = new RateLimiter(readRate, writeRate, rateProfiles);
+		}
+	}
+
+	/**
+	 * <p>Sets the maximum number of retries of failed requests for the remainder of the run (see {@link RetryPolicy}).</p>
+	 * 
+	 * @param retryBudget The maximum number of retries (0 or greater).
+	 */
+	public void setRetryBudget(int retryBudget){
+		retryPolicy = new RetryPolicy(RetryPolicy.DEFAULT_MAX_ATTEMPTS, retryBudget);
+	}
+
+	/**
+	 * <p>Closes all pooled connections and stops the idle connection monitor.</p>
+	 * 
+	 * <p>Note: The client cannot be used after it is shut down.</p>
+	 */
+	public void shutdown(){
+		idleConnectionTimeoutThread.shutdown();
+		connectionManager.shutdown();
+	}
+
+	/**
+	 * <p>Sets the interval after which the session is refreshed (re-authenticated) before the next request, so long 
+	 * running commands do not fail or stall when the session (for example, the LTPA token) expires.</p>
+	 * 
+	 * @param sessionRefreshInterval The session refresh interval in milliseconds, otherwise <code>0</code> to only re-authenticate when the session expired.
+	 */
+	public void setSessionRefreshInterval(long sessionRefreshInterval){
+
+		if(sessionRefreshInterval < 0){
+			throw new IllegalArgumentException("Invalid session refresh interval: " + sessionRefreshInterval); //$NON-NLS-1$
+		}
+
+		this.sessionRefreshInterval = sessionRefreshInterval;
 	}
 
 	public int relogin() throws IOException {
 		return login();
 	}
 
+	/**
+	 * <p>Sets the local file persisting the session (cookies) after logging in, so later runs can resume the 
+	 * session (see {@link #resumeSession(String, String)}) instead of logging in.</p>
+	 * 
+	 * <p>Note: The persisted session is not logged out (see {@link #isSessionPersisted()}).</p>
+	 * 
+	 * @param sessionFile The session file, otherwise <code>null</code> to not persist the session.
+	 */
+	public void setSessionFile(Path sessionFile){
+		sessionStore = ((sessionFile != null) ? new SessionStore(sessionFile) : null);
+	}
+
+	/**
+	 * @return <code>true</code> if the session is persisted for later runs (see {@link #setSessionFile(Path)}), otherwise <code>false</code>.
+	 */
+	public boolean isSessionPersisted(){
+		return (sessionStore != null);
+	}
+
+	/**
+	 * <p>Sets the local directory caching content between runs (see {@link #readCache(String, long)}).</p>
+	 * 
+	 * <p>Resources read (see {@link #get(String, String)}) with validators (entity tag or last modified date) are 
+	 * cached, so later reads are conditional and unchanged resources are read from the cache.</p>
+	 * 
+	 * @param cacheDirectory The cache directory (created if it does not exist), otherwise <code>null</code> to not cache content between runs.
+	 * @throws IOException The cache directory cannot be created.
+	 */
+	public void setCacheDirectory(Path cacheDirectory) throws IOException{
+		CacheDirectory directory = ((cacheDirectory != null) ? new CacheDirectory(cacheDirectory) : null);
+
+		this.cacheDirectory = directory;
+		this.responseCache = ((directory != null) ? new ResponseCache(directory) : null);
+	}
+
+	/**
+	 * <p>Reads content cached by this or a previous run (see {@link #setCacheDirectory(Path)}).</p>
+	 * 
+	 * @param key The key of the content.
+	 * @param timeToLive The time (milliseconds) the content is valid after it is cached, otherwise <code>-1</code> if the content does not expire.
+	 * @return The cached content, otherwise <code>null</code> if the content is not cached, expired, or there is no cache directory.
+	 */
+	protected String readCache(String key, long timeToLive){
+
+		CacheDirectory cacheDirectory = this.cacheDirectory;
+
+		return ((cacheDirectory != null) ? cacheDirectory.read(key, timeToLive) : null);
+	}
+
+	/**
+	 * <p>Caches content for this and later runs, if there is a cache directory (see {@link #setCacheDirectory(Path)}).</p>
+	 */
+	protected void writeCache(String key, String content){
+
+		CacheDirectory cacheDirectory = this.cacheDirectory;
+
+		if(cacheDirectory != null){
+			cacheDirectory.write(key, content);
+		}
+	}
+
+	/**
+	 * <p>Resumes the session persisted by a previous run (see {@link #setSessionFile(Path)}).</p>
+	 * 
+	 * <p>The persisted session is validated with one request.  When the persisted session is stale, the 
+	 * session file is deleted and the caller must log in (see {@link #login(String, String)}).</p>
+	 * 
+	 * @return <code>true</code> if the persisted session was resumed, otherwise <code>false</code>.
+	 */
+	protected boolean resumeSession(String user, String password) throws IOException {
+
+		initialize(user, password);
+
+		SessionStore sessionStore = this.sessionStore;
+
+		if (sessionStore == null) {
+			return false;
+		}
+
+		SessionStore.Session session = sessionStore.read(getServerUrl(), user);
+
+		if (session == null) {
+			return false;
+		}
+
+		getState().addCookies(session.getCookies());
+
+		GetMethod get = new GetMethod(getServerUrl() + "authenticated/identity"); //$NON-NLS-1$
+
+		try{
+
+			fixMethodHeader(get);
+
+			int responseCode = executeMethod(get);
+
+			if ((responseCode == HttpStatus.SC_OK) && (!isAuthenticationRequired(get))) {
+
+				LogUtils.logInfo("Resumed the session persisted in the session file"); //$NON-NLS-1$
+
+				sessionStartTime = session.getLoginTime();
+				sessionGeneration++;
+
+				return true;
+			}
+		}
+		finally{
+			get.releaseConnection();
+		}
+
+		LogUtils.logInfo("Session persisted in the session file is stale, login required"); //$NON-NLS-1$
+
+		getState().clearCookies();
+
+		sessionStore.delete();
+
+		return false;
+	}
+
 	protected int login(String user, String password) throws IOException {	    
 
+		initialize(user, password);
+
+		return login();
+	}
+
+	private void initialize(String user, String password) throws IOException {	    
+
 		this.username = user;
 		this.password = password;
 
@@ -100,8 +437,6 @@ public abstract class JazzHttpClient extends HttpClient implements IAPIConstants
 
 			isInitialized = true;
 		}
-
-		return login();
 	}
 
 	protected int login() throws IOException {
@@ -128,6 +463,7 @@ public abstract class JazzHttpClient extends HttpClient implements IAPIConstants
 
 			authenticationMethod = new GetMethod(getServerUrl() + "/authenticated/identity"); //$NON-NLS-1$
 			responseCode = super.executeMethod(get2); 	
+			get2.releaseConnection();
 		}
 		
 		//Configure the HTTP client for form authentication:
@@ -153,7 +489,7 @@ public abstract class JazzHttpClient extends HttpClient implements IAPIConstants
 		if ((responseCode != HttpURLConnection.HTTP_OK) && (responseCode != HttpURLConnection.HTTP_MOVED_TEMP)) {
 			String body = ""; //$NON-NLS-1$
 			try {
-				body = authenticationMethod.getResponseBodyAsString();
+				body = getResponseBodyAsString(authenticationMethod);
 			} catch(Exception e) {
 
 			}
@@ -169,6 +505,21 @@ public abstract class JazzHttpClient extends HttpClient implements IAPIConstants
 
 		authenticationMethod.releaseConnection();
 
+		//Note: A failed login does not start a new session, so requests that observed the expired session re-authenticate.
+		if ((responseCode == HttpURLConnection.HTTP_OK) || (responseCode == HttpURLConnection.HTTP_MOVED_TEMP)) {
+
+			sessionStartTime = System.currentTimeMillis();
+			sessionGeneration++;
+			loginFailures = 0;
+			nextLoginTime = 0;
+
+			SessionStore sessionStore = this.sessionStore;
+
+			if (sessionStore != null) {
+				sessionStore.write(getServerUrl(), username, sessionStartTime, getState().getCookies());
+			}
+		}
+
 		return responseCode;
 	}
 	
@@ -191,12 +542,14 @@ public abstract class JazzHttpClient extends HttpClient implements IAPIConstants
 		int responseCode = 0;;
 		try {
 			responseCode = executeMethod(authenticationMethod);
-			body = authenticationMethod.getResponseBodyAsString();
+			body = getResponseBodyAsString(authenticationMethod);
 			status = authenticationMethod.getStatusText();
 		} catch (Exception e) {
 			LogUtils.logError("Log out error (response code) - " + responseCode + LINE_SEPARATOR + //$NON-NLS-1$
 					"Status Code:" + status + LINE_SEPARATOR +  //$NON-NLS-1$
 					"Response Body: " + body); //$NON-NLS-1$
+		} finally {
+			authenticationMethod.releaseConnection();
 		}
 		
 		return responseCode;
@@ -214,11 +567,146 @@ public abstract class JazzHttpClient extends HttpClient implements IAPIConstants
 		
 		Map<String, String> requestHeaders = getRequestHeaders();
 			
+		//Note: Request headers set when creating the method (for example, the accepted media type) are not replaced.
 		for(String name : requestHeaders.keySet()){
-			method.setRequestHeader(name, requestHeaders.get(name));			
+
+			if(method.getRequestHeader(name) == null){
+				method.setRequestHeader(name, requestHeaders.get(name));
+			}
+		}
+		
+		if(method.getRequestHeader(HTTP_HEADER_ACCEPT_ENCODING) == null){
+			method.setRequestHeader(HTTP_HEADER_ACCEPT_ENCODING, ACCEPT_ENCODING);
 		}
     }
 
+	/**
+	 * <p>Resolves the response body of a method, decompressing the response body as it is read when 
+	 * the response is compressed (see {@link #HTTP_HEADER_CONTENT_ENCODING}).</p>
+	 * 
+	 * @param method The executed method.
+	 * @return The (decompressed) response body, otherwise <code>null</code> if the response has no body.
+	 */
+	protected static InputStream getResponseBodyAsStream(HttpMethod method) throws IOException {
+
+		InputStream responseBody = method.getResponseBodyAsStream();
+
+		if(responseBody != null){
+
+			Header contentEncodingHeader = method.getResponseHeader(HTTP_HEADER_CONTENT_ENCODING);
+
+			if(contentEncodingHeader != null){
+
+				String contentEncoding = contentEncodingHeader.getValue().trim().toLowerCase();
+
+				if((ENCODING_GZIP.equals(contentEncoding)) || (("x-" + ENCODING_GZIP).equals(contentEncoding)) || (ENCODING_DEFLATE.equals(contentEncoding))){ //$NON-NLS-1$
+
+					PushbackInputStream compressedResponseBody = new PushbackInputStream(responseBody, 2);
+
+					int firstByte = compressedResponseBody.read();
+					int secondByte = compressedResponseBody.read();
+
+					//Empty response body:
+					if(firstByte == -1){
+						return compressedResponseBody;
+					}
+
+					if(secondByte != -1){
+						compressedResponseBody.unread(secondByte);
+					}
+
+					compressedResponseBody.unread(firstByte);
+
+					if(ENCODING_DEFLATE.equals(contentEncoding)){
+
+						//Note: Some servers send raw deflate data instead of zlib-wrapped deflate data (RFC 1950).
+						boolean zlibWrapped = (((firstByte & 0x0F) == 8) && (secondByte != -1) && ((((firstByte << 8) | secondByte) % 31) == 0));
+
+						return (new InflaterInputStream(compressedResponseBody, new Inflater(!zlibWrapped), DECOMPRESSION_BUFFER_SIZE));
+					}
+
+					return (new GZIPInputStream(compressedResponseBody, DECOMPRESSION_BUFFER_SIZE));
+				}
+			}
+		}
+
+		return responseBody;
+	}
+
+	/**
+	 * <p>Resolves the response body of a method as a string, decompressing the response body when 
+	 * the response is compressed (see {@link #getResponseBodyAsStream(HttpMethod)}).</p>
+	 * 
+	 * @param method The executed method.
+	 * @return The (decompressed) response body, otherwise <code>null</code> if the response has no body.
+	 */
+	protected static String getResponseBodyAsString(HttpMethodBase method) throws IOException {
+
+		InputStream responseBody = getResponseBodyAsStream(method);
+
+		if(responseBody == null){
+			return null;
+		}
+
+		ByteArrayOutputStream responseBytes = new ByteArrayOutputStream();
+
+		try {
+
+			byte[] buffer = new byte[DECOMPRESSION_BUFFER_SIZE];
+			int read;
+
+			while((read = responseBody.read(buffer)) != -1){
+				responseBytes.write(buffer, 0, read);
+			}
+		}
+		finally {
+			responseBody.close();
+		}
+
+		return (responseBytes.toString(method.getResponseCharSet()));
+	}
+
+	/**
+	 * <p>Creates the request entity for a request body, compressed when request bodies are compressed 
+	 * (see {@link #setCompressRequests(boolean)}) and the request body is large enough to benefit.</p>
+	 */
+	private RequestEntity createRequestEntity(String content, String contentType) throws IOException {
+
+		if((compressRequests) && (content != null) && (content.length() >= MIN_COMPRESSED_REQUEST_LENGTH)){
+			return (new GzipRequestEntity(content, contentType, ENCODING_UTF8));
+		}
+
+		return (new StringRequestEntity(content, contentType, ENCODING_UTF8));
+	}
+
+	private static void setRequestEntity(EntityEnclosingMethod method, RequestEntity requestEntity) {
+
+		method.setRequestEntity(requestEntity);
+
+		if(requestEntity instanceof GzipRequestEntity){
+			method.setRequestHeader(HTTP_HEADER_CONTENT_ENCODING, ENCODING_GZIP);
+		}
+	}
+
+	/**
+	 * <p>Determines if the server rejected a compressed request body, and if so, turns off compressing request bodies.</p>
+	 * 
+	 * @return <code>true</code> if the server rejected a compressed request body and the request must be resent uncompressed, otherwise <code>false</code>.
+	 */
+	private boolean isCompressedRequestRejected(EntityEnclosingMethod method) {
+
+		if((method.getRequestEntity() instanceof GzipRequestEntity) && (method.getStatusCode() == HttpStatus.SC_UNSUPPORTED_MEDIA_TYPE)){
+
+			LogUtils.logInfo("Compressed request body rejected by the server, sending uncompressed request bodies"); //$NON-NLS-1$
+
+			compressRequests = false;
+
+			return true;
+		}
+
+		return false;
+	}
+
 	private void followRedirects(HttpMethodBase method, int responseCode) throws IOException {
 		Header location = method.getResponseHeader(HTTP_HEADER_LOCATION);
 		while (location != null && responseCode == HttpURLConnection.HTTP_MOVED_TEMP) {
@@ -236,98 +724,305 @@ public abstract class JazzHttpClient extends HttpClient implements IAPIConstants
 		} 		
 	}
 
-	private int retryableMethodExecution(HttpMethod m) throws IOException, HttpException {
-		int retCode = -1;
-		for (int currentTry = 0; currentTry < MAX_RETRIES; currentTry++) {
+	/**
+	 * <p>Executes a method, retrying transient failures (see {@link RetryPolicy}).</p>
+	 * 
+	 * <p>Note: The backoff between attempts is outside of the session lock, so a re-authentication is not blocked by 
+	 * requests waiting to retry.</p>
+	 * 
+	 * @return The session generation of the last attempt.
+	 * @throws IOException The I/O error of the last attempt.
+	 */
+	private long retryableMethodExecution(HttpMethod m) throws IOException {
+		RetryPolicy retryPolicy = this.retryPolicy;
+		for (int attempt = 1; ; attempt++) {
 			try {
-				retCode = executeMethod(m);
+				long sessionGeneration = limitedMethodExecution(m);
 
-				if (m.getStatusCode() < 400) {
-					break;
+				if ((!retryPolicy.isRetryable(m)) || (!retryPolicy.acquireRetry(attempt))) {
+					return sessionGeneration;
 				} 
+				LogUtils.logInfo("Error received: " + m.getStatusCode() + ", retry #: " + attempt); //$NON-NLS-1$ //$NON-NLS-2$
 			} catch (IOException e) {
-				LogUtils.logInfo(e.toString());
-			}
-			LogUtils.logInfo("Error received: " + m.getStatusCode() + ", retry #: " + currentTry); //$NON-NLS-1$ //$NON-NLS-2$
-			try {
-				Thread.sleep(RETRY_DELAY);
-			} catch (InterruptedException e) {
-				// no-op
+				if (!retryPolicy.acquireRetry(attempt)) {
+					throw e;
+				}
+				LogUtils.logInfo(e.toString() + ", retry #: " + attempt); //$NON-NLS-1$
 			}
+			long retryDelay = retryPolicy.getRetryDelay(attempt, m);
+			m.releaseConnection();
+			retryPolicy.sleep(retryDelay);
 		}
-		return retCode;
 	}
 
-	private boolean checkForRelogin(HttpMethod m) throws IOException {
-		boolean relogin = false;
-		Header h = m.getResponseHeader(HTTP_HEADER_AUTHENTICATION);
-		if (h != null && h.getValue() != null && h.getValue().equals(HTTP_HEADER_VALUE_AUTHENTICATION_REQUIRED)) {
-			LogUtils.logInfo("Authentication expired, relogin required"); //$NON-NLS-1$
-			relogin();
-			relogin = true;
+	/**
+	 * <p>Executes a method within the limits of the rate of requests (see {@link #setRateLimits(double, double, String)}) 
+	 * and the adaptive limit of in-flight requests (see {@link #setAdaptiveConcurrency(boolean)}).</p>
+	 * 
+	 * <p>Note: The limits are acquired outside of the session lock.</p>
+	 * 
+	 * @return The session generation of the request.
+	 */
+	private long limitedMethodExecution(HttpMethod m) throws IOException {
+		RateLimiter rateLimiter = this.rateLimiter;
+		if (rateLimiter != null) {
+			rateLimiter.acquire(m);
+		}
+		ConcurrencyLimiter concurrencyLimiter = this.concurrencyLimiter;
+		if (concurrencyLimiter == null) {
+			return sessionMethodExecution(m);
+		}
+		concurrencyLimiter.acquire();
+		long startTime = System.nanoTime();
+		boolean overloaded = true;
+		try {
+			long sessionGeneration = sessionMethodExecution(m);
+			overloaded = ((m.getStatusCode() == HttpStatus.SC_SERVICE_UNAVAILABLE) || (m.getStatusCode() == RetryPolicy.SC_TOO_MANY_REQUESTS));
+			return sessionGeneration;
+		} finally {
+			concurrencyLimiter.release((System.nanoTime() - startTime), overloaded);
 		}
-		return relogin;
 	}
 
-	public int delete(String uri) throws IOException{
-		return (delete(uri, null));
-	}
+	/**
+	 * <p>Executes a method in the current session, that is, holding the session read lock so the method is not 
+	 * executed while re-authenticating (see {@link #reauthenticate(long, String, boolean)}).</p>
+	 * 
+	 * @return The session generation of the request.
+	 */
+	private long sessionMethodExecution(HttpMethod m) throws IOException {
 
-	public int delete(String uri, String queryString) throws IOException{
+		sessionLock.readLock().lock();
 
-		DeleteMethod delete = new DeleteMethod(uri);
+		try {
 
-		if(queryString != null){
-			delete.setQueryString(queryString);
-		}
+			long sessionGeneration = this.sessionGeneration;
 
-		try{
+			executeMethod(m);
 
-			fixMethodHeader(delete);
-			retryableMethodExecution(delete);
-			if (checkForRelogin(delete)) {
-				delete = new DeleteMethod(uri);
-				fixMethodHeader(delete);
-				retryableMethodExecution(delete);
-				if (checkForRelogin(delete)) {
-					delete = new DeleteMethod(uri);
-					fixMethodHeader(delete);
-					retryableMethodExecution(delete);
-				}    
-			}  
-			return (delete.getStatusCode());
+			return sessionGeneration;
 		}
-		finally{
-			delete.releaseConnection();
+		finally {
+			sessionLock.readLock().unlock();
 		}
 	}
-	
-	public int head(String uri) throws IOException {
-		return (head(uri, null));
-	}
-	
-	public int head(String uri, String queryString) throws IOException{
 
-		HeadMethod head = new HeadMethod(uri);
+	/**
+	 * <p>Determines if the session expired and the request must be replayed after re-authenticating.</p>
+	 */
+	private static boolean isAuthenticationRequired(HttpMethod m) {
+		Header h = m.getResponseHeader(HTTP_HEADER_AUTHENTICATION);
+		return ((h != null) && (HTTP_HEADER_VALUE_AUTHENTICATION_REQUIRED.equals(h.getValue())));
+	}
+
+	/**
+	 * <p>Re-authenticates once for all requests that observed an expired session in the same session.</p>
+	 * 
+	 * <p>Requests waiting for (parked behind) the re-authentication are executed in the new session.  Requests 
+	 * that observed the expired session before the re-authentication completed do not re-authenticate again.</p>
+	 * 
+	 * <p>When re-authenticating fails, the next re-authentication is delayed by an exponential backoff (see 
+	 * {@link #isLoginBackoffElapsed()}), so requests do not each log in again while the server rejects the login.  
+	 * When refreshing the session fails, the failure is logged and the request continues in the current session.</p>
+	 * 
+	 * @param sessionGeneration The session generation observed by the request.
+	 * @param reason The reason for re-authenticating (logged).
+	 * @param refresh <code>true</code> if the (unexpired) session is refreshed, otherwise <code>false</code>.
+	 */
+	private void reauthenticate(long sessionGeneration, String reason, boolean refresh) throws IOException {
+
+		sessionLock.writeLock().lock();
+
+		try {
+
+			if ((this.sessionGeneration == sessionGeneration) && (isLoginBackoffElapsed())) {
+
+				LogUtils.logInfo(reason);
+
+				int responseCode = 0;
+
+				try {
+					responseCode = relogin();
+				}
+				catch (IOException e) {
+
+					loginFailed();
+
+					if (!refresh) {
+						throw e;
+					}
+
+					LogUtils.logWarning("Unable to refresh the session, continuing in the current session", e); //$NON-NLS-1$
+
+					return;
+				}
+
+				if ((responseCode != HttpURLConnection.HTTP_OK) && (responseCode != HttpURLConnection.HTTP_MOVED_TEMP)) {
+
+					loginFailed();
+
+					if (refresh) {
+						LogUtils.logWarning("Unable to refresh the session (response code " + responseCode + "), continuing in the current session"); //$NON-NLS-1$ //$NON-NLS-2$
+					}
+				}
+			}
+		}
+		finally {
+			sessionLock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * @return <code>true</code> if the backoff after the last failed login elapsed (or the last login did not fail), otherwise <code>false</code>.
+	 */
+	private boolean isLoginBackoffElapsed() {
+		return (System.currentTimeMillis() >= nextLoginTime);
+	}
+
+	/**
+	 * <p>Records a failed login and delays the next login by an exponential backoff.</p>
+	 */
+	private void loginFailed() {
+
+		int loginFailures = ++this.loginFailures;
+
+		nextLoginTime = (System.currentTimeMillis() + Math.min(MAX_LOGIN_BACKOFF, (MIN_LOGIN_BACKOFF << Math.min((loginFailures - 1), 16))));
+	}
+
+	/**
+	 * <p>Executes a request created by a factory in the current session.</p>
+	 * 
+	 * <p>The session is refreshed before the request when the session is older than the session refresh interval 
+	 * (see {@link #setSessionRefreshInterval(long)}).  When the session expired, the request is replayed (re-created 
+	 * by the factory) after re-authenticating (see {@link #reauthenticate(long, String, boolean)}).  When a compressed request body is 
+	 * rejected, the request is replayed uncompressed.</p>
+	 * 
+	 * <p>Note: The connection is released when the request fails, otherwise the caller must release the connection.</p>
+	 * 
+	 * @return The executed method.
+	 */
+	private <T extends HttpMethodBase> T execute(MethodFactory<T> methodFactory) throws IOException {
+
+		for (int replay = 0; ; replay++) {
+
+			long sessionGeneration = this.sessionGeneration;
+
+			if ((sessionRefreshInterval > 0) && (sessionStartTime > 0) && ((System.currentTimeMillis() - sessionStartTime) > sessionRefreshInterval) && (isLoginBackoffElapsed())) {
+				reauthenticate(sessionGeneration, "Session refresh interval elapsed, refreshing the session", true); //$NON-NLS-1$
+			}
+
+			T method = methodFactory.create();
+
+			try {
+
+				fixMethodHeader(method);
+
+				//Note: Each attempt is executed in the current session (see retryableMethodExecution(HttpMethod)).
+				sessionGeneration = retryableMethodExecution(method);
+			}
+			catch (IOException e) {
+
+				method.releaseConnection();
+
+				throw e;
+			}
+
+			if ((method instanceof EntityEnclosingMethod) && (isCompressedRequestRejected((EntityEnclosingMethod)(method)))) {
+				method.releaseConnection();
+			}
+			else if ((replay < MAX_REPLAYS) && (isAuthenticationRequired(method))) {
+
+				method.releaseConnection();
+
+				reauthenticate(sessionGeneration, "Authentication expired, relogin required", false); //$NON-NLS-1$
+			}
+			else {
+				return method;
+			}
+		}
+	}
+
+	/**
+	 * <p>Resolves the query string of a request.</p>
+	 * 
+	 * <p>Note: The configuration context (see {@link #setConfigContext(String)}) is not added to the query string.</p>
+	 */
+	private String getQueryString(String queryString) throws IOException {
+		return queryString;
+	}
+
+	private <T extends HttpMethodBase> T setQueryString(T method, String queryString) throws IOException {
+
+		queryString = getQueryString(queryString);
+
+		if (queryString != null) {
+			method.setQueryString(queryString);
+		}
+
+		return method;
+	}
+
+	/**
+	 * <p>Checks the response of a write (PUT/POST) request.</p>
+	 * 
+	 * @throws HttpClientException The request failed.
+	 */
+	private static void checkWriteResponse(HttpMethodBase method) throws IOException {
+		if (method.getStatusCode() != HttpStatus.SC_OK && method.getStatusCode() != HttpStatus.SC_CREATED) { 
+			// Handle "see other" (redirect) responses.
+			// Set the exception message to the URL of the target resource.
+			// TER/EWI often returns this value to prevent duplicates
+			if (method.getStatusCode() == HttpStatus.SC_SEE_OTHER) {
+				Header seeOther = method.getResponseHeader(HTTP_HEADER_CONTENT_LOCATION);
+				String seeOtherVal = null;
+				if (seeOther != null && seeOther.getValue() != null) {
+					seeOtherVal = seeOther.getValue();
+				}
+				throw new HttpClientException(seeOtherVal, method.getName(), method.getStatusCode());
+			} else {
+				throw new HttpClientException(getResponseBodyAsString(method), method.getName(), method.getStatusCode());
+			}            
+		}        
+	}
+
+	public int delete(String uri) throws IOException{
+		return (delete(uri, null));
+	}
+
+	public int delete(final String uri, final String queryString) throws IOException{
+
+		DeleteMethod delete = execute(new MethodFactory<DeleteMethod>() {
+
+			@Override
+			public DeleteMethod create() throws IOException {
+				return (setQueryString(new DeleteMethod(uri), queryString));
+			}
+		});
 
-		if(queryString != null){
-			head.setQueryString(queryString);
-		}
-		
 		try{
+			return (delete.getStatusCode());
+		}
+		finally{
+			delete.releaseConnection();
+			entityTags.remove(uri);
+		}
+	}
+	
+	public int head(String uri) throws IOException {
+		return (head(uri, null));
+	}
+	
+	public int head(final String uri, final String queryString) throws IOException{
+
+		HeadMethod head = execute(new MethodFactory<HeadMethod>() {
+
+			@Override
+			public HeadMethod create() throws IOException {
+				return (setQueryString(new HeadMethod(uri), queryString));
+			}
+		});
 
-			fixMethodHeader(head);
-			retryableMethodExecution(head);
-			if (checkForRelogin(head)) {
-				head = new HeadMethod(uri);
-				fixMethodHeader(head);
-				retryableMethodExecution(head);
-				if (checkForRelogin(head)) {
-					head = new HeadMethod(uri);
-					fixMethodHeader(head);
-					retryableMethodExecution(head);
-				}    
-			}  
+		try{
 			return (head.getStatusCode());
 		}
 		finally{
@@ -339,193 +1034,711 @@ public abstract class JazzHttpClient extends HttpClient implements IAPIConstants
 		return (get(uri, null));
 	}
 	
-	public InputStream get(String uri, String queryString) throws IOException{
+	/**
+	 * <p>Reads a resource.</p>
+	 * 
+	 * <p>Concurrent reads of the same resource share one request, and resources identified by web ID (see 
+	 * {@link #getResourceKey(String)}) are memoized for the remainder of the run until they are written (see 
+	 * {@link ReadCoalescer} and {@link #executeMethod(HttpMethod)}).</p>
+	 * 
+	 * <p>When there is a cache directory (see {@link #setCacheDirectory(Path)}), the read is conditional on the 
+	 * validators of the cached resource (if any) and an unchanged (304) resource is read from the cache.</p>
+	 * 
+	 * @param uri The URI of the resource.
+	 * @param queryString The query string, otherwise <code>null</code>.
+	 * @return The content of the resource.
+	 */
+	public InputStream get(final String uri, final String queryString) throws IOException{
+
+		//Note: Only resources identified by web ID are memoized, since other identifiers cannot be mapped to the resource when written.
+		String resourceKey = getResourceKey(uri);
 
-		GetMethod get = new GetMethod(uri);
+		ReadCoalescer.Response response = readCoalescer.read(((resourceKey != null) ? resourceKey : uri), getQueryString(queryString), (resourceKey != null), new ReadCoalescer.ResponseLoader() {
 
-		if(queryString != null){
-			get.setQueryString(queryString);
+			@Override
+			public ReadCoalescer.Response load() throws IOException {
+				return (read(uri, queryString));
+			}
+		});
+
+		setEntityTag(uri, response.getETag());
+
+		return (new ByteArrayInputStream(response.getBody()));
+	}
+
+	/**
+	 * <p>Executes a method.</p>
+	 * 
+	 * <p>After executing a write (for example, PUT, POST, or DELETE) method, including methods executed by callers 
+	 * (for example, REST services), the memoized responses of the written resource are discarded (see 
+	 * {@link #invalidate(String)}).</p>
+	 */
+	@Override
+	public int executeMethod(HttpMethod method) throws IOException {
+
+		try {
+			return (super.executeMethod(method));
 		}
-		
-		// If not null, set configContext for any potential REST API query
-		if(this.configContext != null) {
-			queryString = ((queryString != null && !queryString.isEmpty()) ? "&" : "") + MessageFormat.format(CONFIG_CONTEXT_PARAMETER, configContext); 
+		finally {
+
+			String methodName = method.getName();
+
+			if((!"GET".equals(methodName)) && (!"HEAD".equals(methodName)) && (!"OPTIONS".equals(methodName))){ //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				String uri = ""; //$NON-NLS-1$
+
+				try {
+					uri = method.getURI().toString();
+				}
+				catch (URIException u) {
+					//Ignore since all memoized responses are discarded when the URI cannot be mapped to resources.
+				}
+
+				invalidate(uri);
+			}
 		}
-		
+	}
+
+	/**
+	 * <p>Discards the memoized responses of a written URI.</p>
+	 * 
+	 * <p>When the URI is a resource identified by web ID, the memoized responses of the resource are discarded.  When 
+	 * the URI is a resource identified otherwise (for example, a slug) or a feed, the memoized responses of all resources 
+	 * of the resource type in the project area are discarded.  Otherwise, the URI cannot be mapped to resources (for 
+	 * example, a REST service) and all memoized responses are discarded.</p>
+	 */
+	private void invalidate(String uri) {
+
+		String resourceKey = getResourceKey(uri);
+
+		if(resourceKey != null){
+			readCoalescer.invalidate(resourceKey);
+		}
+		else{
+
+			String resourceTypeKey = getResourceTypeKey(uri);
+
+			readCoalescer.invalidatePrefix((resourceTypeKey != null) ? resourceTypeKey : ""); //$NON-NLS-1$
+
+			//Note: Reads of resources not identified by web ID are keyed by URI.
+			readCoalescer.invalidate(uri);
+		}
+	}
+
+	/**
+	 * <p>Resolves the canonical key of an integration service resource identified by web ID 
+	 * (<code>.../resources/&lt;project area&gt;/&lt;type&gt;/[urn:com.ibm.rqm:&lt;type&gt;:]&lt;web ID&gt;</code>), that is, 
+	 * <code>&lt;project area&gt;/&lt;type&gt;/&lt;web ID&gt;</code> (decoded), so different URI forms (for example, feed entry 
+	 * links, encoded identifiers, or the server host) of the same resource have the same key.</p>
+	 * 
+	 * <p>Note: Feeds are not resources since creating, updating, or deleting any resource may change a feed.</p>
+	 * 
+	 * @return The canonical key of the resource, otherwise <code>null</code> if the URI is not a resource identified by web ID.
+	 */
+	private static String getResourceKey(String uri){
+
+		String[] segments = getResourceSegments(uri);
+
+		if((segments == null) || (segments.length != 3)){
+			return null;
+		}
+
+		String id = segments[2];
+		String typeUrnPrefix = ("urn:com.ibm.rqm:" + segments[1] + ":"); //$NON-NLS-1$ //$NON-NLS-2$
+
+		if(id.startsWith(typeUrnPrefix)){
+			id = id.substring(typeUrnPrefix.length());
+		}
+
+		if(id.isEmpty()){
+			return null;
+		}
+
+		for(int index = 0; index < id.length(); index++){
+
+			if(!Character.isDigit(id.charAt(index))){
+				return null;
+			}
+		}
+
+		return (segments[0] + '/' + segments[1] + '/' + id);
+	}
+
+	/**
+	 * <p>Resolves the prefix of the canonical keys (see {@link #getResourceKey(String)}) of the resources of the resource 
+	 * type of an integration service resource or feed, that is, <code>&lt;project area&gt;/&lt;type&gt;/</code> (decoded).</p>
+	 * 
+	 * @return The prefix of the canonical keys, otherwise <code>null</code> if the URI is not an integration service resource or feed.
+	 */
+	private static String getResourceTypeKey(String uri){
+
+		String[] segments = getResourceSegments(uri);
+
+		if((segments == null) || (segments.length < 2)){
+			return null;
+		}
+
+		return (segments[0] + '/' + segments[1] + '/');
+	}
+
+	/**
+	 * @return The decoded path segments after <code>.../resources/</code> (project area, type, and identifier) of an integration service URI, otherwise <code>null</code>.
+	 */
+	private static String[] getResourceSegments(String uri){
+
+		int resourcesIndex = uri.indexOf(INTEGRATION_SERVICE_RESOURCES_URL);
+
+		if(resourcesIndex == -1){
+			return null;
+		}
+
+		int queryIndex = uri.indexOf('?');
+		String path = uri.substring((resourcesIndex + INTEGRATION_SERVICE_RESOURCES_URL.length()), ((queryIndex == -1) ? uri.length() : queryIndex));
+
+		if(path.endsWith("/")){ //$NON-NLS-1$
+			path = path.substring(0, (path.length() - 1));
+		}
+
+		String[] segments = path.split("/", -1); //$NON-NLS-1$
+
+		if(segments.length > 3){
+			return null;
+		}
+
+		for(int index = 0; index < segments.length; index++){
+
+			if(segments[index].isEmpty()){
+				return null;
+			}
+
+			try {
+				segments[index] = URIUtil.decode(segments[index], ENCODING_UTF8);
+			}
+			catch (URIException u) {
+				//Ignore since the segment is not encoded.
+			}
+		}
+
+		return segments;
+	}
+
+	/**
+	 * <p>Reads a resource from the server (see {@link #get(String, String)}).</p>
+	 */
+	private ReadCoalescer.Response read(String uri, String queryString) throws IOException{
+
+		ResponseCache responseCache = this.responseCache;
+		String cacheKey = null;
+		ResponseCache.Entry cachedResponse = null;
+
+		if(responseCache != null){
+
+			cacheKey = ResponseCache.getKey(username, uri, getQueryString(queryString));
+			cachedResponse = responseCache.read(cacheKey);
+		}
+
+		GetMethod get = executeGet(uri, queryString, cachedResponse);
+
 		try{
 
-			fixMethodHeader(get);
-			retryableMethodExecution(get);
-			if (checkForRelogin(get)) {
-				get = new GetMethod(uri);
-				fixMethodHeader(get);
-				retryableMethodExecution(get);
-				if (checkForRelogin(get)) {
-					get = new GetMethod(uri);
-					fixMethodHeader(get);
-					retryableMethodExecution(get);
-				}    
-			}  
-			int response = get.getStatusCode(); 
-			if (response != HttpStatus.SC_OK && response != HttpStatus.SC_MOVED_TEMPORARILY) {
-				throw new HttpClientException(get.getResponseBodyAsString(), "get(" + uri + ")", get.getStatusCode()); //$NON-NLS-1$ //$NON-NLS-2$
-			}        
+			Header eTagHeader = get.getResponseHeader(HTTP_HEADER_ETAG);
+
+			if(get.getStatusCode() == HttpStatus.SC_NOT_MODIFIED){
+
+				LogUtils.logTrace("Resource not modified, read from the cache directory: " + uri); //$NON-NLS-1$
+
+				return (new ReadCoalescer.Response(cachedResponse.getBody(), ((eTagHeader != null) ? eTagHeader.getValue() : cachedResponse.getETag())));
+			}
+
+			InputStream responseBody = getResponseBodyAsStream(get);
+			byte[] body = ((responseBody != null) ? APIUtils.toByteArray(responseBody) : new byte[0]);
+
+			if(responseCache != null){
+
+				Header lastModifiedHeader = get.getResponseHeader(HTTP_HEADER_LAST_MODIFIED);
+
+				if((get.getStatusCode() == HttpStatus.SC_OK) && ((eTagHeader != null) || (lastModifiedHeader != null))){
+					responseCache.write(cacheKey, ((eTagHeader != null) ? eTagHeader.getValue() : null), ((lastModifiedHeader != null) ? lastModifiedHeader.getValue() : null), body);
+				}
+				else if(cachedResponse != null){
+					responseCache.delete(cacheKey);
+				}
+			}
 
-			return (APIUtils.copy(get.getResponseBodyAsStream()));
+			return (new ReadCoalescer.Response(body, ((eTagHeader != null) ? eTagHeader.getValue() : null)));
 		}
 		finally{
 			get.releaseConnection();
 		}
 	}
-	
-	public String put(String uri, String xmlContent) throws IOException {
-		return (put(uri, xmlContent, null));
+
+	public Reader getReader(String uri) throws IOException{
+		return (getReader(uri, null));
 	}
 
-	public String put(String uri, String xmlContent, String queryString) throws IOException{
+	/**
+	 * <p>Reads a resource as a stream of scrubbed (see {@link APIUtils#scrubXmlCharacters(String)}) XML content
+	 * decoded as the response body is read from the connection, without buffering the response body.</p>
+	 * 
+	 * <p>Note: The reader must be closed to release the connection.</p>
+	 * 
+	 * @param uri The URI of the resource.
+	 * @param queryString The query string, otherwise <code>null</code>.
+	 * @return The reader of the scrubbed XML content of the resource.
+	 */
+	public Reader getReader(String uri, String queryString) throws IOException{
+
+		final GetMethod get = executeGet(uri, queryString, null);
+
+		try{
+
+			InputStream responseBody = getResponseBodyAsStream(get);
 
-		PutMethod put = new PutMethod(uri);
+			if(responseBody == null){
+				responseBody = new ByteArrayInputStream(new byte[0]);
+			}
+
+			return (new XMLCharacterScrubbingReader(new InputStreamReader(new FilterInputStream(responseBody) {
 
-		if(queryString != null){
-			put.setQueryString(queryString);
+				@Override
+				public void close() throws IOException {
+
+					try {
+						super.close();
+					}
+					finally {
+						get.releaseConnection();
+					}
+				}
+			}, ENCODING_UTF8)));
 		}
-		
-		// If not null, set configContext for any potential REST API query
-		if(this.configContext != null) {
-			queryString = ((queryString != null && !queryString.isEmpty()) ? "&" : "") + MessageFormat.format(CONFIG_CONTEXT_PARAMETER, configContext); 
+		catch(IOException e){
+
+			get.releaseConnection();
+
+			throw e;
+		}
+		catch(RuntimeException e){
+
+			get.releaseConnection();
+
+			throw e;
 		}
+	}
+
+	/**
+	 * <p>Reads the content of a resource (for example, the binary content of an attachment) into a channel 
+	 * as the response body is read from the connection, without buffering the response body.</p>
+	 * 
+	 * <p>Note: The content is not coalesced, memoized, or cached (see {@link #get(String, String)}).</p>
+	 * 
+	 * @param uri The URI of the resource.
+	 * @param queryString The query string, otherwise <code>null</code>.
+	 * @param mediaType The accepted media type of the content (see {@link #HTTP_HEADER_ACCEPT}).
+	 * @param channel The channel the (decompressed) content is written to.
+	 * @return The number of bytes written to the channel.
+	 */
+	public long getContent(final String uri, final String queryString, final String mediaType, WritableByteChannel channel) throws IOException{
+
+		GetMethod get = execute(new MethodFactory<GetMethod>() {
+
+			@Override
+			public GetMethod create() throws IOException {
+
+				GetMethod get = setQueryString(new GetMethod(uri), queryString);
+
+				get.setRequestHeader(HTTP_HEADER_ACCEPT, mediaType);
+
+				return get;
+			}
+		});
+
+		boolean read = false;
 
 		try{
 
-			fixMethodHeader(put);        
-			StringRequestEntity xml = new StringRequestEntity(APIUtils.scrubXmlCharacters(xmlContent), MEDIA_TYPE_APPLICATION_XML, ENCODING_UTF8);        
-			put.setRequestEntity(xml);        
-			retryableMethodExecution(put);
-			if (checkForRelogin(put)) {
-				put = new PutMethod(uri);
-				fixMethodHeader(put);
-				put.setRequestEntity(xml);
-				retryableMethodExecution(put);
-			}        
-			if (put.getStatusCode() != HttpStatus.SC_OK && put.getStatusCode() != HttpStatus.SC_CREATED) { 
-				// Handle "see other" (redirect) responses.
-				// Set the exception message to the URL of the target resource.
-				// TER/EWI often returns this value to prevent duplicates
-				if (put.getStatusCode() == HttpStatus.SC_SEE_OTHER) {
-					Header seeOther = put.getResponseHeader(HTTP_HEADER_CONTENT_LOCATION);
-					String seeOtherVal = null;
-					if (seeOther != null && seeOther.getValue() != null) {
-						seeOtherVal = seeOther.getValue();
+			if (get.getStatusCode() != HttpStatus.SC_OK) {
+				throw new HttpClientException(getResponseBodyAsString(get), "getContent(" + uri + ")", get.getStatusCode()); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+
+			InputStream responseBody = getResponseBodyAsStream(get);
+			long length = 0;
+
+			if(responseBody != null){
+
+				ReadableByteChannel responseChannel = Channels.newChannel(responseBody);
+				ByteBuffer buffer = ByteBuffer.allocate(TRANSFER_BUFFER_SIZE);
+
+				while(responseChannel.read(buffer) != -1){
+
+					buffer.flip();
+
+					while(buffer.hasRemaining()){
+						length += channel.write(buffer);
+					}
+
+					buffer.clear();
+				}
+			}
+
+			read = true;
+
+			return length;
+		}
+		finally{
+
+			//Note: The connection is closed instead of reading the remainder of a (large) response body that failed.
+			if(!read){
+				get.abort();
+			}
+
+			get.releaseConnection();
+		}
+	}
+
+	/**
+	 * <p>Executes a GET request, conditional on the validators of a cached response (if any).</p>
+	 * 
+	 * <p>Note: The connection is released when the request fails, otherwise the caller must release the connection.</p>
+	 * 
+	 * @param cachedResponse The cached response, otherwise <code>null</code>.
+	 * @return The executed method.
+	 */
+	private GetMethod executeGet(final String uri, final String queryString, final ResponseCache.Entry cachedResponse) throws IOException{
+
+		GetMethod get = execute(new MethodFactory<GetMethod>() {
+
+			@Override
+			public GetMethod create() throws IOException {
+
+				GetMethod get = setQueryString(new GetMethod(uri), queryString);
+
+				if(cachedResponse != null){
+
+					if(cachedResponse.getETag() != null){
+						get.setRequestHeader(HTTP_HEADER_IF_NONE_MATCH, cachedResponse.getETag());
 					}
-					throw new HttpClientException(seeOtherVal, "PUT", put.getStatusCode()); //$NON-NLS-1$
-				} else {
-					throw new HttpClientException(put.getResponseBodyAsString(), "PUT", put.getStatusCode());     //$NON-NLS-1$
-				}            
+
+					if(cachedResponse.getLastModified() != null){
+						get.setRequestHeader(HTTP_HEADER_IF_MODIFIED_SINCE, cachedResponse.getLastModified());
+					}
+				}
+
+				return get;
+			}
+		});
+		
+		boolean executed = false;
+		
+		try{
+
+			int response = get.getStatusCode(); 
+			if (response != HttpStatus.SC_OK && response != HttpStatus.SC_MOVED_TEMPORARILY && (cachedResponse == null || response != HttpStatus.SC_NOT_MODIFIED)) {
+				throw new HttpClientException(getResponseBodyAsString(get), "get(" + uri + ")", get.getStatusCode()); //$NON-NLS-1$ //$NON-NLS-2$
 			}        
+
+			executed = true;
+			
+			return get;
+		}
+		finally{
+			
+			if(!executed){
+				get.releaseConnection();
+			}
+		}
+	}
+	
+	public String put(String uri, String xmlContent) throws IOException {
+		return (put(uri, xmlContent, null));
+	}
+
+	public String put(String uri, String xmlContent, String queryString) throws IOException{
+
+		PutMethod put = executePut(uri, xmlContent, queryString, null);
+
+		try{
+			checkWriteResponse(put);
 			return uri;
 		}
 		finally{
 			put.releaseConnection();
+
+			//Note: The entity tag of the updated resource is not known.
+			entityTags.remove(uri);
 		}
 	}
 
-	public String post(String uri, String content, String contentType, String queryString) throws IOException{
+	/**
+	 * <p>Updates a resource conditional on the resource not being modified since it was read (optimistic concurrency).</p>
+	 * 
+	 * <p>The update is conditional (<code>If-Match</code>) on the entity tag captured when the resource was last read 
+	 * (see {@link #get(String, String)}).  When the resource was modified since it was read (412), the current resource 
+	 * is read and the edit is re-applied to the current resource, up to 5 times.</p>
+	 * 
+	 * <p>When no entity tag was captured (for example, the resource was read from the inline content of a feed), the 
+	 * current resource is read to capture its entity tag and the edit is re-applied to the current resource before 
+	 * the conditional update.  Without an edit, or when the server does not return an entity tag, the update is not 
+	 * conditional.</p>
+	 * 
+	 * <p>When the re-applied edit does not change the current resource (see {@link XMLContentHash}), the current 
+	 * resource is not updated.</p>
+	 * 
+	 * @param uri The URI of the resource.
+	 * @param xmlContent The edited content of the resource.
+	 * @param queryString The query string, otherwise <code>null</code>.
+	 * @param resourceEditor The edit re-applied to the current resource when the resource was modified since it was read, otherwise <code>null</code>.
+	 * @return The URI of the resource.
+	 * @throws HttpClientException The update failed, the resource was modified since it was read and there is no edit to re-apply, or the resource was modified by every attempt.
+	 */
+	public String put(String uri, String xmlContent, String queryString, ResourceEditor resourceEditor) throws IOException{
+
+		String content = xmlContent;
+
+		//Note: The update is only conditional on an entity tag of the resource content the edit was applied to.
+		if((resourceEditor != null) && (entityTags.get(uri) == null)){
 
-		PostMethod post = new PostMethod(uri);
+			String currentContent = APIUtils.toString(get(uri));
 
-		if(queryString != null){
-			post.setQueryString(queryString);
+			if(entityTags.get(uri) != null){
+
+				content = editResource(uri, currentContent, resourceEditor);
+
+				//The current resource does not require the update or the update does not change the current resource:
+				if((content == null) || (!XMLContentHash.isChanged(currentContent, content))){
+					return uri;
+				}
+			}
+			else{
+				LogUtils.logWarning("No entity tag for resource '" + uri + "', updating the resource unconditionally"); //$NON-NLS-1$ //$NON-NLS-2$
+			}
 		}
 
-		try{
+		for(int attempt = 0; ; attempt++){
 
-			fixMethodHeader(post);        
-			StringRequestEntity xml = new StringRequestEntity(APIUtils.scrubXmlCharacters(content), contentType, ENCODING_UTF8);        
-			post.setRequestEntity(xml);        
-			retryableMethodExecution(post);
-			if (checkForRelogin(post)) {
-				post = new PostMethod(uri);
-				fixMethodHeader(post);
-				post.setRequestEntity(xml);
-				retryableMethodExecution(post);
-			}        
-			if (post.getStatusCode() != HttpStatus.SC_OK && post.getStatusCode() != HttpStatus.SC_CREATED) { 
-				// Handle "see other" (redirect) responses.
-				// Set the exception message to the URL of the target resource.
-				// TER/EWI often returns this value to prevent duplicates
-				if (post.getStatusCode() == HttpStatus.SC_SEE_OTHER) {
-					Header seeOther = post.getResponseHeader(HTTP_HEADER_CONTENT_LOCATION);
-					String seeOtherVal = null;
-					if (seeOther != null && seeOther.getValue() != null) {
-						seeOtherVal = seeOther.getValue();
-					}
-					throw new HttpClientException(seeOtherVal, "POST", post.getStatusCode()); //$NON-NLS-1$
-				} else {
-					throw new HttpClientException(post.getResponseBodyAsString(), "POST", post.getStatusCode());     //$NON-NLS-1$
-				}            
-			}        
-			return post.getResponseBodyAsString();
+			PutMethod put = executePut(uri, content, queryString, entityTags.get(uri));
+
+			try{
+
+				if(put.getStatusCode() != HttpStatus.SC_PRECONDITION_FAILED){
+
+					checkWriteResponse(put);
+
+					//Note: The entity tag of the updated resource is not known.
+					entityTags.remove(uri);
+
+					return uri;
+				}
+
+				//Note: Without an edit, the update cannot be re-applied to the current resource.
+				if(resourceEditor == null){
+					throw new HttpClientException("Resource '" + uri + "' was modified since read", put.getName(), put.getStatusCode()); //$NON-NLS-1$ //$NON-NLS-2$
+				}
+
+				if(attempt == MAX_CONFLICT_RETRIES){
+					throw new HttpClientException("Resource '" + uri + "' was modified by each of " + (attempt + 1) + " update attempts", put.getName(), put.getStatusCode()); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				}
+			}
+			finally{
+				put.releaseConnection();
+			}
+
+			LogUtils.logInfo("Resource '" + uri + "' was modified since read, re-applying the update to the current resource"); //$NON-NLS-1$ //$NON-NLS-2$
+
+			//Note: The current resource is read from the server since the memoized resource (if any) was invalidated.
+			String currentContent = APIUtils.toString(get(uri));
+
+			content = editResource(uri, currentContent, resourceEditor);
+
+			//The current resource does not require the update or the update does not change the current resource:
+			if((content == null) || (!XMLContentHash.isChanged(currentContent, content))){
+				return uri;
+			}
+		}
+	}
+
+	/**
+	 * <p>Re-applies an edit to the current content of a resource.</p>
+	 * 
+	 * @return The edited content of the resource, otherwise <code>null</code> if the resource does not require the edit.
+	 */
+	private static String editResource(String uri, String currentContent, ResourceEditor resourceEditor) throws IOException{
+
+		try {
+			return (resourceEditor.edit(currentContent));
+		} 
+		catch (IOException i) {
+			throw i;
+		}
+		catch (Exception e) {
+			throw new IOException("Error re-applying the update to resource '" + uri + "'", e); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+	}
+
+	/**
+	 * <p>Executes a PUT request, conditional on an entity tag (if any).</p>
+	 * 
+	 * <p>Note: The connection is released when the request fails, otherwise the caller must release the connection.</p>
+	 * 
+	 * @param eTag The entity tag of the resource, otherwise <code>null</code>.
+	 * @return The executed method.
+	 */
+	private PutMethod executePut(final String uri, String xmlContent, final String queryString, final String eTag) throws IOException{
+
+		final String scrubbedXmlContent = APIUtils.scrubXmlCharacters(xmlContent);
+
+		return (execute(new MethodFactory<PutMethod>() {
+
+			@Override
+			public PutMethod create() throws IOException {
+
+				PutMethod put = setQueryString(new PutMethod(uri), queryString);
+
+				if(eTag != null){
+					put.setRequestHeader(HTTP_HEADER_IF_MATCH, eTag);
+				}
+
+				setRequestEntity(put, createRequestEntity(scrubbedXmlContent, MEDIA_TYPE_APPLICATION_XML));
+
+				return put;
+			}
+		}));
+	}
+
+	private void setEntityTag(String uri, String eTag){
+
+		if(eTag != null){
+			entityTags.put(uri, eTag);
+		}
+		else{
+			entityTags.remove(uri);
+		}
+	}
+
+	public String post(final String uri, String content, final String contentType, final String queryString) throws IOException{
+
+		final String scrubbedContent = APIUtils.scrubXmlCharacters(content);
+
+		PostMethod post = execute(new MethodFactory<PostMethod>() {
+
+			@Override
+			public PostMethod create() throws IOException {
+
+				PostMethod post = setQueryString(new PostMethod(uri), queryString);
+
+				setRequestEntity(post, createRequestEntity(scrubbedContent, contentType));
+
+				return post;
+			}
+		});
+
+		try{
+			checkWriteResponse(post);
+			return getResponseBodyAsString(post);
 		}
 		finally{
 			post.releaseConnection();
 		}
 	}
+
 	public String postAttachment(String uri, byte[] attachmentBytes, String attachmentName) throws IOException{
+		return (postAttachment(uri, new ByteArrayPartSource(attachmentName, attachmentBytes)));
+	}
 
-		PostMethod post = new PostMethod(uri);
-		
-		// If not null, set configContext for any potential REST API query
-		if(this.configContext != null) {
-			post.addParameter(OSLC_CONFIG_PARAM_NAME, this.configContext);
-		}
+	/**
+	 * <p>Creates an attachment streaming the content of a file (see {@link #postAttachment(String, FileChannel, String)}).</p>
+	 * 
+	 * @param uri The URI of the attachments feed.
+	 * @param attachmentFile The file of the attachment content.
+	 * @param attachmentName The file name of the attachment.
+	 * @return The location of the created attachment, otherwise the URI of the attachments feed.
+	 */
+	public String postAttachment(String uri, Path attachmentFile, String attachmentName) throws IOException{
+
+		FileChannel attachmentChannel = FileChannel.open(attachmentFile, StandardOpenOption.READ);
 
 		try{
+			return (postAttachment(uri, attachmentChannel, attachmentName));
+		}
+		finally{
+			attachmentChannel.close();
+		}
+	}
 
-			fixMethodHeader(post);
-			
-			ByteArrayOutputStream fileContent = new ByteArrayOutputStream();
-			fileContent.write(attachmentBytes);
-			ByteArrayPartSource baps = new ByteArrayPartSource(attachmentName, fileContent.toByteArray());
-			FilePart filePart = new FilePart(attachmentName, baps);	
-			post.setRequestEntity(new MultipartRequestEntity(new Part[]{ filePart }, post.getParams()));
-			retryableMethodExecution(post);
-			if (checkForRelogin(post)) {
-				post = new PostMethod(uri);
-				if(this.configContext != null) {
-					post.addParameter(OSLC_CONFIG_PARAM_NAME, this.configContext);
+	/**
+	 * <p>Creates an attachment streaming the content of a file channel, without holding the content in memory 
+	 * (see {@link FileChannelPartSource}).</p>
+	 * 
+	 * <p>The content is read from the start of the file, without changing the position of the channel, 
+	 * each time the request is sent (for example, retried or replayed after re-authenticating).</p>
+	 * 
+	 * @param uri The URI of the attachments feed.
+	 * @param attachmentChannel The (open) file channel of the attachment content.
+	 * @param attachmentName The file name of the attachment.
+	 * @return The location of the created attachment, otherwise the URI of the attachments feed.
+	 */
+	public String postAttachment(String uri, FileChannel attachmentChannel, String attachmentName) throws IOException{
+		return (postAttachment(uri, new FileChannelPartSource(attachmentName, attachmentChannel)));
+	}
+
+	/**
+	 * <p>Creates an attachment decoding the base64 content in a region of a character sequence (for example,
+	 * the data of an inline image) as it is sent, without copying or decoding the content in memory
+	 * (see {@link Base64PartSource}).</p>
+	 *
+	 * @param uri The URI of the attachments feed.
+	 * @param content The character sequence containing the base64 content.
+	 * @param start The index of the start of the base64 content.
+	 * @param end The index of the end of the base64 content.
+	 * @param attachmentName The file name of the attachment.
+	 * @return The location of the created attachment, otherwise the URI of the attachments feed.
+	 * @throws IllegalArgumentException If the base64 content is invalid.
+	 */
+	public String postBase64Attachment(String uri, CharSequence content, int start, int end, String attachmentName) throws IOException{
+		return (postAttachment(uri, new Base64PartSource(attachmentName, content, start, end)));
+	}
+
+	/**
+	 * <p>Creates an attachment.</p>
+	 *
+	 * <p>Note: The part source is repeatable, so the same part source is sent when the request is retried or replayed.</p>
+	 */
+	private String postAttachment(final String uri, PartSource attachmentSource) throws IOException{
+
+		final FilePart filePart = new FilePart(attachmentSource.getFileName(), attachmentSource);	
+
+		PostMethod post = execute(new MethodFactory<PostMethod>() {
+
+			@Override
+			public PostMethod create() throws IOException {
+
+				PostMethod post = new PostMethod(uri);
+
+				// If not null, set configContext for any potential REST API query
+				if(configContext != null) {
+					post.addParameter(OSLC_CONFIG_PARAM_NAME, configContext);
 				}
-				fixMethodHeader(post);
+
 				post.setRequestEntity(new MultipartRequestEntity(new Part[]{ filePart }, post.getParams()));
-				retryableMethodExecution(post);
-			}        
-			if (post.getStatusCode() != HttpStatus.SC_OK && post.getStatusCode() != HttpStatus.SC_CREATED) { 
-				// Handle "see other" (redirect) responses.
-				// Set the exception message to the URL of the target resource.
-				// TER/EWI often returns this value to prevent duplicates
-				if (post.getStatusCode() == HttpStatus.SC_SEE_OTHER) {
-					Header seeOther = post.getResponseHeader(HTTP_HEADER_CONTENT_LOCATION);
-					String seeOtherVal = null;
-					if (seeOther != null && seeOther.getValue() != null) {
-						seeOtherVal = seeOther.getValue();
-					}
-					throw new HttpClientException(seeOtherVal, "POST", post.getStatusCode()); //$NON-NLS-1$
-				} else {
-					throw new HttpClientException(post.getResponseBodyAsString(), "POST", post.getStatusCode());     //$NON-NLS-1$
-				}            
-			}    
-			else{
 
-				Header locationHeader = post.getResponseHeader(HTTP_HEADER_CONTENT_LOCATION);
+				return post;
+			}
+		});
 
-				if (locationHeader != null){
-					
-					String location = locationHeader.getValue();
-					
-					if((location != null) && (!location.trim().isEmpty())){
-						return location;
-					}
+		try{
+
+			checkWriteResponse(post);
+
+			Header locationHeader = post.getResponseHeader(HTTP_HEADER_CONTENT_LOCATION);
+
+			if (locationHeader != null){
+				
+				String location = locationHeader.getValue();
+				
+				if((location != null) && (!location.trim().isEmpty())){
+					return location;
 				}
 			}
+
 			return uri;
 		}
 		finally{
@@ -533,6 +1746,30 @@ public abstract class JazzHttpClient extends HttpClient implements IAPIConstants
 		}
 	}
 
+	/**
+	 * <p>Edit of a resource, re-applied to the current resource when the resource was modified since it was read 
+	 * (see {@link JazzHttpClient#put(String, String, String, ResourceEditor)}).</p>
+	 */
+	public interface ResourceEditor {
+
+		/**
+		 * @param content The current content of the resource.
+		 * @return The edited content of the resource, otherwise <code>null</code> if the resource does not require the edit.
+		 */
+		public String edit(String content) throws Exception;
+	}
+
+	/**
+	 * <p>Factory creating (and re-creating when replayed) the method of a request.</p>
+	 */
+	private interface MethodFactory<T extends HttpMethodBase> {
+
+		/**
+		 * @return The new method with the query string and request body (if any) set.
+		 */
+		public T create() throws IOException;
+	}
+
 	public String getUsername() {
 		return username;
 	}
@@ -0,0 +1,324 @@
+/*******************************************************************************
+ * Licensed Materials - Property of IBM
+ * © Copyright IBM Corporation 2011, 2020. All Rights Reserved.
+ *
+ * U.S. Government Users Restricted Rights:
+ * Use, duplication or disclosure restricted by GSA ADP Schedule
+ * Contract with IBM Corp.
+ ******************************************************************************/
+package com.ibm.rqm.api.internal.client;
+
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.commons.httpclient.HttpMethod;
+
+import com.ibm.rqm.api.internal.util.IAPIConstants;
+
+/**
+ * <p>Token bucket limit of the rate of requests, with separate budgets for read (GET/HEAD) and write
+ * (PUT/POST/DELETE) requests.</p>
+ *
+ * <p>Each budget allows a rate of requests per second with bursts of up to one second of requests.
+ * Rate profiles override the rates during time-of-day windows (local time), for example, to allow a
+ * higher rate outside of business hours.</p>
+ *
+ * <p>Requests waiting for a budget are granted in round-robin order between project areas (resolved
+ * from the request URI), so a project area with many waiting requests cannot starve another project
+ * area.</p>
+ *
+ * <p>Note: Instances are thread safe.</p>
+ *
+ *
+ * @version 1.0
+ * @since   1.0
+ */
+final class RateLimiter implements IAPIConstants {
+
+	/**
+	 * <p>Unlimited rate of requests.</p>
+	 */
+	public static final double UNLIMITED = 0;
+
+	private static final Pattern RATE_PROFILE_PATTERN = Pattern.compile("(\\d{1,2}):(\\d{2})-(\\d{1,2}):(\\d{2})=([\\d.]+)(?:/([\\d.]+))?"); //$NON-NLS-1$
+	private static final String DEFAULT_KEY = ""; //$NON-NLS-1$
+
+	private final TokenBucket readBucket;
+	private final TokenBucket writeBucket;
+
+	/**
+	 * @param readRate The rate of read requests per second, otherwise {@link #UNLIMITED}.
+	 * @param writeRate The rate of write requests per second, otherwise {@link #UNLIMITED}.
+	 * @param rateProfiles The rate profiles (see {@link #parseRateProfiles(String)}), otherwise <code>null</code>.
+	 */
+	RateLimiter(double readRate, double writeRate, String rateProfiles) {
+
+		List<RateProfile> profiles = parseRateProfiles(rateProfiles);
+
+		this.readBucket = new TokenBucket(validateRate(readRate), profiles, true);
+		this.writeBucket = new TokenBucket(validateRate(writeRate), profiles, false);
+	}
+
+	/**
+	 * <p>Waits until the budget of a method allows the request.</p>
+	 */
+	public void acquire(HttpMethod method) throws InterruptedIOException {
+
+		String methodName = method.getName();
+
+		TokenBucket bucket = ((("GET".equals(methodName)) || ("HEAD".equals(methodName))) ? readBucket : writeBucket); //$NON-NLS-1$ //$NON-NLS-2$
+
+		bucket.acquire(getProjectAreaKey(method.getPath()));
+	}
+
+	/**
+	 * <p>Parses rate profiles.</p>
+	 *
+	 * <p>Rate profiles are a comma-separated list of <code>HH:mm-HH:mm=&lt;read rate&gt;[/&lt;write rate&gt;]</code>
+	 * time-of-day windows (local time).  A window ending before it starts wraps midnight.  When the write
+	 * rate is not specified, the read rate is used for both budgets.  A rate of 0 is unlimited.</p>
+	 *
+	 * @param rateProfiles The rate profiles, otherwise <code>null</code>.
+	 * @return The parsed rate profiles.
+	 * @throws IllegalArgumentException The rate profiles are invalid.
+	 */
+	static List<RateProfile> parseRateProfiles(String rateProfiles) {
+
+		List<RateProfile> profiles = new ArrayList<RateProfile>();
+
+		if((rateProfiles != null) && (!rateProfiles.trim().isEmpty())){
+
+			for(String rateProfile : rateProfiles.split(",")){ //$NON-NLS-1$
+
+				Matcher rateProfileMatcher = RATE_PROFILE_PATTERN.matcher(rateProfile.trim());
+
+				if(!rateProfileMatcher.matches()){
+					throw new IllegalArgumentException("Invalid rate profile: " + rateProfile); //$NON-NLS-1$
+				}
+
+				int startMinute = toMinuteOfDay(rateProfileMatcher.group(1), rateProfileMatcher.group(2), rateProfile);
+				int endMinute = toMinuteOfDay(rateProfileMatcher.group(3), rateProfileMatcher.group(4), rateProfile);
+				double readRate = validateRate(Double.parseDouble(rateProfileMatcher.group(5)));
+				double writeRate = ((rateProfileMatcher.group(6) != null) ? validateRate(Double.parseDouble(rateProfileMatcher.group(6))) : readRate);
+
+				profiles.add(new RateProfile(startMinute, endMinute, readRate, writeRate));
+			}
+		}
+
+		return profiles;
+	}
+
+	private static int toMinuteOfDay(String hours, String minutes, String rateProfile) {
+
+		int hour = Integer.parseInt(hours);
+		int minute = Integer.parseInt(minutes);
+
+		if((hour > 23) || (minute > 59)){
+			throw new IllegalArgumentException("Invalid time in rate profile: " + rateProfile); //$NON-NLS-1$
+		}
+
+		return ((hour * 60) + minute);
+	}
+
+	private static double validateRate(double rate) {
+
+		if((rate < 0) || (Double.isNaN(rate)) || (Double.isInfinite(rate))){
+			throw new IllegalArgumentException("Invalid rate: " + rate); //$NON-NLS-1$
+		}
+
+		return rate;
+	}
+
+	/**
+	 * <p>Resolves the project area alias of a request path for fairness between project areas.</p>
+	 */
+	private static String getProjectAreaKey(String path) {
+
+		if(path != null){
+
+			int resourcesIndex = path.indexOf(INTEGRATION_SERVICE_RESOURCES_URL);
+
+			if(resourcesIndex != -1){
+
+				int projectAreaIndex = (resourcesIndex + INTEGRATION_SERVICE_RESOURCES_URL.length());
+				int separatorIndex = path.indexOf('/', projectAreaIndex);
+
+				if(separatorIndex != -1){
+					return (path.substring(projectAreaIndex, separatorIndex));
+				}
+			}
+		}
+
+		return DEFAULT_KEY;
+	}
+
+	/**
+	 * <p>Rates of requests during a time-of-day window.</p>
+	 */
+	static final class RateProfile {
+
+		private final int startMinute;
+		private final int endMinute;
+		private final double readRate;
+		private final double writeRate;
+
+		RateProfile(int startMinute, int endMinute, double readRate, double writeRate) {
+
+			this.startMinute = startMinute;
+			this.endMinute = endMinute;
+			this.readRate = readRate;
+			this.writeRate = writeRate;
+		}
+
+		boolean isActive(int minuteOfDay) {
+
+			if(startMinute <= endMinute){
+				return ((minuteOfDay >= startMinute) && (minuteOfDay < endMinute));
+			}
+
+			//Wraps midnight:
+			return ((minuteOfDay >= startMinute) || (minuteOfDay < endMinute));
+		}
+	}
+
+	/**
+	 * <p>Token bucket granting tokens in round-robin order between keys.</p>
+	 */
+	private static final class TokenBucket {
+
+		private final double defaultRate;
+		private final List<RateProfile> profiles;
+		private final boolean read;
+		private final Map<String, Deque<Object>> waiters = new HashMap<String, Deque<Object>>();
+		private final Deque<String> keys = new ArrayDeque<String>();
+		private double tokens = 1;
+		private long lastRefillTime = System.nanoTime();
+
+		private TokenBucket(double defaultRate, List<RateProfile> profiles, boolean read) {
+
+			this.defaultRate = defaultRate;
+			this.profiles = profiles;
+			this.read = read;
+		}
+
+		private synchronized void acquire(String key) throws InterruptedIOException {
+
+			double rate = getRate();
+
+			if((rate == UNLIMITED) && (keys.isEmpty())){
+				return;
+			}
+
+			Object waiter = new Object();
+			Deque<Object> keyWaiters = waiters.get(key);
+
+			if(keyWaiters == null){
+
+				keyWaiters = new ArrayDeque<Object>();
+
+				waiters.put(key, keyWaiters);
+				keys.addLast(key);
+			}
+
+			keyWaiters.addLast(waiter);
+
+			try {
+
+				while(true){
+
+					rate = getRate();
+
+					refill(rate);
+
+					boolean turn = ((key.equals(keys.peekFirst())) && (keyWaiters.peekFirst() == waiter));
+
+					if((turn) && ((rate == UNLIMITED) || (tokens >= 1))){
+
+						if(rate != UNLIMITED){
+							tokens -= 1;
+						}
+
+						return;
+					}
+
+					if((turn) || (rate == UNLIMITED) || (tokens >= 1)){
+
+						//Wait for the next token (or a change of rate profile):
+						wait(Math.max(1, Math.min(1000, (long)(Math.ceil(((1 - tokens) / rate) * 1000)))));
+					}
+					else{
+						wait();
+					}
+				}
+			}
+			catch (InterruptedException e) {
+
+				Thread.currentThread().interrupt();
+
+				throw new InterruptedIOException("Interrupted while waiting for the rate limit"); //$NON-NLS-1$
+			}
+			finally {
+
+				//Remove the waiter and rotate the keys so the next project area is granted the next token:
+				boolean turn = (keyWaiters.peekFirst() == waiter);
+
+				keyWaiters.remove(waiter);
+
+				if(turn){
+					keys.remove(key);
+				}
+
+				if(keyWaiters.isEmpty()){
+
+					waiters.remove(key);
+					keys.remove(key);
+				}
+				else if(turn){
+					keys.addLast(key);
+				}
+
+				notifyAll();
+			}
+		}
+
+		private double getRate() {
+
+			if(!profiles.isEmpty()){
+
+				Calendar now = Calendar.getInstance();
+				int minuteOfDay = ((now.get(Calendar.HOUR_OF_DAY) * 60) + now.get(Calendar.MINUTE));
+
+				for(RateProfile profile : profiles){
+
+					if(profile.isActive(minuteOfDay)){
+						return (read ? profile.readRate : profile.writeRate);
+					}
+				}
+			}
+
+			return defaultRate;
+		}
+
+		/**
+		 * <p>Adds the tokens for the elapsed time, up to one second of requests (at least one request).</p>
+		 */
+		private void refill(double rate) {
+
+			long now = System.nanoTime();
+
+			if(rate != UNLIMITED){
+				tokens = Math.min(Math.max(1, rate), (tokens + (((now - lastRefillTime) / 1e9) * rate)));
+			}
+
+			lastRefillTime = now;
+		}
+	}
+}
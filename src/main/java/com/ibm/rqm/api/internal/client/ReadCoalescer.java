@@ -0,0 +1,314 @@
+/*******************************************************************************
+ * Licensed Materials - Property of IBM
+ * © Copyright IBM Corporation 2011, 2020. All Rights Reserved.
+ *
+ * U.S. Government Users Restricted Rights:
+ * Use, duplication or disclosure restricted by GSA ADP Schedule
+ * Contract with IBM Corp.
+ ******************************************************************************/
+package com.ibm.rqm.api.internal.client;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * <p>Coalescing and memoization of reads.</p>
+ *
+ * <p>Reads are keyed by the caller, for example, by a canonical form of the resource URI so reads of the same
+ * resource through different URI forms share the key.  Concurrent reads of the same key and query string share
+ * one request.  The responses of memoizable reads (for example, resources that are read many times in a run) are
+ * memoized for the remainder of the run, up to a maximum total size of the response bodies (least recently used
+ * responses are discarded).  Memoized responses of a key are discarded when the resource is written (see
+ * {@link #invalidate(String)} and {@link #invalidatePrefix(String)}).</p>
+ *
+ * <p>Note: Instances are thread safe.</p>
+ *
+ *
+ * @version 1.0
+ * @since   1.0
+ */
+final class ReadCoalescer {
+
+	/**
+	 * <p>Default maximum total size of the memoized response bodies.</p>
+	 */
+	public static final long DEFAULT_MAX_MEMO_SIZE = 67108864; //64 MB
+
+	private final ConcurrentHashMap<String, FutureTask<Response>> inFlightReads = new ConcurrentHashMap<String, FutureTask<Response>>();
+
+	//Note: Memoized responses keyed by key, then by query string, in least recently used order of the keys.
+	private final LinkedHashMap<String, Map<String, Response>> memo = new LinkedHashMap<String, Map<String, Response>>(16, 0.75f, true);
+	private final long maxMemoSize;
+	private long memoSize = 0;
+	private long invalidations = 0;
+
+	/**
+	 * @param maxMemoSize The maximum total size (bytes) of the memoized response bodies, otherwise <code>0</code> to not memoize responses.
+	 */
+	ReadCoalescer(long maxMemoSize) {
+
+		if(maxMemoSize < 0){
+			throw new IllegalArgumentException("Invalid maximum memo size: " + maxMemoSize); //$NON-NLS-1$
+		}
+
+		this.maxMemoSize = maxMemoSize;
+	}
+
+	/**
+	 * <p>Reads a response, shared with concurrent reads of the same key and query string.</p>
+	 *
+	 * @param key The key of the read (for example, the canonical URI of the resource).
+	 * @param queryString The query string, otherwise <code>null</code>.
+	 * @param memoizable <code>true</code> if the response is memoized, otherwise <code>false</code>.
+	 * @param responseLoader The loader executing the request.
+	 * @return The response.
+	 */
+	public Response read(String key, String queryString, boolean memoizable, final ResponseLoader responseLoader) throws IOException {
+
+		String query = ((queryString != null) ? queryString : ""); //$NON-NLS-1$
+		long memoInvalidations = 0;
+
+		if(memoizable){
+
+			synchronized (memo) {
+
+				Map<String, Response> responses = memo.get(key);
+
+				if((responses != null) && (responses.containsKey(query))){
+					return (responses.get(query));
+				}
+
+				memoInvalidations = invalidations;
+			}
+		}
+
+		String readKey = (key + '\n' + query);
+		FutureTask<Response> read = new FutureTask<Response>(new Callable<Response>() {
+
+			@Override
+			public Response call() throws Exception {
+				return (responseLoader.load());
+			}
+		});
+
+		FutureTask<Response> inFlightRead = inFlightReads.putIfAbsent(readKey, read);
+
+		if(inFlightRead == null){
+
+			try {
+				read.run();
+			}
+			finally {
+				inFlightReads.remove(readKey, read);
+			}
+
+			inFlightRead = read;
+		}
+
+		Response response = getResponse(inFlightRead);
+
+		if(memoizable){
+			memoize(key, query, response, memoInvalidations);
+		}
+
+		return response;
+	}
+
+	/**
+	 * <p>Discards the memoized responses of a key (for example, when the resource is written).</p>
+	 *
+	 * <p>Reads of the key in flight are not shared with later reads.</p>
+	 */
+	public void invalidate(String key) {
+
+		synchronized (memo) {
+
+			Map<String, Response> responses = memo.remove(key);
+
+			if(responses != null){
+
+				for(Response response : responses.values()){
+					memoSize -= response.getBody().length;
+				}
+			}
+
+			invalidations++;
+		}
+
+		removeInFlightReads(key + '\n');
+	}
+
+	/**
+	 * <p>Discards the memoized responses of all keys starting with a prefix (for example, when a write cannot be
+	 * mapped to the key of one resource), otherwise all memoized responses for an empty prefix.</p>
+	 *
+	 * <p>Reads of the keys in flight are not shared with later reads.</p>
+	 */
+	public void invalidatePrefix(String keyPrefix) {
+
+		synchronized (memo) {
+
+			Iterator<Map.Entry<String, Map<String, Response>>> entries = memo.entrySet().iterator();
+
+			while(entries.hasNext()){
+
+				Map.Entry<String, Map<String, Response>> entry = entries.next();
+
+				if(entry.getKey().startsWith(keyPrefix)){
+
+					for(Response response : entry.getValue().values()){
+						memoSize -= response.getBody().length;
+					}
+
+					entries.remove();
+				}
+			}
+
+			invalidations++;
+		}
+
+		removeInFlightReads(keyPrefix);
+	}
+
+	private void removeInFlightReads(String readKeyPrefix) {
+
+		Iterator<String> readKeys = inFlightReads.keySet().iterator();
+
+		while(readKeys.hasNext()){
+
+			if(readKeys.next().startsWith(readKeyPrefix)){
+				readKeys.remove();
+			}
+		}
+	}
+
+	private void memoize(String key, String query, Response response, long memoInvalidations) {
+
+		long size = response.getBody().length;
+
+		//Note: Responses larger than a quarter of the memo are not memoized.
+		if((size * 4) > maxMemoSize){
+			return;
+		}
+
+		synchronized (memo) {
+
+			//Note: The response may be stale when the memo was invalidated while reading.
+			if(memoInvalidations != invalidations){
+				return;
+			}
+
+			Map<String, Response> responses = memo.get(key);
+
+			if(responses == null){
+
+				responses = new HashMap<String, Response>();
+
+				memo.put(key, responses);
+			}
+
+			Response previousResponse = responses.put(query, response);
+
+			memoSize += (size - ((previousResponse != null) ? previousResponse.getBody().length : 0));
+
+			Iterator<Map<String, Response>> eldestResponses = memo.values().iterator();
+
+			while((memoSize > maxMemoSize) && (eldestResponses.hasNext())){
+
+				for(Response eldestResponse : eldestResponses.next().values()){
+					memoSize -= eldestResponse.getBody().length;
+				}
+
+				eldestResponses.remove();
+			}
+		}
+	}
+
+	private static Response getResponse(FutureTask<Response> read) throws IOException {
+
+		boolean interrupted = false;
+
+		try {
+
+			while(true){
+
+				try {
+					return (read.get());
+				}
+				catch (InterruptedException i) {
+
+					//Note: The shared read is not cancelled since other reads may be waiting for it.
+					interrupted = true;
+				}
+			}
+		}
+		catch (ExecutionException e) {
+
+			Throwable cause = e.getCause();
+
+			if(cause instanceof IOException){
+				throw ((IOException)(cause));
+			}
+
+			if(cause instanceof RuntimeException){
+				throw ((RuntimeException)(cause));
+			}
+
+			if(cause instanceof Error){
+				throw ((Error)(cause));
+			}
+
+			throw new IOException(cause);
+		}
+		finally {
+
+			if(interrupted){
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	/**
+	 * <p>Loader executing the request of a read.</p>
+	 */
+	interface ResponseLoader {
+
+		public Response load() throws IOException;
+	}
+
+	/**
+	 * <p>Response of a read.</p>
+	 *
+	 * <p>Note: The response body is shared and must not be modified.</p>
+	 */
+	static final class Response {
+
+		private final byte[] body;
+		private final String eTag;
+
+		/**
+		 * @param body The response body.
+		 * @param eTag The entity tag of the response, otherwise <code>null</code>.
+		 */
+		Response(byte[] body, String eTag) {
+
+			this.body = body;
+			this.eTag = eTag;
+		}
+
+		public byte[] getBody() {
+			return body;
+		}
+
+		public String getETag() {
+			return eTag;
+		}
+	}
+}
@@ -0,0 +1,139 @@
+/*******************************************************************************
+ * Licensed Materials - Property of IBM
+ * © Copyright IBM Corporation 2011, 2020. All Rights Reserved.
+ *
+ * U.S. Government Users Restricted Rights:
+ * Use, duplication or disclosure restricted by GSA ADP Schedule
+ * Contract with IBM Corp.
+ ******************************************************************************/
+package com.ibm.rqm.api.internal.client;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * <p>Cache of response bodies with their validators (entity tag and last modified date) in a cache directory,
+ * so later reads of the same resource can be conditional (<code>If-None-Match</code>/<code>If-Modified-Since</code>)
+ * and an unchanged resource is read from the cache instead of transferring the response body.</p>
+ *
+ * <p>Entries are keyed by the user, URI, and query string (including the configuration context).  Entries do
+ * not expire since every use is validated by the server.</p>
+ *
+ * <p>Entry format: <code>&lt;ETag&gt;\n&lt;Last-Modified&gt;\n&lt;response body&gt;</code></p>
+ *
+ * <p>Note: Instances are thread safe.</p>
+ *
+ *
+ * @version 1.0
+ * @since   1.0
+ */
+final class ResponseCache {
+
+	private static final String KEY_PREFIX = "response "; //$NON-NLS-1$
+	private static final byte SEPARATOR = '\n';
+
+	private final CacheDirectory cacheDirectory;
+
+	ResponseCache(CacheDirectory cacheDirectory) {
+		this.cacheDirectory = cacheDirectory;
+	}
+
+	static String getKey(String username, String uri, String queryString) {
+		return (KEY_PREFIX + username + ' ' + uri + (((queryString != null) && (!queryString.isEmpty())) ? ('?' + queryString) : "")); //$NON-NLS-1$
+	}
+
+	/**
+	 * @return The cached response, otherwise <code>null</code> if the response is not cached or the entry is invalid.
+	 */
+	public Entry read(String key) {
+
+		byte[] content = cacheDirectory.readBytes(key, -1);
+
+		if(content != null){
+
+			int eTagEnd = indexOf(content, 0);
+			int lastModifiedEnd = ((eTagEnd != -1) ? indexOf(content, (eTagEnd + 1)) : -1);
+
+			if(lastModifiedEnd != -1){
+
+				String eTag = new String(content, 0, eTagEnd, StandardCharsets.UTF_8);
+				String lastModified = new String(content, (eTagEnd + 1), (lastModifiedEnd - eTagEnd - 1), StandardCharsets.UTF_8);
+
+				if((!eTag.isEmpty()) || (!lastModified.isEmpty())){
+					return (new Entry((eTag.isEmpty() ? null : eTag), (lastModified.isEmpty() ? null : lastModified), Arrays.copyOfRange(content, (lastModifiedEnd + 1), content.length)));
+				}
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * @param eTag The entity tag of the response, otherwise <code>null</code>.
+	 * @param lastModified The last modified date of the response, otherwise <code>null</code>.
+	 * @param body The response body.
+	 */
+	public void write(String key, String eTag, String lastModified, byte[] body) {
+
+		byte[] eTagBytes = toBytes(eTag);
+		byte[] lastModifiedBytes = toBytes(lastModified);
+		byte[] content = new byte[eTagBytes.length + lastModifiedBytes.length + body.length + 2];
+
+		System.arraycopy(eTagBytes, 0, content, 0, eTagBytes.length);
+		content[eTagBytes.length] = SEPARATOR;
+		System.arraycopy(lastModifiedBytes, 0, content, (eTagBytes.length + 1), lastModifiedBytes.length);
+		content[eTagBytes.length + lastModifiedBytes.length + 1] = SEPARATOR;
+		System.arraycopy(body, 0, content, (eTagBytes.length + lastModifiedBytes.length + 2), body.length);
+
+		cacheDirectory.write(key, content);
+	}
+
+	public void delete(String key) {
+		cacheDirectory.delete(key);
+	}
+
+	private static byte[] toBytes(String value) {
+		return ((value == null) ? new byte[0] : value.replace("\n", "").replace("\r", "").getBytes(StandardCharsets.UTF_8)); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+	}
+
+	private static int indexOf(byte[] content, int start) {
+
+		for(int index = start; index < content.length; index++){
+
+			if(content[index] == SEPARATOR){
+				return index;
+			}
+		}
+
+		return -1;
+	}
+
+	/**
+	 * <p>Cached response.</p>
+	 */
+	static final class Entry {
+
+		private final String eTag;
+		private final String lastModified;
+		private final byte[] body;
+
+		private Entry(String eTag, String lastModified, byte[] body) {
+
+			this.eTag = eTag;
+			this.lastModified = lastModified;
+			this.body = body;
+		}
+
+		public String getETag() {
+			return eTag;
+		}
+
+		public String getLastModified() {
+			return lastModified;
+		}
+
+		public byte[] getBody() {
+			return body;
+		}
+	}
+}
@@ -0,0 +1,200 @@
+/*******************************************************************************
+ * Licensed Materials - Property of IBM
+ * © Copyright IBM Corporation 2011, 2020. All Rights Reserved.
+ *
+ * U.S. Government Users Restricted Rights:
+ * Use, duplication or disclosure restricted by GSA ADP Schedule
+ * Contract with IBM Corp.
+ ******************************************************************************/
+package com.ibm.rqm.api.internal.client;
+
+import java.io.InterruptedIOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.httpclient.Header;
+import org.apache.commons.httpclient.HttpMethod;
+import org.apache.commons.httpclient.util.DateParseException;
+import org.apache.commons.httpclient.util.DateUtil;
+
+import com.ibm.rqm.api.internal.util.IAPIConstants;
+import com.ibm.rqm.api.internal.util.LogUtils;
+
+/**
+ * <p>Policy for retrying failed requests.</p>
+ *
+ * <p>Only transient failures are retried:</p>
+ *
+ * <ul>
+ * <li>I/O errors (for example, connection resets or timeouts).</li>
+ * <li>Server errors (5xx), unless the server indicates the request must not be retried (see {@link IAPIConstants#HTTP_HEADER_NO_RETRY}).</li>
+ * <li>Too many requests (429).</li>
+ * </ul>
+ *
+ * <p>The delay before each retry grows exponentially with random jitter, unless the server specifies
+ * the delay (see {@link #HTTP_HEADER_RETRY_AFTER}).  The number of retries for all requests in a run
+ * is limited by a retry budget, so a run against an unavailable server fails fast once the budget is
+ * spent.</p>
+ *
+ * <p>Note: Instances are thread safe.</p>
+ *
+ *
+ * @version 1.0
+ * @since   1.0
+ */
+final class RetryPolicy implements IAPIConstants {
+
+	public static final int DEFAULT_MAX_ATTEMPTS = 3;
+	public static final int DEFAULT_RETRY_BUDGET = 1000;
+	public static final int SC_TOO_MANY_REQUESTS = 429;
+
+	private static final String HTTP_HEADER_RETRY_AFTER = "Retry-After"; //$NON-NLS-1$
+	private static final long INITIAL_RETRY_DELAY = 1000; //1 second
+	private static final long MAX_RETRY_DELAY = 30000; //30 seconds
+	private static final long MAX_RETRY_AFTER_DELAY = 300000; //5 minutes
+
+	private final int maxAttempts;
+	private final AtomicInteger remainingRetries;
+	private final AtomicBoolean budgetExhausted = new AtomicBoolean(false);
+
+	/**
+	 * @param maxAttempts The maximum number of attempts per request (greater than 0).
+	 * @param retryBudget The maximum number of retries for all requests (0 or greater).
+	 */
+	RetryPolicy(int maxAttempts, int retryBudget) {
+
+		if(maxAttempts < 1){
+			throw new IllegalArgumentException("Invalid maximum number of attempts: " + maxAttempts); //$NON-NLS-1$
+		}
+
+		if(retryBudget < 0){
+			throw new IllegalArgumentException("Invalid retry budget: " + retryBudget); //$NON-NLS-1$
+		}
+
+		this.maxAttempts = maxAttempts;
+		this.remainingRetries = new AtomicInteger(retryBudget);
+	}
+
+	/**
+	 * <p>Determines if the response of an executed method is a transient failure.</p>
+	 */
+	public boolean isRetryable(HttpMethod method) {
+
+		int statusCode = method.getStatusCode();
+
+		if(statusCode == SC_TOO_MANY_REQUESTS){
+			return true;
+		}
+
+		if((statusCode >= 500) && (statusCode <= 599)){
+
+			Header noRetryHeader = method.getResponseHeader(HTTP_HEADER_NO_RETRY);
+
+			return ((noRetryHeader == null) || (!Boolean.parseBoolean(noRetryHeader.getValue().trim())));
+		}
+
+		return false;
+	}
+
+	/**
+	 * <p>Determines if a failed attempt may be retried, and if so, spends one retry of the retry budget.</p>
+	 *
+	 * @param attempt The failed attempt (greater than 0).
+	 * @return <code>true</code> if the failed attempt may be retried, otherwise <code>false</code>.
+	 */
+	public boolean acquireRetry(int attempt) {
+
+		if(attempt >= maxAttempts){
+			return false;
+		}
+
+		while(true){
+
+			int retries = remainingRetries.get();
+
+			if(retries <= 0){
+
+				if(budgetExhausted.compareAndSet(false, true)){
+					LogUtils.logInfo("Retry budget exhausted, failed requests will not be retried"); //$NON-NLS-1$
+				}
+
+				return false;
+			}
+
+			if(remainingRetries.compareAndSet(retries, (retries - 1))){
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * <p>Resolves the delay before retrying a failed attempt.</p>
+	 *
+	 * @param attempt The failed attempt (greater than 0).
+	 * @param method The method of the failed attempt.
+	 * @return The delay in milliseconds.
+	 */
+	public long getRetryDelay(int attempt, HttpMethod method) {
+
+		long retryAfterDelay = getRetryAfterDelay(method);
+
+		if(retryAfterDelay >= 0){
+			return retryAfterDelay;
+		}
+
+		//Exponential backoff with equal jitter (half fixed, half random):
+		long delay = Math.min(MAX_RETRY_DELAY, (INITIAL_RETRY_DELAY << Math.min((attempt - 1), 16)));
+		long halfDelay = (delay / 2);
+
+		return (halfDelay + ThreadLocalRandom.current().nextLong(halfDelay + 1));
+	}
+
+	public void sleep(long delay) throws InterruptedIOException {
+
+		try {
+			Thread.sleep(delay);
+		}
+		catch (InterruptedException e) {
+
+			Thread.currentThread().interrupt();
+
+			throw new InterruptedIOException("Interrupted while waiting to retry the request"); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * <p>Resolves the delay specified by the server, in delay-seconds or as an HTTP-date.</p>
+	 *
+	 * @return The delay in milliseconds, otherwise <code>-1</code> if the server did not specify a (valid) delay.
+	 */
+	private static long getRetryAfterDelay(HttpMethod method) {
+
+		Header retryAfterHeader = method.getResponseHeader(HTTP_HEADER_RETRY_AFTER);
+
+		if((retryAfterHeader != null) && (retryAfterHeader.getValue() != null)){
+
+			String retryAfter = retryAfterHeader.getValue().trim();
+			long delay = -1;
+
+			try {
+				delay = (Long.parseLong(retryAfter) * 1000);
+			}
+			catch (NumberFormatException n) {
+
+				try {
+					delay = Math.max(0, (DateUtil.parseDate(retryAfter).getTime() - System.currentTimeMillis()));
+				}
+				catch (DateParseException d) {
+					//Ignore since an invalid value.
+				}
+			}
+
+			if(delay >= 0){
+				return (Math.min(delay, MAX_RETRY_AFTER_DELAY));
+			}
+		}
+
+		return -1;
+	}
+}
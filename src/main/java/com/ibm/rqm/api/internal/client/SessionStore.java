@@ -0,0 +1,185 @@
+/*******************************************************************************
+ * Licensed Materials - Property of IBM
+ * © Copyright IBM Corporation 2011, 2020. All Rights Reserved.
+ *
+ * U.S. Government Users Restricted Rights:
+ * Use, duplication or disclosure restricted by GSA ADP Schedule
+ * Contract with IBM Corp.
+ ******************************************************************************/
+package com.ibm.rqm.api.internal.client;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.apache.commons.httpclient.Cookie;
+
+import com.ibm.rqm.api.internal.util.IAPIConstants;
+import com.ibm.rqm.api.internal.util.LogUtils;
+
+/**
+ * <p>Local file persisting the session cookies of a user on a server, so the session can be reused
+ * by later runs without logging in.</p>
+ *
+ * <p>The file is only readable and writable by the owner (when supported by the file system) and is
+ * replaced atomically.  The session is only reused for the same server and user.</p>
+ *
+ * <p>File format (UTF-8, tab-separated):</p>
+ *
+ * <pre>
+ * session	&lt;server URL&gt;	&lt;user&gt;	&lt;login time&gt;
+ * cookie	&lt;domain&gt;	&lt;path&gt;	&lt;name&gt;	&lt;value&gt;	&lt;expiry time or -1&gt;	&lt;secure&gt;
+ * ...
+ * </pre>
+ *
+ *
+ * @version 1.0
+ * @since   1.0
+ */
+final class SessionStore implements IAPIConstants {
+
+	private static final String SESSION_RECORD = "session"; //$NON-NLS-1$
+	private static final String COOKIE_RECORD = "cookie"; //$NON-NLS-1$
+	private static final String SEPARATOR = "\t"; //$NON-NLS-1$
+
+	private final Path sessionFile;
+
+	SessionStore(Path sessionFile) {
+		this.sessionFile = sessionFile;
+	}
+
+	/**
+	 * <p>Reads the unexpired session cookies of a user on a server.</p>
+	 *
+	 * @return The session, otherwise <code>null</code> if no session is persisted for the server and user or the file is invalid.
+	 */
+	public Session read(String serverUrl, String username) {
+
+		try {
+
+			BufferedReader reader = Files.newBufferedReader(sessionFile, StandardCharsets.UTF_8);
+
+			try {
+
+				String[] sessionRecord = split(reader.readLine());
+
+				if((sessionRecord.length != 4) || (!SESSION_RECORD.equals(sessionRecord[0])) || (!serverUrl.equals(sessionRecord[1])) || (!username.equals(sessionRecord[2]))){
+					return null;
+				}
+
+				long loginTime = Long.parseLong(sessionRecord[3]);
+				long now = System.currentTimeMillis();
+				List<Cookie> cookies = new ArrayList<Cookie>();
+				String line = null;
+
+				while((line = reader.readLine()) != null){
+
+					String[] cookieRecord = split(line);
+
+					if((cookieRecord.length != 7) || (!COOKIE_RECORD.equals(cookieRecord[0]))){
+						return null;
+					}
+
+					long expiryTime = Long.parseLong(cookieRecord[5]);
+
+					if((expiryTime == -1) || (expiryTime > now)){
+						cookies.add(new Cookie(cookieRecord[1], cookieRecord[3], cookieRecord[4], cookieRecord[2], ((expiryTime == -1) ? null : new Date(expiryTime)), Boolean.parseBoolean(cookieRecord[6])));
+					}
+				}
+
+				return (cookies.isEmpty() ? null : new Session(loginTime, cookies.toArray(new Cookie[cookies.size()])));
+			}
+			finally {
+				reader.close();
+			}
+		}
+		catch (NoSuchFileException n) {
+			return null;
+		}
+		catch (IOException i) {
+
+			LogUtils.logWarning("Error reading the session file '" + sessionFile + "'", i); //$NON-NLS-1$ //$NON-NLS-2$
+
+			return null;
+		}
+		catch (NumberFormatException n) {
+			return null;
+		}
+	}
+
+	/**
+	 * <p>Persists the session cookies of a user on a server, replacing the persisted session (if any).</p>
+	 */
+	public void write(String serverUrl, String username, long loginTime, Cookie[] cookies) {
+
+		StringBuilder content = new StringBuilder();
+
+		content.append(join(SESSION_RECORD, serverUrl, username, String.valueOf(loginTime))).append(LINE_SEPARATOR);
+
+		for(Cookie cookie : cookies){
+
+			Date expiryDate = cookie.getExpiryDate();
+
+			content.append(join(COOKIE_RECORD, cookie.getDomain(), cookie.getPath(), cookie.getName(), cookie.getValue(), String.valueOf((expiryDate == null) ? -1 : expiryDate.getTime()), String.valueOf(cookie.getSecure()))).append(LINE_SEPARATOR);
+		}
+
+		CacheDirectory.writeFile(sessionFile, content.toString());
+	}
+
+	/**
+	 * <p>Deletes the persisted session (if any).</p>
+	 */
+	public void delete() {
+		CacheDirectory.deleteFile(sessionFile);
+	}
+
+	private static String[] split(String line) {
+		return ((line == null) ? new String[0] : line.split(SEPARATOR, -1));
+	}
+
+	private static String join(String... values) {
+
+		StringBuilder line = new StringBuilder();
+
+		for(String value : values){
+
+			if(line.length() > 0){
+				line.append(SEPARATOR);
+			}
+
+			//Note: Tabs and line breaks are not valid in cookies, URLs, or user names.
+			line.append((value == null) ? "" : value.replaceAll("[\t\r\n]", "")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		}
+
+		return (line.toString());
+	}
+
+	/**
+	 * <p>Persisted session.</p>
+	 */
+	static final class Session {
+
+		private final long loginTime;
+		private final Cookie[] cookies;
+
+		private Session(long loginTime, Cookie[] cookies) {
+
+			this.loginTime = loginTime;
+			this.cookies = cookies;
+		}
+
+		public long getLoginTime() {
+			return loginTime;
+		}
+
+		public Cookie[] getCookies() {
+			return cookies;
+		}
+	}
+}
@@ -11,12 +11,15 @@ package com.ibm.rqm.api.internal.client.qm;
 import java.io.IOException;
 import java.net.URL;
 import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import com.ibm.rqm.api.internal.client.JazzHttpClient;
 import com.ibm.rqm.api.internal.util.FeedReader;
+import com.ibm.rqm.api.internal.util.LogUtils;
 
 /**
  * <p>Quality Management (QM) OSLC HTTP client.</p>
@@ -28,6 +31,11 @@ import com.ibm.rqm.api.internal.util.FeedReader;
  */
 public final class APIHttpClient extends JazzHttpClient {
 
+	/**
+	 * <p>Time the project area aliases are cached between runs (see {@link #setCacheDirectory(java.nio.file.Path)}).</p>
+	 */
+	public static final long PROJECT_AREA_ALIASES_TIME_TO_LIVE = 3600000; //1 hour
+
 	private List<String> projectAreaAliases = null;
 
 	public APIHttpClient(URL serverUrl) {                
@@ -35,33 +43,64 @@ public final class APIHttpClient extends JazzHttpClient {
 	}
 
 	@Override
-	public int login(String username, String password) throws IOException{	    
+	public Map<String, String> getRequestHeaders() {
+
+		Map<String, String> requestHeaders = new HashMap<String, String>();
+		requestHeaders.put(HTTP_HEADER_ACCEPT, MEDIA_TYPE_APPLICATION_XML);
+		requestHeaders.put(HTTP_HEADER_REFERER, getServerUrl());
+
+		return requestHeaders;
+	}
 
-		int returnCode = super.login(username, password);
+	/**
+	 * <p>Resolves the aliases of the project areas of the user on the server.</p>
+	 * 
+	 * <p>The project area aliases are resolved on first use from the projects feed, and cached between runs 
+	 * (see {@link #PROJECT_AREA_ALIASES_TIME_TO_LIVE}) when there is a cache directory.</p>
+	 * 
+	 * @return The project area aliases.
+	 */
+	public synchronized List<String> getProjectAreaAliases() throws IOException{
 
 		if(projectAreaAliases == null){
 
-			final String projectsType = "projects"; //$NON-NLS-1$
-			
-			final String projectsFeedUri = MessageFormat.format(URI_TEMPLATE_INTEGRATION_SERVICE_FEED, new Object[]{getServerUrl(), projectsType});
+			final String cacheKey = ("projects " + getServerUrl() + " " + getUsername()); //$NON-NLS-1$ //$NON-NLS-2$
 
-			projectAreaAliases = FeedReader.getIds(this, projectsFeedUri, projectsType, false);	
-		}
+			String cachedProjectAreaAliases = readCache(cacheKey, PROJECT_AREA_ALIASES_TIME_TO_LIVE);
 
-		return returnCode;
-	}
+			if(cachedProjectAreaAliases != null){
 
-	@Override
-	public Map<String, String> getRequestHeaders() {
+				LogUtils.logTrace("Project area aliases read from the cache directory"); //$NON-NLS-1$
 
-		Map<String, String> requestHeaders = new HashMap<String, String>();
-		requestHeaders.put(HTTP_HEADER_ACCEPT, MEDIA_TYPE_APPLICATION_XML);
-		requestHeaders.put(HTTP_HEADER_REFERER, getServerUrl());
+				projectAreaAliases = new ArrayList<String>(Arrays.asList(cachedProjectAreaAliases.split("\\n"))); //$NON-NLS-1$
+			}
+			else{
 
-		return requestHeaders;
-	}
+				final String projectsType = "projects"; //$NON-NLS-1$
+
+				final String projectsFeedUri = MessageFormat.format(URI_TEMPLATE_INTEGRATION_SERVICE_FEED, new Object[]{getServerUrl(), projectsType});
+
+				projectAreaAliases = FeedReader.getIds(this, projectsFeedUri, projectsType, false);	
+
+				//Note: An empty list is not cached since the server URL may be invalid.
+				if(!projectAreaAliases.isEmpty()){
+
+					StringBuilder projectAreaAliasesContent = new StringBuilder();
+
+					for(String projectAreaAlias : projectAreaAliases){
+
+						if(projectAreaAliasesContent.length() > 0){
+							projectAreaAliasesContent.append('\n');
+						}
+
+						projectAreaAliasesContent.append(projectAreaAlias);
+					}
+
+					writeCache(cacheKey, projectAreaAliasesContent.toString());
+				}
+			}
+		}
 
-	public List<String> getProjectAreaAliases(){
 		return projectAreaAliases;
 	}
 }
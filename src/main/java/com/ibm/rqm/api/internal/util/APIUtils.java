@@ -13,8 +13,6 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import org.jdom.Attribute;
 import org.jdom.Element;
@@ -29,6 +27,11 @@ import org.jdom.Element;
  */
 public class APIUtils {
 
+	/**
+	 * <p>The maximum length of a decimal numeric character reference examined when scrubbing XML content.</p>
+	 */
+	static final int MAX_CHARACTER_REFERENCE_LENGTH = 16;
+
 	public static InputStream copy(InputStream incomingStream) throws IOException {
 		return new ByteArrayInputStream(toByteArray(incomingStream));
 	}
@@ -67,7 +70,7 @@ public class APIUtils {
 		return xml;
 	}
 
-	private static byte[] toByteArray(InputStream inputStream) throws IOException {
+	public static byte[] toByteArray(InputStream inputStream) throws IOException {
 		ByteArrayOutputStream fileBytesOutputStream = new ByteArrayOutputStream();
 		try {
 			int read;
@@ -128,69 +131,57 @@ public class APIUtils {
 	 * 
 	 * @see <link>http://www.w3.org/TR/2000/REC-xml-20001006#NT-Char</link>
 	 */
-	//Note: Copied from com.ibm.rqm.integration.service.Util.scrubXmlCharacters(String).
+	//Note: Adapted from com.ibm.rqm.integration.service.Util.scrubXmlCharacters(String).
+	//Note: Scrubs the string in one pass and returns the same string when no characters are removed or escaped (see XMLCharacterScrubbingReader).
 	public static String scrubXmlCharacters (String s) {
 		if (s == null || "".equals(s)) { //$NON-NLS-1$
 			return s;
 		}
 	
-		// Escaped control characters such as &#11; are not
-		// valid in xml 1.0.  Including them in the xml would
-		// cause any well written xml parser to fail.  These
-		// characters need to be unescaped in the string so
-		// that they can be checked by the character range
-		// check below
-		Pattern entityEscapePattern = Pattern.compile("&#(\\d+);"); //$NON-NLS-1$
-		Matcher matcher = entityEscapePattern.matcher(s);
-		while (matcher.find()) {
-			int unescaped = Integer.valueOf(matcher.group(1));
-			char character = ((char)(unescaped));
-			if (!isValidXmlCharacter(character)) {
-				s = s.replaceAll(matcher.group(), Character.toString(character));
-			}
-		}
-	
-		// ensure that all characters in the string are
-		// in the range:
-		// #x9 | #xA | #xD | [#x20-#xD7FF] | [#xE000-#xFFFD] | [#x10000-#x10FFFF]
-		// characters not in this range will be omitted
-		// from the string
 		final int len = s.length();
-		final StringBuilder builder = new StringBuilder();
-		for (int i=0; i<len; i++) {
+		
+		// Find the first character to remove or escape:
+		int i = 0;
+		while ((i < len) && (!isScrubbedCharacter(s, i, len))) {
+			i++;
+		}
+		
+		if (i == len) {
+			return s;
+		}
+		
+		final StringBuilder builder = new StringBuilder(len + 16);
+		builder.append(s, 0, i);
+		
+		for (; i<len; i++) {
 			char c = s.charAt(i);
 
+			// Escaped control characters such as &#11; are not
+			// valid in xml 1.0.  Including them in the xml would
+			// cause any well written xml parser to fail, so they 
+			// are removed.
+			if (c == '&') {
+				int referenceLength = getInvalidCharacterReferenceLength(s, i, len);
+				if (referenceLength > 0) {
+					i += (referenceLength - 1);
+				}
+				else {
+					builder.append(c);
+				}
+			}
+			
 			//Escape special characters (including Microsoft smart punctuation) with a decimal numeric character reference:
-			//  0x2013: en dash
-			//  0x2014: em dash 
-			//  0x2032: prime 
-			//  0x201C: left double quotation mark
-			//  0x201D: right double quotation mark
-			//  0x2018: left single quotation mark
-			//  0x2019: right single quotation mark
-			//  0x00A0: no-break space
-			//  0x00AD: soft hyphen
-			//  0x00B5: micro sign
-			//  0x0247: latin small letter e with stroke
-			//  0x2011: non-breaking hyphen
-			//  0x2026: horizontal ellipsis
-	        if((c == 0x2013) ||
-	        		(c == 0x2014) ||
-	        		(c == 0x2032) ||
-	        		(c == 0x201C) ||
-	        		(c == 0x201D) ||
-	        		(c == 0x2018) ||
-	        		(c == 0x2019) ||
-	        		(c == 0x00A0) ||
-	        		(c == 0x00AD) ||
-	        		(c == 0x00B5) ||
-	        		(c == 0x0247) ||
-	        		(c == 0x2011) ||
-	        		(c == 0x2026)){
+			else if(isEscapedCharacter(c)){
 				builder.append("&#"); //$NON-NLS-1$
 				builder.append(((int)(c)));
-				builder.append(";"); //$NON-NLS-1$
+				builder.append(';');
 			}
+			
+			// ensure that all characters in the string are
+			// in the range:
+			// #x9 | #xA | #xD | [#x20-#xD7FF] | [#xE000-#xFFFD] | [#x10000-#x10FFFF]
+			// characters not in this range will be omitted
+			// from the string
 			else if (isValidXmlCharacter(c)){
 				builder.append(c);
 			}
@@ -199,7 +190,8 @@ public class APIUtils {
 				if (Character.isLowSurrogate(c2)) {
 					builder.append("&#"); //$NON-NLS-1$
 					builder.append(Character.toCodePoint(c, c2));
-					builder.append(";"); //$NON-NLS-1$
+					builder.append(';');
+					i++;
 				}
 			}
 		}
@@ -207,6 +199,93 @@ public class APIUtils {
 		return builder.toString();
 	}
 	
+	/**
+	 * <p>Determines if the character at an index is removed or escaped when scrubbing XML content 
+	 * (see {@link #scrubXmlCharacters(String)}).</p>
+	 */
+	private static boolean isScrubbedCharacter(String s, int index, int length) {
+		
+		char c = s.charAt(index);
+		
+		if (c == '&') {
+			return (getInvalidCharacterReferenceLength(s, index, length) > 0);
+		}
+		
+		return ((isEscapedCharacter(c)) || (!isValidXmlCharacter(c)));
+	}
+	
+	/**
+	 * <p>Determines if a character is escaped with a decimal numeric character reference when scrubbing XML content 
+	 * (see {@link #scrubXmlCharacters(String)}).</p>
+	 */
+	static boolean isEscapedCharacter(char character) {
+
+		//Special characters (including Microsoft smart punctuation):
+		//  0x2013: en dash
+		//  0x2014: em dash 
+		//  0x2032: prime 
+		//  0x201C: left double quotation mark
+		//  0x201D: right double quotation mark
+		//  0x2018: left single quotation mark
+		//  0x2019: right single quotation mark
+		//  0x00A0: no-break space
+		//  0x00AD: soft hyphen
+		//  0x00B5: micro sign
+		//  0x0247: latin small letter e with stroke
+		//  0x2011: non-breaking hyphen
+		//  0x2026: horizontal ellipsis
+		return ((character == 0x2013) ||
+				(character == 0x2014) ||
+				(character == 0x2032) ||
+				(character == 0x201C) ||
+				(character == 0x201D) ||
+				(character == 0x2018) ||
+				(character == 0x2019) ||
+				(character == 0x00A0) ||
+				(character == 0x00AD) ||
+				(character == 0x00B5) ||
+				(character == 0x0247) ||
+				(character == 0x2011) ||
+				(character == 0x2026));
+	}
+
+	/**
+	 * <p>Resolves the length of a decimal numeric character reference (for example, <code>&amp;#11;</code>) referencing an 
+	 * invalid XML character (see {@link #isValidXmlCharacter(int)}) starting at an index.</p>
+	 * 
+	 * <p>Only the first {@link #MAX_CHARACTER_REFERENCE_LENGTH} characters from the index are examined.</p>
+	 * 
+	 * @param characters The characters.
+	 * @param start The index of the <code>&amp;</code> character.
+	 * @param end The index after the last available character.
+	 * @return The length of the invalid character reference, otherwise <code>0</code> if there is no invalid character reference at the index.
+	 */
+	static int getInvalidCharacterReferenceLength(CharSequence characters, int start, int end) {
+
+		end = Math.min(end, (start + MAX_CHARACTER_REFERENCE_LENGTH));
+
+		if(((start + 3) >= end) || (characters.charAt(start) != '&') || (characters.charAt(start + 1) != '#')){
+			return 0;
+		}
+
+		int codePoint = 0;
+		int index = (start + 2);
+
+		while((index < end) && (characters.charAt(index) >= '0') && (characters.charAt(index) <= '9')){
+
+			//Note: Cap the code point to avoid overflow since any code point beyond the Unicode range is invalid.
+			codePoint = Math.min(((codePoint * 10) + (characters.charAt(index) - '0')), (Character.MAX_CODE_POINT + 1));
+
+			index++;
+		}
+
+		if((index == (start + 2)) || (index >= end) || (characters.charAt(index) != ';') || (isValidXmlCharacter(codePoint))){
+			return 0;
+		}
+
+		return ((index + 1) - start);
+	}
+	
 	/**
 	 * <p>Determines if a character is a valid XML character.</p>
 	 * 
@@ -224,7 +303,7 @@ public class APIUtils {
 	 * 
 	 */
 	//Note: Copied from com.ibm.rqm.integration.service.Util.isValidXmlCharacter(char).
-	private static boolean isValidXmlCharacter(char character) {
+	static boolean isValidXmlCharacter(int character) {
 		return ((character == 0x9) ||
 				(character == 0xA) ||
 				(character == 0xD) ||
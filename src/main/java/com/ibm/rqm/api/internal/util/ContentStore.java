@@ -0,0 +1,349 @@
+/*******************************************************************************
+ * Licensed Materials - Property of IBM
+ * © Copyright IBM Corporation 2011, 2020. All Rights Reserved.
+ *
+ * U.S. Government Users Restricted Rights:
+ * Use, duplication or disclosure restricted by GSA ADP Schedule
+ * Contract with IBM Corp.
+ ******************************************************************************/
+package com.ibm.rqm.api.internal.util;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * <p>Local directory storing content by the SHA-256 hash of the content, so the same content is only stored once.</p>
+ *
+ * <p>Content is streamed to a temporary file in the directory while it is hashed, then moved to
+ * <code>&lt;first two hash characters&gt;/&lt;hash&gt;</code> in the directory.  When the content is
+ * already stored (for example, by an earlier run), the temporary file is discarded.</p>
+ *
+ * <p>Note: Instances are thread safe.</p>
+ *
+ *
+ * @version 1.0
+ * @since   1.0
+ */
+public final class ContentStore {
+
+	private static final String TEMPORARY_FILE_PREFIX = "content"; //$NON-NLS-1$
+	private static final String TEMPORARY_FILE_SUFFIX = ".tmp"; //$NON-NLS-1$
+	private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray(); //$NON-NLS-1$
+	private static final int HASH_LENGTH = 64; //SHA-256 (hexadecimal)
+
+	private final Path directory;
+
+	//Note: Moves of the content stored by this instance keyed by hash, so concurrent stores of the same content are only moved once and share the result (or failure) of the move.
+	private final ConcurrentMap<String, FutureTask<Boolean>> storedHashes = new ConcurrentHashMap<String, FutureTask<Boolean>>();
+
+	/**
+	 * <p>Creates the directory (if it does not exist).</p>
+	 */
+	public ContentStore(Path directory) throws IOException {
+
+		Files.createDirectories(directory);
+
+		this.directory = directory;
+	}
+
+	public Path getDirectory() {
+		return directory;
+	}
+
+	/**
+	 * <p>Stores the content written by a content writer.</p>
+	 *
+	 * <p>Concurrent stores of the same content share the move of the content to the directory.  Content that could 
+	 * not be moved is not shared, so later stores of the same content move the content again.</p>
+	 *
+	 * @param contentWriter The content writer.
+	 * @return The stored content.
+	 * @throws IOException The content could not be written or moved (including by a concurrent store of the same content).
+	 */
+	public StoredContent store(ContentWriter contentWriter) throws IOException {
+
+		final Path temporaryFile = Files.createTempFile(directory, TEMPORARY_FILE_PREFIX, TEMPORARY_FILE_SUFFIX);
+
+		try {
+
+			MessageDigest digest = getDigest();
+			long size = 0;
+			FileChannel channel = FileChannel.open(temporaryFile, StandardOpenOption.WRITE);
+
+			try {
+
+				HashingChannel hashingChannel = new HashingChannel(channel, digest);
+
+				contentWriter.write(hashingChannel);
+
+				size = hashingChannel.getSize();
+			}
+			finally {
+				channel.close();
+			}
+
+			String hash = toHex(digest.digest());
+			final Path file = getFile(hash);
+
+			FutureTask<Boolean> moveTask = new FutureTask<Boolean>(new Callable<Boolean>() {
+
+				@Override
+				public Boolean call() throws Exception {
+					return (move(temporaryFile, file));
+				}
+			});
+
+			FutureTask<Boolean> sharedMoveTask = storedHashes.putIfAbsent(hash, moveTask);
+			boolean stored = false;
+
+			if(sharedMoveTask == null){
+
+				sharedMoveTask = moveTask;
+
+				sharedMoveTask.run();
+			}
+
+			try {
+
+				boolean moved = sharedMoveTask.get();
+
+				//Note: Only the store moving the content stored the content.
+				stored = ((sharedMoveTask == moveTask) && (moved));
+			}
+			catch (InterruptedException i) {
+
+				Thread.currentThread().interrupt();
+
+				throw new InterruptedIOException("Interrupted storing content " + hash); //$NON-NLS-1$
+			}
+			catch (ExecutionException e) {
+
+				storedHashes.remove(hash, sharedMoveTask);
+
+				Throwable cause = e.getCause();
+
+				if(cause instanceof IOException){
+					throw ((IOException)(cause));
+				}
+
+				throw new IOException("Error storing content " + hash, cause); //$NON-NLS-1$
+			}
+
+			return (new StoredContent(hash, directory.relativize(file), size, stored));
+		}
+		finally {
+			Files.deleteIfExists(temporaryFile);
+		}
+	}
+
+	/**
+	 * <p>Determines if content is stored in the directory, that is, the content file exists with the size of the content.</p>
+	 *
+	 * @param hash The SHA-256 hash (hexadecimal) of the content.
+	 * @param size The size of the content.
+	 * @return <code>true</code> if the content is stored, otherwise <code>false</code>.
+	 */
+	public boolean isStored(String hash, long size) throws IOException {
+
+		if((hash.length() != HASH_LENGTH) || (!isHex(hash))){
+			return false;
+		}
+
+		Path file = getFile(hash);
+
+		return ((Files.isRegularFile(file)) && (Files.size(file) == size));
+	}
+
+	/**
+	 * @return The path of the content file of a hash, relative to the directory.
+	 */
+	public static Path getPath(String hash) {
+		return (Paths.get(hash.substring(0, 2), hash));
+	}
+
+	private Path getFile(String hash) {
+		return (directory.resolve(getPath(hash)));
+	}
+
+	/**
+	 * <p>Moves a temporary file to the content file, unless the content file exists (for example, stored by an earlier or concurrent run).</p>
+	 *
+	 * @return <code>true</code> if the temporary file was moved, otherwise <code>false</code> if the content file exists.
+	 */
+	private static boolean move(Path temporaryFile, Path file) throws IOException {
+
+		if(Files.exists(file)){
+			return false;
+		}
+
+		Files.createDirectories(file.getParent());
+
+		try {
+			Files.move(temporaryFile, file, StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (AtomicMoveNotSupportedException a) {
+
+			try {
+				Files.move(temporaryFile, file);
+			}
+			catch (FileAlreadyExistsException f) {
+				return false;
+			}
+		}
+		catch (FileAlreadyExistsException f) {
+			return false;
+		}
+
+		return true;
+	}
+
+	private static boolean isHex(String value) {
+
+		for(int index = 0; index < value.length(); index++){
+
+			char character = value.charAt(index);
+
+			if(((character < '0') || (character > '9')) && ((character < 'a') || (character > 'f'))){
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	private static MessageDigest getDigest() {
+
+		try {
+			return (MessageDigest.getInstance("SHA-256")); //$NON-NLS-1$
+		}
+		catch (NoSuchAlgorithmException n) {
+
+			//Note: Every Java platform supports SHA-256.
+			throw new IllegalStateException(n);
+		}
+	}
+
+	private static String toHex(byte[] bytes) {
+
+		StringBuilder hex = new StringBuilder(bytes.length * 2);
+
+		for(byte hashByte : bytes){
+			hex.append(HEX_DIGITS[(hashByte >> 4) & 0x0F]).append(HEX_DIGITS[hashByte & 0x0F]);
+		}
+
+		return (hex.toString());
+	}
+
+	/**
+	 * <p>Writer of content to a channel.</p>
+	 */
+	public interface ContentWriter {
+
+		public void write(WritableByteChannel channel) throws IOException;
+	}
+
+	/**
+	 * <p>Stored content.</p>
+	 */
+	public static final class StoredContent {
+
+		private final String hash;
+		private final Path path;
+		private final long size;
+		private final boolean stored;
+
+		private StoredContent(String hash, Path path, long size, boolean stored) {
+
+			this.hash = hash;
+			this.path = path;
+			this.size = size;
+			this.stored = stored;
+		}
+
+		/**
+		 * @return The SHA-256 hash (hexadecimal) of the content.
+		 */
+		public String getHash() {
+			return hash;
+		}
+
+		/**
+		 * @return The path of the content file, relative to the directory.
+		 */
+		public Path getPath() {
+			return path;
+		}
+
+		public long getSize() {
+			return size;
+		}
+
+		/**
+		 * @return <code>true</code> if the content was stored, otherwise <code>false</code> if the content was already stored.
+		 */
+		public boolean isStored() {
+			return stored;
+		}
+	}
+
+	/**
+	 * <p>Channel hashing the content written to a channel.</p>
+	 */
+	private static final class HashingChannel implements WritableByteChannel {
+
+		private final WritableByteChannel channel;
+		private final MessageDigest digest;
+		private long size = 0;
+
+		private HashingChannel(WritableByteChannel channel, MessageDigest digest) {
+
+			this.channel = channel;
+			this.digest = digest;
+		}
+
+		@Override
+		public int write(ByteBuffer buffer) throws IOException {
+
+			ByteBuffer content = buffer.duplicate();
+			int written = channel.write(buffer);
+
+			content.limit(content.position() + written);
+			digest.update(content);
+
+			size += written;
+
+			return written;
+		}
+
+		@Override
+		public boolean isOpen() {
+			return (channel.isOpen());
+		}
+
+		@Override
+		public void close() throws IOException {
+			channel.close();
+		}
+
+		public long getSize() {
+			return size;
+		}
+	}
+}
@@ -0,0 +1,81 @@
+/*******************************************************************************
+ * Licensed Materials - Property of IBM
+ * © Copyright IBM Corporation 2011, 2020. All Rights Reserved.
+ *
+ * U.S. Government Users Restricted Rights:
+ * Use, duplication or disclosure restricted by GSA ADP Schedule
+ * Contract with IBM Corp.
+ ******************************************************************************/
+package com.ibm.rqm.api.internal.util;
+
+/**
+ * <p>Summary of an entry in a feed.</p>
+ *
+ * <p>Only the ID, updated date/time, archived/purged flags, and (optionally) resource content of the
+ * entry are retained.  The remaining content of the entry is discarded when the feed is read.</p>
+ *
+ *
+ * @version 1.0
+ * @since   1.0
+ * @see     FeedReader#getEntryIterator(com.ibm.rqm.api.internal.client.JazzHttpClient, String, String, boolean, FeedReader.Include, boolean)
+ */
+public final class FeedEntry {
+
+	private final String id;
+	private final String resourceId;
+	private final String updated;
+	private final boolean archived;
+	private final boolean purged;
+	private final String content;
+
+	FeedEntry(String id, String resourceId, String updated, boolean archived, boolean purged, String content) {
+
+		this.id = id;
+		this.resourceId = resourceId;
+		this.updated = updated;
+		this.archived = archived;
+		this.purged = purged;
+		this.content = content;
+	}
+
+	/**
+	 * @return The ID (<code>&lt;id&gt;</code>) of the entry, otherwise <code>null</code>.
+	 */
+	public String getId() {
+		return id;
+	}
+
+	/**
+	 * @return The resource ID (see {@link FeedReader#getIds(com.ibm.rqm.api.internal.client.JazzHttpClient, String, String, boolean)}) of the entry, otherwise <code>null</code>.
+	 */
+	public String getResourceId() {
+		return resourceId;
+	}
+
+	/**
+	 * @return The updated date/time (<code>&lt;updated&gt;</code>) of the entry, otherwise <code>null</code>.
+	 */
+	public String getUpdated() {
+		return updated;
+	}
+
+	public boolean isArchived() {
+		return archived;
+	}
+
+	public boolean isPurged() {
+		return purged;
+	}
+
+	/**
+	 * @return The resource XML (<code>&lt;content&gt;</code>) of the entry, otherwise <code>null</code> if the resource content was not read or the entry is abbreviated.
+	 */
+	public String getContent() {
+		return content;
+	}
+
+	@Override
+	public String toString() {
+		return id;
+	}
+}
@@ -0,0 +1,182 @@
+/*******************************************************************************
+ * Licensed Materials - Property of IBM
+ * © Copyright IBM Corporation 2011, 2020. All Rights Reserved.
+ *
+ * U.S. Government Users Restricted Rights:
+ * Use, duplication or disclosure restricted by GSA ADP Schedule
+ * Contract with IBM Corp.
+ ******************************************************************************/
+package com.ibm.rqm.api.internal.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * <p>Lazy iterator over the items in the pages of a feed.</p>
+ *
+ * <p>Items are returned as each page is read.  While the items in a page are iterated, up to
+ * <code>prefetchSize</code> of the following pages are read in the background, so the memory
+ * held by the iterator is bounded by a few pages instead of the whole feed.</p>
+ *
+ * <p>Note: Instances are not thread safe and are intended to be used by a single thread.  The
+ * iterator must be closed when not iterated to the end to cancel the prefetched pages.</p>
+ *
+ *
+ * @version 1.0
+ * @since   1.0
+ * @see     FeedReader#getIdIterator(com.ibm.rqm.api.internal.client.JazzHttpClient, String, String, boolean, FeedReader.Include)
+ */
+public final class FeedIterator<T> implements Closeable {
+
+	/**
+	 * <p>Reader of the items in a page of a feed.</p>
+	 */
+	public interface PageReader<T> {
+
+		/**
+		 * <p>Reads the items in a page of the feed.</p>
+		 *
+		 * <p>Note: This method may be called concurrently.</p>
+		 *
+		 * @param page The page (greater than 0) of the feed.
+		 * @return The items in the page of the feed.
+		 */
+		public List<T> readPage(int page) throws Exception;
+	}
+
+	private final int lastPage;
+	private final PageReader<T> pageReader;
+	private final ExecutorService executorService;
+	private final int prefetchSize;
+	private final Deque<Future<List<T>>> prefetchedPages;
+	private Iterator<T> pageIterator;
+	private int nextPage = 1;
+
+	/**
+	 * @param firstPageItems The items in the first page of the feed.
+	 * @param lastPage The last page of the feed, otherwise <code>0</code> if the feed contains one page.
+	 * @param pageReader The reader of the remaining pages of the feed.
+	 * @param executorService The executor service prefetching the remaining pages, or <code>null</code> to read the remaining pages on the calling thread.
+	 * @param prefetchSize The maximum number of prefetched pages (greater than 0).
+	 */
+	FeedIterator(List<T> firstPageItems, int lastPage, PageReader<T> pageReader, ExecutorService executorService, int prefetchSize) {
+
+		if(prefetchSize < 1){
+			throw new IllegalArgumentException("Invalid prefetch size: " + prefetchSize); //$NON-NLS-1$
+		}
+
+		this.pageIterator = firstPageItems.iterator();
+		this.lastPage = lastPage;
+		this.pageReader = pageReader;
+		this.executorService = executorService;
+		this.prefetchSize = prefetchSize;
+		this.prefetchedPages = new ArrayDeque<Future<List<T>>>(prefetchSize);
+
+		prefetch();
+	}
+
+	public boolean hasNext() throws IOException {
+
+		while(!pageIterator.hasNext()){
+
+			if((nextPage > lastPage) && (prefetchedPages.isEmpty())){
+				return false;
+			}
+
+			pageIterator = readNextPage().iterator();
+
+			prefetch();
+		}
+
+		return true;
+	}
+
+	public T next() throws IOException {
+
+		if(!hasNext()){
+			throw new NoSuchElementException();
+		}
+
+		return (pageIterator.next());
+	}
+
+	/**
+	 * <p>Cancels the prefetched pages.</p>
+	 */
+	@Override
+	public void close() {
+
+		nextPage = (lastPage + 1);
+
+		while(!prefetchedPages.isEmpty()){
+			prefetchedPages.removeFirst().cancel(true);
+		}
+	}
+
+	private void prefetch() {
+
+		if(executorService != null){
+
+			while((nextPage <= lastPage) && (prefetchedPages.size() < prefetchSize)){
+
+				final int page = nextPage++;
+
+				prefetchedPages.addLast(executorService.submit(new Callable<List<T>>() {
+
+					@Override
+					public List<T> call() throws Exception {
+						return (pageReader.readPage(page));
+					}
+				}));
+			}
+		}
+	}
+
+	private List<T> readNextPage() throws IOException {
+
+		try {
+
+			if(prefetchedPages.isEmpty()){
+				return (pageReader.readPage(nextPage++));
+			}
+
+			return (prefetchedPages.removeFirst().get());
+		}
+		catch (ExecutionException e) {
+
+			close();
+
+			Throwable cause = e.getCause();
+
+			if(cause instanceof IOException){
+				throw ((IOException)(cause));
+			}
+			else if(cause instanceof Error){
+				throw ((Error)(cause));
+			}
+
+			throw new IOException(cause.getMessage(), cause);
+		}
+		catch (IOException e) {
+
+			close();
+
+			throw e;
+		}
+		catch (Exception e) {
+
+			close();
+
+			throw new IOException(e.getMessage(), e);
+		}
+	}
+}
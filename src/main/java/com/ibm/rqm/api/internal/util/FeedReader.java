@@ -8,14 +8,26 @@
  ******************************************************************************/
 package com.ibm.rqm.api.internal.util;
 
-import java.io.ByteArrayInputStream;
+import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStream;
+import java.io.Reader;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
 import org.jdom.Attribute;
 import org.jdom.Document;
 import org.jdom.Element;
@@ -29,6 +41,10 @@ public class FeedReader {
 	private static final String ID_END_TAG = "</id>"; //$NON-NLS-1$
 	private static final String ID_TAG_NAME = "id"; //$NON-NLS-1$
 	private static final String ENTRY_TAG_NAME = "entry"; //$NON-NLS-1$
+	private static final String UPDATED_TAG_NAME = "updated"; //$NON-NLS-1$
+	private static final String CONTENT_TAG_NAME = "content"; //$NON-NLS-1$
+	private static final String ARCHIVED_TAG_NAME = "archived"; //$NON-NLS-1$
+	private static final String PURGED_TAG_NAME = "purged"; //$NON-NLS-1$
 	private static final String LINK_TAG_NAME = "link"; //$NON-NLS-1$
 	private static final String HREF_ATTR = "href"; //$NON-NLS-1$
 	private static final String LINK_REL_ATTR = "rel"; //$NON-NLS-1$
@@ -45,6 +61,18 @@ public class FeedReader {
 	private static Pattern tokenRequestParameterPattern = Pattern.compile(TOKEN_REQUEST_PARAMETER_REGULAR_EXPRESSION);
 	private static Pattern pageRequestParameterPattern = Pattern.compile(PAGE_REQUEST_PARAMETER_REGULAR_EXPRESSION);
 
+	private static volatile int pageConcurrency = 1;
+	private static ExecutorService executorService = null;
+
+	private static final XMLInputFactory XML_INPUT_FACTORY = XMLInputFactory.newInstance();
+
+	static{
+
+		XML_INPUT_FACTORY.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, Boolean.TRUE);
+		XML_INPUT_FACTORY.setProperty(XMLInputFactory.IS_COALESCING, Boolean.TRUE);
+		XML_INPUT_FACTORY.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+	}
+
 	public static enum Include {
 		ACTIVE_ONLY, ARCHIVED_ONLY, PURGED_ONLY, ACTIVE_AND_ARCHIVED, ARCHIVED_AND_PURGED, ACTIVE_AND_ARCHIVED_AND_PURGED;
 
@@ -93,10 +121,20 @@ public class FeedReader {
 		
 		List<String> ids = new ArrayList<String>();
 		
-		List<Element> entries = getEntries(client, uri, artifactType, ignoreReadErrors, include);
+		FeedIterator<String> idIterator = getIdIterator(client, uri, artifactType, ignoreReadErrors, include);
 		
-		scanFeedForIds(entries, artifactType, ids);
+		try {
+			
+			while(idIterator.hasNext()) {
+				ids.add(idIterator.next());
+			}
+		}
+		finally {
+			idIterator.close();
+		}
 		
+		LogUtils.logTrace("Done reading feed '" + uri + "' for artifact type '" + artifactType + "'."); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+
 		return ids;
 	}
 
@@ -104,17 +142,11 @@ public class FeedReader {
 		return (getEntries(client, uri, artifactType, ignoreReadErrors, null));
 	}
 
-	@SuppressWarnings("unchecked")
-	public static List<Element> getEntries(JazzHttpClient client, String uri, String artifactType, boolean ignoreReadErrors, Include include) throws IOException {
+	public static List<Element> getEntries(final JazzHttpClient client, final String uri, String artifactType, final boolean ignoreReadErrors, final Include include) throws IOException {
 
-		List<Element> entries = new ArrayList<Element>();
-		String xml = null;
+		final List<Element> entries = new ArrayList<Element>();
 
-		String queryString = null;
-		
-		if(Include.isArchivedOrPurged(include)) {
-			queryString = "includeArchived=true"; //$NON-NLS-1$
-		}
+		String queryString = getQueryString(include);
 
 		try{
 
@@ -122,160 +154,630 @@ public class FeedReader {
 
 			LogUtils.logTrace("Reading feed '" + uri + (APIUtils.isSet(queryString) ? ("?" + queryString) : "") + "' for artifact type '" + artifactType + "'."); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
 
-			InputStream feed = client.get(uri, queryString);  
-			xml = APIUtils.toString(feed);
-			Document feedDoc = xmlIn.build(new ByteArrayInputStream(xml.getBytes()));			
-			List<Element> feedDocEntries = feedDoc.getRootElement().getChildren(ENTRY_TAG_NAME, ATOM_NAMESPACE);
-			if((feedDocEntries != null) && (!feedDocEntries.isEmpty())){
-				
-				for(Element entry : feedDocEntries) {
-					
-					boolean archived = false;
-					boolean purged = false;
-					
-					final Element archivedElement = entry.getChild("archived", QM_NAMESPACE); //$NON-NLS-1$
-					
-					if(archivedElement != null) {
-						archived = Boolean.parseBoolean(archivedElement.getValue());
-					}
+			Document feedDoc = null;
+			Reader feed = client.getReader(uri, queryString);  
+
+			try {
+				feedDoc = xmlIn.build(feed);
+			}
+			finally {
+				feed.close();
+			}
+			
+			scanFeedForEntries(feedDoc, include, entries);
+
+			String lastPageHref = getLastPageHref(feedDoc);
+			int lastPage = getLastPage(lastPageHref);
+			final String pageQueryString = getPageQueryString(queryString, lastPageHref);
 
-					final Element purgedElement = entry.getChild("purged", QM_NAMESPACE); //$NON-NLS-1$
+			//Read the remaining pages (concurrently, if configured) and merge the entries in the page order:
+			OrderedTaskRunner<List<Element>> pageRunner = new OrderedTaskRunner<List<Element>>(((pageConcurrency > 1) ? getExecutorService() : null), pageConcurrency, new OrderedTaskRunner.ResultConsumer<List<Element>>() {
+
+				@Override
+				public void consume(List<Element> pageEntries) {
+					entries.addAll(pageEntries);
+				}
+			});
+
+			try {
+
+				// skip the page we already fetched initially
+				for (int page=1; page<=lastPage; page++) {
 					
-					if(purgedElement != null) {
-						purged = Boolean.parseBoolean(purgedElement.getValue());
-					}
+					final int currentPage = page;
 					
-					if(Include.shouldInclude(include, archived, purged)) {
-						entries.add(entry);
-					}
-				}				
+					pageRunner.submit(new Callable<List<Element>>() {
+
+						@Override
+						public List<Element> call() throws Exception {
+							return (readPage(client, uri, (pageQueryString + currentPage), include, ignoreReadErrors));
+						}
+					});
+				}
+				
+				pageRunner.finish();
+			}
+			finally {
+				pageRunner.cancel();
 			}
 
-			int lastPage = 0;
-			String token = null;
-			List<Element> links = feedDoc.getRootElement().getChildren(LINK_TAG_NAME, ATOM_NAMESPACE);
-			for (Element link : links) {
-				Attribute relAtt = link.getAttribute(LINK_REL_ATTR);
-				if (relAtt != null && relAtt.getValue().equals(LAST_ATTR_VAL)) {
-					
-					//Example: https://localhost:9443/jazz/service/com.ibm.rqm.integration.service.IIntegrationService/resources/Quality Manager/testplan?fields=feed/entry/content/testplan[title='test plan title']/*&token=_tlK6IRwWEeO8B8Ckgz4A6Q&page=5
-					String href = link.getAttribute(HREF_ATTR).getValue(); 
+			LogUtils.logTrace("Done reading feed '" + uri + (APIUtils.isSet(queryString) ? ("?" + queryString) : "") + "' for artifact type '" + artifactType + "'."); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		} 
+		catch (Exception e) {
+			handleReadError(e, uri, queryString, artifactType, ignoreReadErrors);
+		}
 
-					Matcher tokenRequestParameterMatcher = tokenRequestParameterPattern.matcher(href);
+		return entries;
+	}    
 
-					if(tokenRequestParameterMatcher.find()) {
-						token = tokenRequestParameterMatcher.group(2);
-					}
-					else {
-						LogUtils.logError("Missing token request parameter!"); //$NON-NLS-1$
-					}            
+	public static FeedIterator<String> getIdIterator(JazzHttpClient client, String uri, String artifactType, boolean ignoreReadErrors) throws IOException {
+		return (getIdIterator(client, uri, artifactType, ignoreReadErrors, null));
+	}
 
-					Matcher pageRequestParameterMatcher = pageRequestParameterPattern.matcher(href);
+	/**
+	 * <p>Resolves an iterator over the IDs in a feed.</p>
+	 * 
+	 * <p>Unlike {@link #getIds(JazzHttpClient, String, String, boolean, Include)}, the first page is read before 
+	 * returning and the remaining pages are read as the IDs are iterated, prefetching up to the page concurrency 
+	 * (see {@link #setPageConcurrency(int)}) pages in the background.</p>
+	 * 
+	 * <p>Note: The iterator must be closed when not iterated to the end.</p>
+	 */
+	public static FeedIterator<String> getIdIterator(JazzHttpClient client, String uri, String artifactType, boolean ignoreReadErrors, Include include) throws IOException {
+		return (getIterator(client, uri, artifactType, ignoreReadErrors, include, false, RESOURCE_ID_CONVERTER));
+	}
 
-					if(pageRequestParameterMatcher.find()) {
-						lastPage = Integer.valueOf(pageRequestParameterMatcher.group(2));
-					}
-					else {
-						LogUtils.logError("Missing page request parameter!"); //$NON-NLS-1$
-					}            
-				}
+	public static FeedIterator<FeedEntry> getEntryIterator(JazzHttpClient client, String uri, String artifactType, boolean ignoreReadErrors) throws IOException {
+		return (getEntryIterator(client, uri, artifactType, ignoreReadErrors, null, false));
+	}
+
+	/**
+	 * <p>Resolves an iterator over the summaries (ID, updated date/time, and archived/purged flags) of the entries in a feed.</p>
+	 * 
+	 * <p>Unlike {@link #getEntries(JazzHttpClient, String, String, boolean, Include)}, each page is read in one forward 
+	 * pass and the remaining content of the entries is discarded.  The pages are read as the entries are iterated (see 
+	 * {@link #getIdIterator(JazzHttpClient, String, String, boolean, Include)}).</p>
+	 * 
+	 * <p>When reading the resource content, the resource XML in each entry is retained (see {@link FeedEntry#getContent()}).  
+	 * The feed URI is responsible for requesting unabbreviated entries (<code>abbreviate=false</code>) or a projection 
+	 * (<code>fields=feed/entry/content/...</code>) of the resource content.</p>
+	 * 
+	 * <p>Note: The iterator must be closed when not iterated to the end.</p>
+	 */
+	public static FeedIterator<FeedEntry> getEntryIterator(JazzHttpClient client, String uri, String artifactType, boolean ignoreReadErrors, Include include, boolean includeContent) throws IOException {
+		return (getIterator(client, uri, artifactType, ignoreReadErrors, include, includeContent, FEED_ENTRY_CONVERTER));
+	}
+
+	/**
+	 * <p>Resolves the summaries (and optionally the resource content) of the entries in a feed.</p>
+	 * 
+	 * @see #getEntryIterator(JazzHttpClient, String, String, boolean, Include, boolean)
+	 */
+	public static List<FeedEntry> getFeedEntries(JazzHttpClient client, String uri, String artifactType, boolean ignoreReadErrors, Include include, boolean includeContent) throws IOException {
+		
+		List<FeedEntry> entries = new ArrayList<FeedEntry>();
+		
+		FeedIterator<FeedEntry> entryIterator = getEntryIterator(client, uri, artifactType, ignoreReadErrors, include, includeContent);
+		
+		try {
+			
+			while(entryIterator.hasNext()) {
+				entries.add(entryIterator.next());
 			}
+		}
+		finally {
+			entryIterator.close();
+		}
+		
+		return entries;
+	}
 
-			// skip the page we already fetched initially
-			for (int page=1; page<=lastPage; page++) {
+	private static <T> FeedIterator<T> getIterator(final JazzHttpClient client, String uri, final String artifactType, final boolean ignoreReadErrors, final Include include, final boolean includeContent, final EntryConverter<T> entryConverter) throws IOException {
+
+		String queryString = getQueryString(include);
+
+		//Merge the query string of the URI so that the query is preserved when paging:
+		int queryIndex = uri.indexOf('?');
+		
+		if(queryIndex != -1) {
+			
+			String uriQueryString = uri.substring(queryIndex + 1);
+			
+			if(APIUtils.isSet(uriQueryString)) {
+				queryString = (uriQueryString + (APIUtils.isSet(queryString) ? ("&" + queryString) : "")); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+			
+			uri = uri.substring(0, queryIndex);
+		}
+
+		final String feedUri = uri;
+
+		try{
+
+			LogUtils.logTrace("Reading feed '" + feedUri + (APIUtils.isSet(queryString) ? ("?" + queryString) : "") + "' for artifact type '" + artifactType + "'."); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+
+			FeedPage feedPage = null;
+			Reader feed = client.getReader(feedUri, queryString);  
+
+			try {
+				feedPage = parseFeedPage(feed, artifactType, include, includeContent);
+			}
+			finally {
+				feed.close();
+			}
+
+			final String pageQueryString = getPageQueryString(queryString, feedPage.lastPageHref);
+			
+			return (new FeedIterator<T>(convert(feedPage.entries, entryConverter), getLastPage(feedPage.lastPageHref), new FeedIterator.PageReader<T>() {
+
+				@Override
+				public List<T> readPage(int page) throws Exception {
+					return (convert(readFeedPage(client, feedUri, (pageQueryString + page), artifactType, include, includeContent, ignoreReadErrors), entryConverter));
+				}
+			}, getExecutorService(), pageConcurrency));
+		} 
+		catch (Exception e) {
+			handleReadError(e, feedUri, queryString, artifactType, ignoreReadErrors);
+		}
+
+		return (new FeedIterator<T>(new ArrayList<T>(), 0, null, null, 1));
+	}
+
+	/**
+	 * <p>Reads the summaries of the entries in a page of a feed.</p>
+	 * 
+	 * <p>Note: This method may be called concurrently.</p>
+	 * 
+	 * @return The summaries of the included entries in the page.
+	 */
+	private static List<FeedEntry> readFeedPage(JazzHttpClient client, String uri, String queryString, String artifactType, Include include, boolean includeContent, boolean ignoreReadErrors) throws Exception {
+
+		try {
+			Reader feed = openFeedPage(client, uri, queryString);
+			if (feed != null) { 
 				try {
-				feed = client.get(uri, (APIUtils.isSet(queryString) ? (queryString + "&") : "") + TOKEN_CGI_PARAM + token + '&' + PAGE_CGI_PARAM + page); //$NON-NLS-1$ //$NON-NLS-2$
-				if (feed != null && feed.available() > 0) { 
-					xml = APIUtils.toString(feed);
-					feedDoc = xmlIn.build(new ByteArrayInputStream(xml.getBytes()));
-					feedDocEntries = feedDoc.getRootElement().getChildren(ENTRY_TAG_NAME, ATOM_NAMESPACE);
-					if((feedDocEntries != null) && (!feedDocEntries.isEmpty())){
+					return (parseFeedPage(feed, artifactType, include, includeContent).entries);
+				}
+				finally {
+					feed.close();
+				}
+			} else {
+				LogUtils.logError("Empty feed page!"); //$NON-NLS-1$
+			}
+		}
+		catch(Exception ex) {
+			if(ignoreReadErrors){
+				LogUtils.logError(ex.toString(), ex);							
+			}
+			else{
+				throw ex;
+			}
+		}
+		
+		return (new ArrayList<FeedEntry>());
+	}
+
+	/**
+	 * <p>Parses a page of a feed in one forward pass, retaining only the summaries (and optionally the resource content) 
+	 * of the included entries and the reference of the last page link.</p>
+	 */
+	private static FeedPage parseFeedPage(Reader reader, String artifactType, Include include, boolean includeContent) throws XMLStreamException, IOException {
+
+		FeedPage feedPage = new FeedPage();
+
+		XMLStreamReader xmlStreamReader = XML_INPUT_FACTORY.createXMLStreamReader(reader);
+
+		try {
+
+			int depth = 0;
+			boolean inEntry = false;
+			boolean inContent = false;
+			String id = null;
+			String updated = null;
+			boolean archived = false;
+			boolean purged = false;
+			String content = null;
+			
+			//Namespaces declared by the feed, entry, and content elements:
+			List<Map<String, String>> namespaceScopes = new ArrayList<Map<String, String>>();
+
+			while(xmlStreamReader.hasNext()) {
+
+				int event = xmlStreamReader.next();
+
+				if(event == XMLStreamConstants.START_ELEMENT) {
+
+					depth++;
+
+					String namespaceUri = xmlStreamReader.getNamespaceURI();
+					String localName = xmlStreamReader.getLocalName();
+
+					if((includeContent) && (depth <= 3)) {
 						
-						for(Element entry : feedDocEntries) {
-							
-							boolean archived = false;
-							boolean purged = false;
-							
-							final Element archivedElement = entry.getChild("archived", QM_NAMESPACE); //$NON-NLS-1$
-							
-							if(archivedElement != null) {
-								archived = Boolean.parseBoolean(archivedElement.getValue());
+						Map<String, String> namespaces = new LinkedHashMap<String, String>();
+
+						for (int index = 0; index < xmlStreamReader.getNamespaceCount(); index++) {
+
+							String prefix = xmlStreamReader.getNamespacePrefix(index);
+
+							namespaces.put(((prefix == null) ? "" : prefix), xmlStreamReader.getNamespaceURI(index)); //$NON-NLS-1$
+						}
+						
+						while(namespaceScopes.size() < depth) {
+							namespaceScopes.add(null);
+						}
+						
+						namespaceScopes.set((depth - 1), namespaces);
+					}
+
+					if(depth == 2) {
+
+						if((IAPIConstants.NAMESPACE_URI_ATOM.equals(namespaceUri)) && (ENTRY_TAG_NAME.equals(localName))) {
+
+							inEntry = true;
+							id = null;
+							updated = null;
+							archived = false;
+							purged = false;
+							content = null;
+						}
+						else if((IAPIConstants.NAMESPACE_URI_ATOM.equals(namespaceUri)) && (LINK_TAG_NAME.equals(localName)) && (LAST_ATTR_VAL.equals(xmlStreamReader.getAttributeValue(null, LINK_REL_ATTR)))) {
+							feedPage.lastPageHref = xmlStreamReader.getAttributeValue(null, HREF_ATTR);
+						}
+					}
+					else if((depth == 3) && (inEntry)) {
+
+						//Note: Reading the element text consumes the end element.
+						if(IAPIConstants.NAMESPACE_URI_ATOM.equals(namespaceUri)) {
+
+							if(ID_TAG_NAME.equals(localName)) {
+
+								id = xmlStreamReader.getElementText();
+								depth--;
 							}
+							else if(UPDATED_TAG_NAME.equals(localName)) {
 
-							final Element purgedElement = entry.getChild("purged", QM_NAMESPACE); //$NON-NLS-1$
-							
-							if(purgedElement != null) {
-								purged = Boolean.parseBoolean(purgedElement.getValue());
+								updated = xmlStreamReader.getElementText();
+								depth--;
 							}
-							
-							if(Include.shouldInclude(include, archived, purged)) {
-								entries.add(entry);
+							else if(CONTENT_TAG_NAME.equals(localName)) {
+								inContent = true;
 							}
-						}			
-					}  
-				} else {
-					LogUtils.logError("Empty feed page!"); //$NON-NLS-1$
-				}
+						}
+						else if(IAPIConstants.NAMESPACE_URI_ALM_QM.equals(namespaceUri)) {
+
+							if(ARCHIVED_TAG_NAME.equals(localName)) {
+
+								archived = Boolean.parseBoolean(xmlStreamReader.getElementText());
+								depth--;
+							}
+							else if(PURGED_TAG_NAME.equals(localName)) {
+
+								purged = Boolean.parseBoolean(xmlStreamReader.getElementText());
+								depth--;
+							}
+						}
+					}
+					else if((depth == 4) && (inContent) && (includeContent) && (content == null)) {
+
+						Map<String, String> inheritedNamespaces = new LinkedHashMap<String, String>();
+						
+						for (Map<String, String> namespaces : namespaceScopes) {
+							inheritedNamespaces.putAll(namespaces);
+						}
+						
+						//Note: Serializing the resource consumes the end element.
+						content = XMLStreamFormatter.toString(xmlStreamReader, inheritedNamespaces);
+						depth--;
+					}
 				}
-				catch(Exception ex) {
-					if(ignoreReadErrors){
-						LogUtils.logError(ex.toString(), ex);							
+				else if(event == XMLStreamConstants.END_ELEMENT) {
+
+					if((depth == 2) && (inEntry)) {
+
+						if(Include.shouldInclude(include, archived, purged)) {
+							feedPage.entries.add(new FeedEntry(id, toResourceId(id, artifactType), updated, archived, purged, content));
+						}
+
+						inEntry = false;
 					}
-					else{
-						throw ex;
+					else if((depth == 3) && (inContent)) {
+						inContent = false;
 					}
+
+					depth--;
 				}
 			}
-			LogUtils.logTrace("Done reading feed '" + uri + (APIUtils.isSet(queryString) ? ("?" + queryString) : "") + "' for artifact type '" + artifactType + "'."); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
-		} 
-		catch (IOException i) {
+		}
+		finally {
+			xmlStreamReader.close();
+		}
 
-			if(ignoreReadErrors){
-				LogUtils.logError(i.toString(), i);							
+		return feedPage;
+	}
+
+	private static <T> List<T> convert(List<FeedEntry> entries, EntryConverter<T> entryConverter) {
+
+		List<T> convertedEntries = new ArrayList<T>(entries.size());
+
+		for (FeedEntry entry : entries) {
+
+			T convertedEntry = entryConverter.convert(entry);
+
+			if(convertedEntry != null) {
+				convertedEntries.add(convertedEntry);
 			}
-			else{
-				throw new IOException("Error reading feed '" + uri + (APIUtils.isSet(queryString) ? ("?" + queryString) : "") + "' for artifact type '" + artifactType + "'.", i); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		}
+
+		return convertedEntries;
+	}
+
+	private static void handleReadError(Exception e, String uri, String queryString, String artifactType, boolean ignoreReadErrors) throws IOException {
+
+		if(ignoreReadErrors){
+			LogUtils.logError(e.toString(), e);							
+		}
+		else{
+			throw new IOException("Error reading feed '" + uri + (APIUtils.isSet(queryString) ? ("?" + queryString) : "") + "' for artifact type '" + artifactType + "'.", e); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		}
+	}
+
+	/**
+	 * <p>Opens a stream of the (scrubbed) XML content of a page of a feed read from the connection.</p>
+	 * 
+	 * <p>Note: The reader must be closed to release the connection.</p>
+	 * 
+	 * @return The reader of the XML content of the page, otherwise <code>null</code> if the page is empty.
+	 */
+	private static Reader openFeedPage(JazzHttpClient client, String uri, String queryString) throws IOException {
+
+		BufferedReader feed = new BufferedReader(client.getReader(uri, queryString));
+		
+		feed.mark(1);
+		
+		if(feed.read() == -1){
+			
+			feed.close();
+			
+			return null;
+		}
+		
+		feed.reset();
+
+		return feed;
+	}
+
+	private static String getQueryString(Include include) {
+		
+		if(Include.isArchivedOrPurged(include)) {
+			return "includeArchived=true"; //$NON-NLS-1$
+		}
+
+		return null;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static String getLastPageHref(Document feedDoc) {
+
+		List<Element> links = feedDoc.getRootElement().getChildren(LINK_TAG_NAME, ATOM_NAMESPACE);
+		
+		for (Element link : links) {
+			
+			Attribute relAtt = link.getAttribute(LINK_REL_ATTR);
+			
+			if (relAtt != null && relAtt.getValue().equals(LAST_ATTR_VAL)) {
+				
+				//Example: https://localhost:9443/jazz/service/com.ibm.rqm.integration.service.IIntegrationService/resources/Quality Manager/testplan?fields=feed/entry/content/testplan[title='test plan title']/*&token=_tlK6IRwWEeO8B8Ckgz4A6Q&page=5
+				return (link.getAttribute(HREF_ATTR).getValue()); 
 			}
 		}
-		catch (Exception e) {
+		
+		return null;
+	}
+
+	private static int getLastPage(String lastPageHref) {
+		
+		int lastPage = 0;
+		
+		if(lastPageHref != null) {
+			
+			Matcher pageRequestParameterMatcher = pageRequestParameterPattern.matcher(lastPageHref);
 
-			if(xml != null){
-				LogUtils.logError("Done reading feed '" + uri + (APIUtils.isSet(queryString) ? ("?" + queryString) : "") + "' for artifact type '" + artifactType + "': " + xml); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			if(pageRequestParameterMatcher.find()) {
+				lastPage = Integer.valueOf(pageRequestParameterMatcher.group(2));
 			}
+			else {
+				LogUtils.logError("Missing page request parameter!"); //$NON-NLS-1$
+			}            
+		}
+		
+		return lastPage;
+	}
+
+	private static String getPageQueryString(String queryString, String lastPageHref) {
+
+		String token = null;
+
+		if(lastPageHref != null) {
+			
+			Matcher tokenRequestParameterMatcher = tokenRequestParameterPattern.matcher(lastPageHref);
 
+			if(tokenRequestParameterMatcher.find()) {
+				token = tokenRequestParameterMatcher.group(2);
+			}
+			else {
+				LogUtils.logError("Missing token request parameter!"); //$NON-NLS-1$
+			}            
+		}
+
+		return ((APIUtils.isSet(queryString) ? (queryString + "&") : "") + TOKEN_CGI_PARAM + token + '&' + PAGE_CGI_PARAM); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	/**
+	 * <p>Reads a page of a feed.</p>
+	 * 
+	 * <p>Note: This method may be called concurrently.</p>
+	 * 
+	 * @return The included entries in the page.
+	 */
+	private static List<Element> readPage(JazzHttpClient client, String uri, String queryString, Include include, boolean ignoreReadErrors) throws Exception {
+
+		List<Element> entries = new ArrayList<Element>();
+		
+		try {
+			Reader feed = openFeedPage(client, uri, queryString);
+			if (feed != null) { 
+				try {
+					scanFeedForEntries(new SAXBuilder().build(feed), include, entries);
+				}
+				finally {
+					feed.close();
+				}
+			} else {
+				LogUtils.logError("Empty feed page!"); //$NON-NLS-1$
+			}
+		}
+		catch(Exception ex) {
 			if(ignoreReadErrors){
-				LogUtils.logError(e.toString(), e);							
+				LogUtils.logError(ex.toString(), ex);							
 			}
 			else{
-				throw new IOException("Error reading feed '" + uri + (APIUtils.isSet(queryString) ? ("?" + queryString) : "") + "' for artifact type '" + artifactType + "'.", e); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				throw ex;
 			}
 		}
-
+		
 		return entries;
-	}    
+	}
+	
+	@SuppressWarnings("unchecked")
+	private static void scanFeedForEntries(Document feedDoc, Include include, List<Element> entries) {
 
-	private static void scanFeedForIds(List<Element> entries, String artifactType, List<String> ids) {
-		for (Element entry : entries) {
-			Element idElem = entry.getChild(ID_TAG_NAME, ATOM_NAMESPACE);
-			if (idElem != null) {
-				String id = idElem.getValue();
-				if (id != null && id.length() > 0) {
-					//NOTE: request feed IDs are not correct
-					if (!artifactType.equals("request")) { //$NON-NLS-1$
-						int artifactIndex = id.indexOf("/" + artifactType + "/");                     //$NON-NLS-1$ //$NON-NLS-2$
-						if (artifactIndex >= 0) {
-							id = id.substring(artifactIndex + artifactType.length() + 2);
-						}
-					} else {
-						int artifactIndex = id.indexOf(artifactType);                    
-						if (artifactIndex >= 0) {
-							id = id.substring(artifactIndex + artifactType.length() + 1);
-						}                        
-					}
-					id = id.replaceAll(ID_END_TAG, "");  //$NON-NLS-1$
-					ids.add(id);
+		List<Element> feedDocEntries = feedDoc.getRootElement().getChildren(ENTRY_TAG_NAME, ATOM_NAMESPACE);
+		if((feedDocEntries != null) && (!feedDocEntries.isEmpty())){
+			
+			for(Element entry : feedDocEntries) {
+				
+				boolean archived = false;
+				boolean purged = false;
+				
+				final Element archivedElement = entry.getChild("archived", QM_NAMESPACE); //$NON-NLS-1$
+				
+				if(archivedElement != null) {
+					archived = Boolean.parseBoolean(archivedElement.getValue());
 				}
+
+				final Element purgedElement = entry.getChild("purged", QM_NAMESPACE); //$NON-NLS-1$
+				
+				if(purgedElement != null) {
+					purged = Boolean.parseBoolean(purgedElement.getValue());
+				}
+				
+				if(Include.shouldInclude(include, archived, purged)) {
+					entries.add(entry);
+				}
+			}				
+		}
+	}
+
+	/**
+	 * <p>Sets the maximum number of feed pages read concurrently.</p>
+	 * 
+	 * <p>By default, feed pages are read sequentially (1).</p>
+	 * 
+	 * @param pageConcurrency The maximum number of feed pages read concurrently (greater than 0).
+	 */
+	public static void setPageConcurrency(int pageConcurrency) {
+		
+		if(pageConcurrency < 1){
+			throw new IllegalArgumentException("Invalid page concurrency: " + pageConcurrency); //$NON-NLS-1$
+		}
+		
+		FeedReader.pageConcurrency = pageConcurrency;
+	}
+
+	public static int getPageConcurrency() {
+		return pageConcurrency;
+	}
+
+	/**
+	 * <p>Resolves the executor service reading feed pages in the background.</p>
+	 * 
+	 * <p>Note: The number of threads is bounded by the page concurrency of the concurrent feed reads.</p>
+	 */
+	private static synchronized ExecutorService getExecutorService() {
+		
+		if(executorService == null){
+			
+			executorService = Executors.newCachedThreadPool(new ThreadFactory() {
+				
+				private final AtomicInteger threadCount = new AtomicInteger();
+				
+				@Override
+				public Thread newThread(Runnable runnable) {
+					
+					Thread thread = new Thread(runnable, "ETM API Utility Feed Reader " + threadCount.incrementAndGet()); //$NON-NLS-1$
+					thread.setDaemon(true);
+					
+					return thread;
+				}
+			});
+		}
+		
+		return executorService;
+	}
+
+	private static String toResourceId(String id, String artifactType) {
+		if (id != null && id.length() > 0) {
+			//NOTE: request feed IDs are not correct
+			if (!artifactType.equals("request")) { //$NON-NLS-1$
+				int artifactIndex = id.indexOf("/" + artifactType + "/");                     //$NON-NLS-1$ //$NON-NLS-2$
+				if (artifactIndex >= 0) {
+					id = id.substring(artifactIndex + artifactType.length() + 2);
+				}
+			} else {
+				int artifactIndex = id.indexOf(artifactType);                    
+				if (artifactIndex >= 0) {
+					id = id.substring(artifactIndex + artifactType.length() + 1);
+				}                        
 			}
-		}        
+			return (id.replaceAll(ID_END_TAG, ""));  //$NON-NLS-1$
+		}
+		return null;
+	}
+
+	/**
+	 * <p>Summaries of the included entries in a page of a feed and the reference of the last page link.</p>
+	 */
+	private static final class FeedPage {
+		
+		private final List<FeedEntry> entries = new ArrayList<FeedEntry>();
+		private String lastPageHref = null;
 	}
+
+	/**
+	 * <p>Converter of the summaries of feed entries.</p>
+	 */
+	private interface EntryConverter<T> {
+		
+		/**
+		 * @return The converted entry, otherwise <code>null</code> to skip the entry.
+		 */
+		public T convert(FeedEntry entry);
+	}
+
+	private static final EntryConverter<FeedEntry> FEED_ENTRY_CONVERTER = new EntryConverter<FeedEntry>() {
+		
+		@Override
+		public FeedEntry convert(FeedEntry entry) {
+			return entry;
+		}
+	};
+
+	private static final EntryConverter<String> RESOURCE_ID_CONVERTER = new EntryConverter<String>() {
+		
+		@Override
+		public String convert(FeedEntry entry) {
+			return (entry.getResourceId());
+		}
+	};
 }
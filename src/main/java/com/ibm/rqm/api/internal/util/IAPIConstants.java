@@ -125,6 +125,9 @@ public interface IAPIConstants {
 	//HTTP (headers):
 	String HTTP_HEADER_ETAG = "ETag"; //$NON-NLS-1$
 	String HTTP_HEADER_IF_MATCH = "If-Match"; //$NON-NLS-1$
+	String HTTP_HEADER_IF_NONE_MATCH = "If-None-Match"; //$NON-NLS-1$
+	String HTTP_HEADER_IF_MODIFIED_SINCE = "If-Modified-Since"; //$NON-NLS-1$
+	String HTTP_HEADER_LAST_MODIFIED = "Last-Modified"; //$NON-NLS-1$
 	String HTTP_HEADER_ACCEPT = "Accept"; //$NON-NLS-1$
 	String HTTP_HEADER_REFERER = "Referer"; //$NON-NLS-1$
 	String HTTP_HEADER_CONTENT_TYPE = "Content-Type"; //$NON-NLS-1$
@@ -174,6 +177,7 @@ public interface IAPIConstants {
 	String ENCODING_UTF8 = "UTF-8"; //$NON-NLS-1$
 	String ENCODING_UTF16 = "UTF-16"; //$NON-NLS-1$
 	String ENCODING_GZIP = "gzip";   //$NON-NLS-1$
+	String ENCODING_DEFLATE = "deflate"; //$NON-NLS-1$
 
 	//XML:
 	/**
@@ -0,0 +1,359 @@
+/*******************************************************************************
+ * Licensed Materials - Property of IBM
+ * © Copyright IBM Corporation 2011, 2020. All Rights Reserved.
+ *
+ * U.S. Government Users Restricted Rights:
+ * Use, duplication or disclosure restricted by GSA ADP Schedule
+ * Contract with IBM Corp.
+ ******************************************************************************/
+package com.ibm.rqm.api.internal.util;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * <p>Scanner locating inline images in (X)HTML or XML content, that is, <code>img</code> elements with a quoted
+ * <code>data:image/&lt;type&gt;;&lt;encoding&gt;,&lt;data&gt;</code> URI in the <code>src</code> attribute.</p>
+ *
+ * <p>The content is scanned once from start to end (linear time) and only the positions of the inline images
+ * are resolved, so the (potentially large) image data is not copied.</p>
+ *
+ * <p>Note: Instances are not thread safe.</p>
+ *
+ *
+ * @version 1.0
+ * @since   1.0
+ */
+public final class InlineImageScanner {
+
+	private static final String IMG_ELEMENT_NAME = "img"; //$NON-NLS-1$
+	private static final String SRC_ATTRIBUTE_NAME = "src"; //$NON-NLS-1$
+	private static final String DATA_IMAGE_URI_PREFIX = "data:image/"; //$NON-NLS-1$
+	private static final int HASH_BUFFER_SIZE = 8192;
+	private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray(); //$NON-NLS-1$
+
+	private final CharSequence content;
+	private final int length;
+	private int position = 0;
+
+	private int start = -1;
+	private int end = -1;
+	private int sourceStart = -1;
+	private int sourceEnd = -1;
+	private String imageType = null;
+	private String encoding = null;
+	private int dataStart = -1;
+
+	public InlineImageScanner(CharSequence content) {
+
+		this.content = content;
+		this.length = content.length();
+	}
+
+	/**
+	 * <p>Locates the next inline image.</p>
+	 *
+	 * @return <code>true</code> if an inline image is located, otherwise <code>false</code> if there are no more inline images.
+	 */
+	public boolean find() {
+
+		while(position < length){
+
+			int tagStart = indexOf('<', position);
+
+			if(tagStart == -1){
+				break;
+			}
+
+			int index = skipWhitespace(tagStart + 1);
+
+			if((!regionMatchesIgnoreCase(index, IMG_ELEMENT_NAME)) || (((index + IMG_ELEMENT_NAME.length()) < length) && (isNameCharacter(content.charAt(index + IMG_ELEMENT_NAME.length()))))){
+
+				position = (tagStart + 1);
+
+				continue;
+			}
+
+			index += IMG_ELEMENT_NAME.length();
+
+			int srcStart = -1;
+			int srcEnd = -1;
+
+			//Parse the attributes to the end of the tag:
+			while(true){
+
+				index = skipWhitespace(index);
+
+				if(index >= length){
+
+					//Note: An unterminated tag ends the content.
+					position = length;
+
+					return false;
+				}
+
+				char character = content.charAt(index);
+
+				if(character == '>'){
+					break;
+				}
+
+				int nameStart = index;
+
+				while((index < length) && (!Character.isWhitespace(content.charAt(index))) && (content.charAt(index) != '=') && (content.charAt(index) != '>') && (content.charAt(index) != '/')){
+					index++;
+				}
+
+				int nameEnd = index;
+
+				if(nameEnd == nameStart){
+
+					//Note: Skip characters that are not part of an attribute (for example, '/').
+					index++;
+
+					continue;
+				}
+
+				index = skipWhitespace(index);
+
+				if((index < length) && (content.charAt(index) == '=')){
+
+					index = skipWhitespace(index + 1);
+
+					if((index < length) && ((content.charAt(index) == '"') || (content.charAt(index) == '\''))){
+
+						int valueStart = (index + 1);
+						int valueEnd = indexOf(content.charAt(index), valueStart);
+
+						if(valueEnd == -1){
+
+							position = length;
+
+							return false;
+						}
+
+						if((srcStart == -1) && ((nameEnd - nameStart) == SRC_ATTRIBUTE_NAME.length()) && (regionMatchesIgnoreCase(nameStart, SRC_ATTRIBUTE_NAME))){
+
+							srcStart = valueStart;
+							srcEnd = valueEnd;
+						}
+
+						index = (valueEnd + 1);
+					}
+					else{
+
+						//Note: Unquoted attribute values are not inline images.
+						while((index < length) && (!Character.isWhitespace(content.charAt(index))) && (content.charAt(index) != '>')){
+							index++;
+						}
+					}
+				}
+			}
+
+			position = (index + 1);
+
+			if((srcStart != -1) && (parseDataUri(srcStart, srcEnd))){
+
+				start = tagStart;
+				end = position;
+				sourceStart = srcStart;
+				sourceEnd = srcEnd;
+
+				return true;
+			}
+		}
+
+		position = length;
+
+		return false;
+	}
+
+	private boolean parseDataUri(int srcStart, int srcEnd) {
+
+		if(!regionMatchesIgnoreCase(srcStart, DATA_IMAGE_URI_PREFIX)){
+			return false;
+		}
+
+		int typeStart = (srcStart + DATA_IMAGE_URI_PREFIX.length());
+		int typeEnd = typeStart;
+
+		while((typeEnd < srcEnd) && (content.charAt(typeEnd) != ';')){
+			typeEnd++;
+		}
+
+		int encodingEnd = (typeEnd + 1);
+
+		while((encodingEnd < srcEnd) && (content.charAt(encodingEnd) != ',')){
+			encodingEnd++;
+		}
+
+		if((typeEnd == typeStart) || (typeEnd >= srcEnd) || (encodingEnd == (typeEnd + 1)) || (encodingEnd >= (srcEnd - 1))){
+			return false;
+		}
+
+		imageType = content.subSequence(typeStart, typeEnd).toString();
+		encoding = content.subSequence((typeEnd + 1), encodingEnd).toString();
+		dataStart = (encodingEnd + 1);
+
+		return true;
+	}
+
+	public CharSequence getContent() {
+		return content;
+	}
+
+	/**
+	 * <p>Resolves the SHA-256 hash (hexadecimal) of the (base64) image data, so inline images with the same
+	 * content have the same hash.</p>
+	 *
+	 * <p>Only the characters in the base64 alphabet up to the first padding character (<code>=</code>) are hashed,
+	 * so differences in line breaks or padding do not change the hash.</p>
+	 *
+	 * @return The SHA-256 hash (hexadecimal) of the image data.
+	 */
+	public String getDataHash() {
+
+		MessageDigest digest = null;
+
+		try {
+			digest = MessageDigest.getInstance("SHA-256"); //$NON-NLS-1$
+		}
+		catch (NoSuchAlgorithmException n) {
+
+			//Note: Every Java platform supports SHA-256.
+			throw new IllegalStateException(n);
+		}
+
+		byte[] buffer = new byte[HASH_BUFFER_SIZE];
+		int bufferLength = 0;
+
+		for(int index = dataStart; index < sourceEnd; index++){
+
+			char character = content.charAt(index);
+
+			if(character == '='){
+				break;
+			}
+
+			if(((character >= 'A') && (character <= 'Z')) || ((character >= 'a') && (character <= 'z')) || ((character >= '0') && (character <= '9')) || (character == '+') || (character == '/')){
+
+				buffer[bufferLength++] = (byte)(character);
+
+				if(bufferLength == buffer.length){
+
+					digest.update(buffer, 0, bufferLength);
+
+					bufferLength = 0;
+				}
+			}
+		}
+
+		digest.update(buffer, 0, bufferLength);
+
+		byte[] hash = digest.digest();
+		StringBuilder hex = new StringBuilder(hash.length * 2);
+
+		for(byte hashByte : hash){
+			hex.append(HEX_DIGITS[(hashByte >> 4) & 0x0F]).append(HEX_DIGITS[hashByte & 0x0F]);
+		}
+
+		return (hex.toString());
+	}
+
+	/**
+	 * @return The index of the start of the <code>img</code> element (<code>&lt;</code>).
+	 */
+	public int getStart() {
+		return start;
+	}
+
+	/**
+	 * @return The index after the end of the <code>img</code> element (<code>&gt;</code>).
+	 */
+	public int getEnd() {
+		return end;
+	}
+
+	/**
+	 * @return The index of the start of the <code>src</code> attribute value (after the quote).
+	 */
+	public int getSourceStart() {
+		return sourceStart;
+	}
+
+	/**
+	 * @return The index of the end of the <code>src</code> attribute value (the quote).
+	 */
+	public int getSourceEnd() {
+		return sourceEnd;
+	}
+
+	/**
+	 * @return The image type (for example, <code>png</code>).
+	 */
+	public String getImageType() {
+		return imageType;
+	}
+
+	/**
+	 * @return The encoding of the image data (for example, <code>base64</code>).
+	 */
+	public String getEncoding() {
+		return encoding;
+	}
+
+	/**
+	 * @return The index of the start of the image data.
+	 */
+	public int getDataStart() {
+		return dataStart;
+	}
+
+	/**
+	 * @return The index of the end of the image data (the end of the <code>src</code> attribute value).
+	 */
+	public int getDataEnd() {
+		return sourceEnd;
+	}
+
+	private int indexOf(char character, int fromIndex) {
+
+		for(int index = fromIndex; index < length; index++){
+
+			if(content.charAt(index) == character){
+				return index;
+			}
+		}
+
+		return -1;
+	}
+
+	private int skipWhitespace(int index) {
+
+		while((index < length) && (Character.isWhitespace(content.charAt(index)))){
+			index++;
+		}
+
+		return index;
+	}
+
+	private boolean regionMatchesIgnoreCase(int index, String value) {
+
+		if((index + value.length()) > length){
+			return false;
+		}
+
+		for(int offset = 0; offset < value.length(); offset++){
+
+			if(Character.toLowerCase(content.charAt(index + offset)) != value.charAt(offset)){
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	private static boolean isNameCharacter(char character) {
+		return ((Character.isLetterOrDigit(character)) || (character == '-') || (character == '_') || (character == '.') || (character == ':'));
+	}
+}
@@ -0,0 +1,139 @@
+/*******************************************************************************
+ * Licensed Materials - Property of IBM
+ * © Copyright IBM Corporation 2011, 2020. All Rights Reserved.
+ *
+ * U.S. Government Users Restricted Rights:
+ * Use, duplication or disclosure restricted by GSA ADP Schedule
+ * Contract with IBM Corp.
+ ******************************************************************************/
+package com.ibm.rqm.api.internal.util;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * <p>Runs tasks concurrently and hands their results to a consumer in submission order.</p>
+ *
+ * <p>At most <code>windowSize</code> tasks are in flight (running or completed but not yet
+ * consumed) at any time, so the memory held by pending results is bounded by the window
+ * size.  Submitting a task when the window is full blocks until the oldest task completes
+ * and its result is consumed.</p>
+ *
+ * <p>When no executor service is specified, tasks are run and consumed immediately on the
+ * calling thread.</p>
+ *
+ * <p>Note: Instances are not thread safe and are intended to be used by a single producer thread.</p>
+ *
+ *
+ * @version 1.0
+ * @since   1.0
+ */
+public final class OrderedTaskRunner<T> {
+
+	/**
+	 * <p>Consumer of task results.</p>
+	 */
+	public interface ResultConsumer<T> {
+
+		/**
+		 * <p>Consumes the result of a task.</p>
+		 *
+		 * @param result The result of the task (may be <code>null</code>).
+		 */
+		public void consume(T result) throws Exception;
+	}
+
+	private final ExecutorService executorService;
+	private final int windowSize;
+	private final ResultConsumer<T> resultConsumer;
+	private final Deque<Future<T>> window;
+
+	/**
+	 * @param executorService The executor service running the tasks, or <code>null</code> to run the tasks on the calling thread.
+	 * @param windowSize The maximum number of in-flight tasks (greater than 0).
+	 * @param resultConsumer The consumer of the task results.
+	 */
+	public OrderedTaskRunner(ExecutorService executorService, int windowSize, ResultConsumer<T> resultConsumer) {
+
+		if(windowSize < 1){
+			throw new IllegalArgumentException("Invalid window size: " + windowSize); //$NON-NLS-1$
+		}
+
+		this.executorService = executorService;
+		this.windowSize = windowSize;
+		this.resultConsumer = resultConsumer;
+		this.window = new ArrayDeque<Future<T>>(windowSize);
+	}
+
+	public void submit(Callable<T> task) throws Exception {
+
+		if(executorService == null){
+			resultConsumer.consume(task.call());
+		}
+		else{
+
+			if(window.size() >= windowSize){
+				consumeNext();
+			}
+
+			window.addLast(executorService.submit(task));
+		}
+	}
+
+	/**
+	 * <p>Waits for all in-flight tasks to complete and consumes their results.</p>
+	 *
+	 * <p>If a task or the consumer fails, the remaining in-flight tasks are cancelled and the
+	 * failure is thrown.</p>
+	 */
+	public void finish() throws Exception {
+
+		while(!window.isEmpty()){
+			consumeNext();
+		}
+	}
+
+	/**
+	 * <p>Cancels all in-flight tasks without consuming their results.</p>
+	 */
+	public void cancel() {
+
+		while(!window.isEmpty()){
+			window.removeFirst().cancel(true);
+		}
+	}
+
+	private void consumeNext() throws Exception {
+
+		Future<T> future = window.removeFirst();
+
+		try {
+			resultConsumer.consume(future.get());
+		}
+		catch (ExecutionException e) {
+
+			cancel();
+
+			Throwable cause = e.getCause();
+
+			if(cause instanceof Exception){
+				throw ((Exception)(cause));
+			}
+			else if(cause instanceof Error){
+				throw ((Error)(cause));
+			}
+
+			throw e;
+		}
+		catch (Exception e) {
+
+			cancel();
+
+			throw e;
+		}
+	}
+}
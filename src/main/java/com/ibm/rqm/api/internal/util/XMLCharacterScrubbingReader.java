@@ -0,0 +1,202 @@
+/*******************************************************************************
+ * Licensed Materials - Property of IBM
+ * © Copyright IBM Corporation 2011, 2020. All Rights Reserved.
+ *
+ * U.S. Government Users Restricted Rights:
+ * Use, duplication or disclosure restricted by GSA ADP Schedule
+ * Contract with IBM Corp.
+ ******************************************************************************/
+package com.ibm.rqm.api.internal.util;
+
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.CharBuffer;
+
+/**
+ * <p>Reader scrubbing (removing or escaping) the characters in XML content not supported by XML as the
+ * content is read, in one pass.</p>
+ *
+ * <p>The content read is the same as scrubbing all of the content (see {@link APIUtils#scrubXmlCharacters(String)}),
+ * without holding the content in memory.</p>
+ *
+ * <p>Note: Instances are not thread safe.</p>
+ *
+ *
+ * @version 1.0
+ * @since   1.0
+ */
+public final class XMLCharacterScrubbingReader extends FilterReader {
+
+	private static final int BUFFER_SIZE = 8192;
+
+	private final char[] buffer = new char[BUFFER_SIZE];
+	private final CharSequence bufferSequence = CharBuffer.wrap(buffer);
+	private final char[] singleCharacter = new char[1];
+	private int position = 0;
+	private int limit = 0;
+	private boolean endOfStream = false;
+	private String pendingReference = null;
+	private int pendingReferencePosition = 0;
+
+	public XMLCharacterScrubbingReader(Reader reader) {
+		super(reader);
+	}
+
+	@Override
+	public int read() throws IOException {
+		return ((read(singleCharacter, 0, 1) == -1) ? -1 : singleCharacter[0]);
+	}
+
+	@Override
+	public int read(char[] characters, int offset, int length) throws IOException {
+
+		if(length == 0){
+			return 0;
+		}
+
+		int count = 0;
+
+		while(count < length){
+
+			//Write the remainder of an escaped character:
+			if(pendingReference != null){
+
+				int pendingCount = Math.min((length - count), (pendingReference.length() - pendingReferencePosition));
+
+				pendingReference.getChars(pendingReferencePosition, (pendingReferencePosition + pendingCount), characters, (offset + count));
+
+				pendingReferencePosition += pendingCount;
+				count += pendingCount;
+
+				if(pendingReferencePosition == pendingReference.length()){
+					pendingReference = null;
+				}
+
+				continue;
+			}
+
+			//Note: Only block for more content when no content has been read.
+			if((position == limit) && ((count > 0) || (!fill(1)))){
+				break;
+			}
+
+			char character = buffer[position];
+
+			if(character == '&'){
+
+				fill(APIUtils.MAX_CHARACTER_REFERENCE_LENGTH);
+
+				int referenceLength = APIUtils.getInvalidCharacterReferenceLength(bufferSequence, position, limit);
+
+				//Remove invalid character references:
+				if(referenceLength > 0){
+					position += referenceLength;
+				}
+				else{
+					characters[offset + count++] = character;
+					position++;
+				}
+			}
+			else if(APIUtils.isEscapedCharacter(character)){
+
+				setPendingReference(character);
+
+				position++;
+			}
+			else if(APIUtils.isValidXmlCharacter(character)){
+
+				characters[offset + count++] = character;
+				position++;
+			}
+			else if(Character.isHighSurrogate(character)){
+
+				fill(2);
+
+				//Escape surrogate pairs, otherwise remove the unpaired surrogate:
+				if(((position + 1) < limit) && (Character.isLowSurrogate(buffer[position + 1]))){
+
+					setPendingReference(Character.toCodePoint(character, buffer[position + 1]));
+
+					position += 2;
+				}
+				else{
+					position++;
+				}
+			}
+			else{
+				position++;
+			}
+		}
+
+		return (((count == 0) && (endOfStream)) ? -1 : count);
+	}
+
+	@Override
+	public long skip(long count) throws IOException {
+
+		long skipped = 0;
+
+		while((skipped < count) && (read() != -1)){
+			skipped++;
+		}
+
+		return skipped;
+	}
+
+	@Override
+	public boolean ready() throws IOException {
+		return ((pendingReference != null) || (position < limit) || (in.ready()));
+	}
+
+	@Override
+	public boolean markSupported() {
+		return false;
+	}
+
+	@Override
+	public void mark(int readAheadLimit) throws IOException {
+		throw new IOException("Mark not supported"); //$NON-NLS-1$
+	}
+
+	@Override
+	public void reset() throws IOException {
+		throw new IOException("Reset not supported"); //$NON-NLS-1$
+	}
+
+	private void setPendingReference(int codePoint) {
+
+		pendingReference = ("&#" + codePoint + ';'); //$NON-NLS-1$
+		pendingReferencePosition = 0;
+	}
+
+	/**
+	 * <p>Reads content until at least <code>count</code> characters are buffered or the end of the stream is reached.</p>
+	 *
+	 * @return <code>true</code> if at least one character is buffered, otherwise <code>false</code>.
+	 */
+	private boolean fill(int count) throws IOException {
+
+		if((position + count) > buffer.length){
+
+			System.arraycopy(buffer, position, buffer, 0, (limit - position));
+
+			limit -= position;
+			position = 0;
+		}
+
+		while(((limit - position) < count) && (!endOfStream)){
+
+			int read = in.read(buffer, limit, (buffer.length - limit));
+
+			if(read == -1){
+				endOfStream = true;
+			}
+			else{
+				limit += read;
+			}
+		}
+
+		return (position < limit);
+	}
+}
@@ -0,0 +1,166 @@
+/*******************************************************************************
+ * Licensed Materials - Property of IBM
+ * © Copyright IBM Corporation 2011, 2020. All Rights Reserved.
+ *
+ * U.S. Government Users Restricted Rights:
+ * Use, duplication or disclosure restricted by GSA ADP Schedule
+ * Contract with IBM Corp.
+ ******************************************************************************/
+package com.ibm.rqm.api.internal.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.jdom.Document;
+import org.jdom.Element;
+import org.jdom.JDOMException;
+import org.jdom.Parent;
+import org.jdom.Text;
+import org.jdom.filter.ContentFilter;
+import org.jdom.input.SAXBuilder;
+import org.jdom.output.Format;
+import org.jdom.output.XMLOutputter;
+
+/**
+ * <p>Hash of the canonical form of XML content, used to detect if an update changes a resource before writing
+ * the resource (write gate).</p>
+ *
+ * <p>The canonical form is the content parsed and serialized without formatting, ignoring whitespace-only text
+ * (for example, indentation) outside of rich text (XHTML) elements, so differences in serialization (for example,
+ * pretty-printing, the XML declaration, quoting, or character escaping) do not change the hash.  Whitespace-only
+ * text in rich text (XHTML) elements (for example, the space in <code>&lt;b&gt;a&lt;/b&gt; &lt;i&gt;b&lt;/i&gt;</code>)
+ * is significant and is retained.  Content that is not well-formed XML is hashed as is (trimmed).</p>
+ *
+ *
+ * @version 1.0
+ * @since   1.0
+ */
+public final class XMLContentHash {
+
+	private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray(); //$NON-NLS-1$
+
+	private XMLContentHash() {
+		//Not instantiable.
+	}
+
+	/**
+	 * <p>Resolves if updated XML content changes the original XML content.</p>
+	 *
+	 * @param originalXml The original XML content, otherwise <code>null</code>.
+	 * @param updatedXml The updated XML content.
+	 * @return <code>true</code> if the canonical forms of the original and updated XML content differ (or there is no original XML content), otherwise <code>false</code>.
+	 */
+	public static boolean isChanged(String originalXml, String updatedXml) {
+
+		if(originalXml == null){
+			return true;
+		}
+
+		if(originalXml.equals(updatedXml)){
+			return false;
+		}
+
+		return (!hash(originalXml).equals(hash(updatedXml)));
+	}
+
+	/**
+	 * <p>Resolves the SHA-256 hash (hexadecimal) of the canonical form of XML content.</p>
+	 *
+	 * @param xml The XML content.
+	 * @return The SHA-256 hash (hexadecimal) of the canonical form of the XML content.
+	 */
+	public static String hash(String xml) {
+
+		final MessageDigest digest = getDigest();
+
+		try {
+
+			Document document = new SAXBuilder().build(new StringReader(xml.trim()));
+
+			removeInsignificantWhitespace(document);
+
+			//Note: The canonical form is hashed as it is serialized, without holding the serialized content in memory.
+			new XMLOutputter(Format.getRawFormat()).output(document, new OutputStream() {
+
+				@Override
+				public void write(int b) {
+					digest.update((byte)(b));
+				}
+
+				@Override
+				public void write(byte[] bytes, int offset, int length) {
+					digest.update(bytes, offset, length);
+				}
+			});
+		}
+		catch (JDOMException j) {
+
+			//Note: Content that is not well-formed XML is hashed as is.
+			digest.reset();
+			digest.update(xml.trim().getBytes(StandardCharsets.UTF_8));
+		}
+		catch (IOException i) {
+
+			digest.reset();
+			digest.update(xml.trim().getBytes(StandardCharsets.UTF_8));
+		}
+
+		return (toHex(digest.digest()));
+	}
+
+	/**
+	 * <p>Removes the whitespace-only text of the elements that are not rich text (XHTML) elements.</p>
+	 */
+	private static void removeInsignificantWhitespace(Document document) {
+
+		List<Text> insignificantWhitespace = new ArrayList<Text>();
+
+		@SuppressWarnings("unchecked")
+		Iterator<Text> texts = document.getDescendants(new ContentFilter(ContentFilter.TEXT | ContentFilter.CDATA));
+
+		while(texts.hasNext()){
+
+			Text text = texts.next();
+			Parent parent = text.getParent();
+
+			if((text.getText().trim().isEmpty()) && ((!(parent instanceof Element)) || (!IAPIConstants.NAMESPACE_URI_XHTML.equals(((Element)(parent)).getNamespaceURI())))){
+				insignificantWhitespace.add(text);
+			}
+		}
+
+		//Note: The text is detached after iterating, since the descendants cannot be modified while iterating.
+		for(Text text : insignificantWhitespace){
+			text.detach();
+		}
+	}
+
+	private static MessageDigest getDigest() {
+
+		try {
+			return (MessageDigest.getInstance("SHA-256")); //$NON-NLS-1$
+		}
+		catch (NoSuchAlgorithmException n) {
+
+			//Note: Every Java platform supports SHA-256.
+			throw new IllegalStateException(n);
+		}
+	}
+
+	private static String toHex(byte[] bytes) {
+
+		StringBuilder hex = new StringBuilder(bytes.length * 2);
+
+		for(byte hashByte : bytes){
+			hex.append(HEX_DIGITS[(hashByte >> 4) & 0x0F]).append(HEX_DIGITS[hashByte & 0x0F]);
+		}
+
+		return (hex.toString());
+	}
+}
@@ -0,0 +1,536 @@
+/*******************************************************************************
+ * Licensed Materials - Property of IBM
+ * © Copyright IBM Corporation 2011, 2020. All Rights Reserved.
+ *
+ * U.S. Government Users Restricted Rights:
+ * Use, duplication or disclosure restricted by GSA ADP Schedule
+ * Contract with IBM Corp.
+ ******************************************************************************/
+package com.ibm.rqm.api.internal.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * <p>Streaming XML formatter.</p>
+ *
+ * <p>Formats XML content in a single forward pass from a reader to a writer without building a
+ * document tree.  The formatted XML content is consistent with the JDOM pretty format (two space
+ * indentation, trimmed text, and collapsed empty elements) and excludes the XML declaration.</p>
+ *
+ * <p>Note: Memory usage is bounded by the largest text node in the XML content.</p>
+ *
+ *
+ * @version 1.0
+ * @since   1.0
+ */
+public final class XMLStreamFormatter {
+
+	private static final String INDENT = "  "; //$NON-NLS-1$
+
+	//Note: Consistent with the JDOM pretty format.
+	private static final String LINE_SEPARATOR = "\r\n"; //$NON-NLS-1$
+
+	private static final String ENTRY_TAG_NAME = "entry"; //$NON-NLS-1$
+
+	private static final XMLInputFactory XML_INPUT_FACTORY = XMLInputFactory.newInstance();
+
+	static{
+
+		XML_INPUT_FACTORY.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, Boolean.TRUE);
+		XML_INPUT_FACTORY.setProperty(XMLInputFactory.IS_COALESCING, Boolean.TRUE);
+		XML_INPUT_FACTORY.setProperty(XMLInputFactory.IS_REPLACING_ENTITY_REFERENCES, Boolean.TRUE);
+		XML_INPUT_FACTORY.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+	}
+
+	private final XMLStreamReader xmlStreamReader;
+	private final Writer writer;
+	private final String linkHref;
+	private final StringBuilder text = new StringBuilder();
+	private int depth = 0;
+	private boolean startTagOpen = false;
+	private boolean linkWritten = false;
+	private boolean nodeWritten = false;
+
+	private XMLStreamFormatter(XMLStreamReader xmlStreamReader, Writer writer, String linkHref) {
+
+		this.xmlStreamReader = xmlStreamReader;
+		this.writer = writer;
+		this.linkHref = linkHref;
+	}
+
+	/**
+	 * <p>Formats XML content.</p>
+	 *
+	 * @param reader The reader containing the XML content.
+	 * @param writer The writer for the formatted XML content.
+	 * @throws IOException If the XML content cannot be read, parsed, or written.
+	 */
+	public static void format(Reader reader, Writer writer) throws IOException {
+		formatFeed(reader, writer, null);
+	}
+
+	/**
+	 * <p>Formats an ATOM feed, inserting a link (<code>&lt;link href="..." /&gt;</code>) before the first entry
+	 * in the feed.</p>
+	 *
+	 * @param reader The reader containing the ATOM feed.
+	 * @param writer The writer for the formatted ATOM feed.
+	 * @param linkHref The reference of the inserted link, otherwise <code>null</code> to not insert a link.
+	 * @throws IOException If the ATOM feed cannot be read, parsed, or written.
+	 */
+	public static void formatFeed(Reader reader, Writer writer, String linkHref) throws IOException {
+
+		try {
+
+			XMLStreamReader xmlStreamReader = XML_INPUT_FACTORY.createXMLStreamReader(reader);
+
+			try {
+				new XMLStreamFormatter(xmlStreamReader, writer, linkHref).format();
+			}
+			finally {
+				xmlStreamReader.close();
+			}
+		}
+		catch (XMLStreamException x) {
+			throw new IOException(x.getMessage(), x);
+		}
+	}
+
+	private void format() throws XMLStreamException, IOException {
+
+		while(xmlStreamReader.hasNext()) {
+
+			switch (xmlStreamReader.next()) {
+
+			case XMLStreamConstants.START_ELEMENT:
+				writeStartElement();
+				break;
+
+			case XMLStreamConstants.END_ELEMENT:
+				writeEndElement();
+				break;
+
+			case XMLStreamConstants.CHARACTERS:
+			case XMLStreamConstants.CDATA:
+			case XMLStreamConstants.SPACE:
+
+				if(depth > 0){
+					text.append(xmlStreamReader.getTextCharacters(), xmlStreamReader.getTextStart(), xmlStreamReader.getTextLength());
+				}
+
+				break;
+
+			case XMLStreamConstants.COMMENT:
+
+				startChild();
+
+				writer.write("<!--"); //$NON-NLS-1$
+				writer.write(xmlStreamReader.getText());
+				writer.write("-->"); //$NON-NLS-1$
+
+				break;
+
+			case XMLStreamConstants.PROCESSING_INSTRUCTION:
+
+				startChild();
+
+				writer.write("<?"); //$NON-NLS-1$
+				writer.write(xmlStreamReader.getPITarget());
+
+				String data = xmlStreamReader.getPIData();
+
+				if((data != null) && (data.length() > 0)){
+					writer.write(" "); //$NON-NLS-1$
+					writer.write(data);
+				}
+
+				writer.write("?>"); //$NON-NLS-1$
+
+				break;
+
+			default:
+				//Note: Ignore the XML declaration and DTD.
+				break;
+			}
+		}
+	}
+
+	private void writeStartElement() throws IOException {
+
+		startChild();
+
+		//Insert the link before the first entry in the feed:
+		if((linkHref != null) && (!linkWritten) && (depth == 1) && (ENTRY_TAG_NAME.equals(xmlStreamReader.getLocalName()))){
+
+			writer.write("<link href=\""); //$NON-NLS-1$
+			writeEscaped(linkHref, true);
+			writer.write("\" />"); //$NON-NLS-1$
+
+			linkWritten = true;
+
+			startChild();
+		}
+
+		writer.write('<');
+		writer.write(getQualifiedName(xmlStreamReader.getPrefix(), xmlStreamReader.getLocalName()));
+
+		for (int index = 0; index < xmlStreamReader.getNamespaceCount(); index++) {
+
+			String prefix = xmlStreamReader.getNamespacePrefix(index);
+
+			writer.write(" xmlns"); //$NON-NLS-1$
+
+			if((prefix != null) && (prefix.length() > 0)){
+				writer.write(':');
+				writer.write(prefix);
+			}
+
+			writer.write("=\""); //$NON-NLS-1$
+			writeEscaped(xmlStreamReader.getNamespaceURI(index), true);
+			writer.write('"');
+		}
+
+		for (int index = 0; index < xmlStreamReader.getAttributeCount(); index++) {
+
+			writer.write(' ');
+			writer.write(getQualifiedName(xmlStreamReader.getAttributePrefix(index), xmlStreamReader.getAttributeLocalName(index)));
+			writer.write("=\""); //$NON-NLS-1$
+			writeEscaped(xmlStreamReader.getAttributeValue(index), true);
+			writer.write('"');
+		}
+
+		startTagOpen = true;
+		depth++;
+	}
+
+	private void writeEndElement() throws IOException {
+
+		depth--;
+
+		if(startTagOpen){
+
+			//Text only or empty element:
+			String trimmedText = text.toString().trim();
+
+			text.setLength(0);
+
+			if(trimmedText.length() == 0){
+				writer.write(" />"); //$NON-NLS-1$
+			}
+			else{
+
+				writer.write('>');
+				writeEscaped(trimmedText, false);
+				writeEndTag();
+			}
+
+			startTagOpen = false;
+		}
+		else{
+
+			writeText(depth + 1);
+			writeLine(depth);
+			writeEndTag();
+		}
+	}
+
+	private void writeEndTag() throws IOException {
+
+		writer.write("</"); //$NON-NLS-1$
+		writer.write(getQualifiedName(xmlStreamReader.getPrefix(), xmlStreamReader.getLocalName()));
+		writer.write('>');
+	}
+
+	/**
+	 * <p>Starts a child node (element, comment, or processing instruction) of the current element on a new line.</p>
+	 */
+	private void startChild() throws IOException {
+
+		if(startTagOpen){
+
+			writer.write('>');
+
+			startTagOpen = false;
+		}
+
+		writeText(depth);
+
+		if(nodeWritten){
+			writeLine(depth);
+		}
+
+		nodeWritten = true;
+	}
+
+	/**
+	 * <p>Writes the pending (mixed content) text on a new line.</p>
+	 */
+	private void writeText(int indentDepth) throws IOException {
+
+		if(text.length() > 0){
+
+			String trimmedText = text.toString().trim();
+
+			text.setLength(0);
+
+			if(trimmedText.length() > 0){
+
+				writeLine(indentDepth);
+				writeEscaped(trimmedText, false);
+			}
+		}
+	}
+
+	private void writeLine(int indentDepth) throws IOException {
+
+		writer.write(LINE_SEPARATOR);
+
+		for (int counter = 0; counter < indentDepth; counter++) {
+			writer.write(INDENT);
+		}
+	}
+
+	private void writeEscaped(String value, boolean isAttribute) throws IOException {
+		writeEscaped(writer, value, isAttribute);
+	}
+
+	private static void writeEscaped(Writer writer, String value, boolean isAttribute) throws IOException {
+
+		int start = 0;
+		int length = value.length();
+
+		for (int index = 0; index < length; index++) {
+
+			String entity = null;
+
+			switch (value.charAt(index)) {
+
+			case '&':
+				entity = "&amp;"; //$NON-NLS-1$
+				break;
+			case '<':
+				entity = "&lt;"; //$NON-NLS-1$
+				break;
+			case '>':
+				entity = "&gt;"; //$NON-NLS-1$
+				break;
+			case '\r':
+				entity = "&#xD;"; //$NON-NLS-1$
+				break;
+			case '"':
+				entity = (isAttribute ? "&quot;" : null); //$NON-NLS-1$
+				break;
+			case '\t':
+				entity = (isAttribute ? "&#x9;" : null); //$NON-NLS-1$
+				break;
+			case '\n':
+				entity = (isAttribute ? "&#xA;" : null); //$NON-NLS-1$
+				break;
+			default:
+				break;
+			}
+
+			if(entity != null){
+
+				writer.write(value, start, (index - start));
+				writer.write(entity);
+
+				start = (index + 1);
+			}
+		}
+
+		writer.write(value, start, (length - start));
+	}
+
+	/**
+	 * <p>Serializes the current element (including its content) of a XML stream reader.</p>
+	 *
+	 * <p>The XML stream reader must be positioned on the start element and is positioned on the
+	 * corresponding end element on return.  Only the namespaces declared by the ancestors of the element
+	 * that are used (and not re-declared) by the element or its content are declared on the serialized
+	 * element, so namespaces inherited from the enclosing document (for example, an Atom feed) are not
+	 * added to the element.  Text is not formatted.</p>
+	 *
+	 * <p>Note: Prefixes used in attribute values or text (for example, <code>xsi:type</code> values) are not
+	 * resolved.</p>
+	 *
+	 * @param xmlStreamReader The XML stream reader positioned on the start element.
+	 * @param inheritedNamespaces The namespace URIs declared by the ancestors of the element, keyed by prefix (empty for the default namespace).
+	 * @return The serialized element.
+	 */
+	static String toString(XMLStreamReader xmlStreamReader, Map<String, String> inheritedNamespaces) throws XMLStreamException, IOException {
+
+		//Note: The start tag of the element is written after the content, once the used inherited namespaces are resolved.
+		String elementName = getQualifiedName(xmlStreamReader.getPrefix(), xmlStreamReader.getLocalName());
+		StringWriter elementAttributes = new StringWriter();
+		StringWriter content = new StringWriter();
+		Set<String> usedInheritedPrefixes = new HashSet<String>();
+		Deque<Set<String>> declaredPrefixes = new ArrayDeque<Set<String>>();
+		int depth = 0;
+
+		while(true) {
+
+			switch (xmlStreamReader.getEventType()) {
+
+			case XMLStreamConstants.START_ELEMENT:
+
+				Writer writer = ((depth == 0) ? elementAttributes : content);
+				Set<String> prefixes = new HashSet<String>();
+
+				if(depth > 0){
+
+					writer.write('<');
+					writer.write(getQualifiedName(xmlStreamReader.getPrefix(), xmlStreamReader.getLocalName()));
+				}
+
+				for (int index = 0; index < xmlStreamReader.getNamespaceCount(); index++) {
+
+					String prefix = xmlStreamReader.getNamespacePrefix(index);
+
+					prefixes.add((prefix == null) ? "" : prefix); //$NON-NLS-1$
+
+					writeNamespace(writer, prefix, xmlStreamReader.getNamespaceURI(index));
+				}
+
+				declaredPrefixes.push(prefixes);
+
+				resolveInheritedPrefix(xmlStreamReader.getPrefix(), inheritedNamespaces, declaredPrefixes, usedInheritedPrefixes);
+
+				for (int index = 0; index < xmlStreamReader.getAttributeCount(); index++) {
+
+					String attributePrefix = xmlStreamReader.getAttributePrefix(index);
+
+					//Note: Unprefixed attributes are not in the default namespace.
+					if((attributePrefix != null) && (attributePrefix.length() > 0)){
+						resolveInheritedPrefix(attributePrefix, inheritedNamespaces, declaredPrefixes, usedInheritedPrefixes);
+					}
+
+					writer.write(' ');
+					writer.write(getQualifiedName(attributePrefix, xmlStreamReader.getAttributeLocalName(index)));
+					writer.write("=\""); //$NON-NLS-1$
+					writeEscaped(writer, xmlStreamReader.getAttributeValue(index), true);
+					writer.write('"');
+				}
+
+				if(depth > 0){
+					writer.write('>');
+				}
+
+				depth++;
+
+				break;
+
+			case XMLStreamConstants.END_ELEMENT:
+
+				content.write("</"); //$NON-NLS-1$
+				content.write(getQualifiedName(xmlStreamReader.getPrefix(), xmlStreamReader.getLocalName()));
+				content.write('>');
+
+				declaredPrefixes.pop();
+
+				depth--;
+
+				break;
+
+			case XMLStreamConstants.CHARACTERS:
+			case XMLStreamConstants.CDATA:
+			case XMLStreamConstants.SPACE:
+				writeEscaped(content, xmlStreamReader.getText(), false);
+				break;
+
+			case XMLStreamConstants.COMMENT:
+
+				content.write("<!--"); //$NON-NLS-1$
+				content.write(xmlStreamReader.getText());
+				content.write("-->"); //$NON-NLS-1$
+
+				break;
+
+			default:
+				break;
+			}
+
+			if(depth == 0){
+
+				StringWriter element = new StringWriter(elementName.length() + elementAttributes.getBuffer().length() + content.getBuffer().length() + 64);
+
+				element.write('<');
+				element.write(elementName);
+
+				//Declare the used inherited namespaces in the declaration order:
+				for (Map.Entry<String, String> inheritedNamespace : inheritedNamespaces.entrySet()) {
+
+					if(usedInheritedPrefixes.contains(inheritedNamespace.getKey())){
+						writeNamespace(element, inheritedNamespace.getKey(), inheritedNamespace.getValue());
+					}
+				}
+
+				element.write(elementAttributes.toString());
+				element.write('>');
+				element.write(content.toString());
+
+				return (element.toString());
+			}
+
+			xmlStreamReader.next();
+		}
+	}
+
+	/**
+	 * <p>Records a prefix used by an element or attribute as a used inherited prefix, if the prefix is not declared 
+	 * by the element or its ancestors in the serialized content and is declared by the ancestors of the serialized element.</p>
+	 */
+	private static void resolveInheritedPrefix(String prefix, Map<String, String> inheritedNamespaces, Deque<Set<String>> declaredPrefixes, Set<String> usedInheritedPrefixes) {
+
+		String usedPrefix = ((prefix == null) ? "" : prefix); //$NON-NLS-1$
+
+		if((usedInheritedPrefixes.contains(usedPrefix)) || (!inheritedNamespaces.containsKey(usedPrefix))){
+			return;
+		}
+
+		for (Set<String> prefixes : declaredPrefixes) {
+
+			if(prefixes.contains(usedPrefix)){
+				return;
+			}
+		}
+
+		usedInheritedPrefixes.add(usedPrefix);
+	}
+
+	private static void writeNamespace(Writer writer, String prefix, String namespaceUri) throws IOException {
+
+		writer.write(" xmlns"); //$NON-NLS-1$
+
+		if((prefix != null) && (prefix.length() > 0)){
+			writer.write(':');
+			writer.write(prefix);
+		}
+
+		writer.write("=\""); //$NON-NLS-1$
+		writeEscaped(writer, namespaceUri, true);
+		writer.write('"');
+	}
+
+	private static String getQualifiedName(String prefix, String localName) {
+
+		if((prefix != null) && (prefix.length() > 0)){
+			return (prefix + ":" + localName); //$NON-NLS-1$
+		}
+
+		return localName;
+	}
+}